@@ -0,0 +1,134 @@
+package com.booking.bench;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.booking.cache.FlightInfoCache;
+import com.booking.cache.FlightInfoCoalescer;
+import com.booking.feign.AsyncFlightClient;
+import com.booking.feign.FeignInterface;
+import com.booking.feign.FlightServiceClient;
+import com.booking.feign.HttpAsyncFlightClient;
+import com.booking.pnr.PnrGenerator;
+import com.booking.request.BookingRequest;
+import com.booking.service.AsyncBookingServiceImpl;
+import com.booking.service.BookingServiceImpl;
+import com.booking.service.BookingWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+// Blocking bookTicket against bookTicketAsync with the same fixed pool of request threads and the
+// same number of concurrent clients, over real HTTP to a local stub that answers after 50 ms.
+// The blocking mode calls the same HTTP client and waits, which is what Feign does.
+//
+//   mvn -Pjmh test-compile exec:java -Dexec.mainClass=com.booking.bench.AsyncBookingLoadTest \
+//       -Dbookings=5000 -DrequestThreads=50 -Dclients=500 -DremoteLatencyMs=50 -DdbLatencyMs=2
+public final class AsyncBookingLoadTest {
+
+    private AsyncBookingLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int bookings = Integer.getInteger("bookings", 5000);
+        int requestThreads = Integer.getInteger("requestThreads", 50);
+        int clients = Integer.getInteger("clients", 500);
+        long remoteMs = Long.getLong("remoteLatencyMs", 50);
+        long dbMs = Long.getLong("dbLatencyMs", 2);
+
+        try (StubFlightServer stub = new StubFlightServer(BenchFixtures.seatMap(50), remoteMs)) {
+            ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+            AsyncFlightClient http = new HttpAsyncFlightClient(stub::uri, mapper, Duration.ofSeconds(30));
+            BookingRequest req = BenchFixtures.request("load@example.com", List.of("7C"));
+
+            InMemoryBookingStore syncStore = new InMemoryBookingStore().withWriteLatency(dbMs);
+            BookingServiceImpl sync = BenchFixtures.service(syncStore.repository(), blocking(http))
+                    .flightCacheTtl(Duration.ZERO)
+                    .build();
+            run("blocking", bookings, requestThreads, clients,
+                    () -> CompletableFuture.completedFuture(sync.bookTicket("AI-202", req)));
+
+            InMemoryBookingStore asyncStore = new InMemoryBookingStore().withWriteLatency(dbMs);
+            ExecutorService dbPool = Executors.newFixedThreadPool(10);
+            FlightServiceClient flightService = new FlightServiceClient(null, http, BenchFixtures.unlimitedFlightCalls(),
+                    new FlightInfoCoalescer(Duration.ofSeconds(3)), CircuitBreakerRegistry.ofDefaults());
+            AsyncBookingServiceImpl async = new AsyncBookingServiceImpl(flightService,
+                    new BookingWriter(asyncStore.repository(), BenchFixtures.noopPublisher()),
+                    new FlightInfoCache(Duration.ZERO, 1000), new PnrGenerator(0, System::currentTimeMillis),
+                    BenchFixtures.seatHolds(), BenchFixtures.soldSeats(), dbPool);
+            run("async", bookings, requestThreads, clients, () -> async.bookTicketAsync("AI-202", req));
+            dbPool.shutdown();
+        }
+    }
+
+    private interface Booking {
+        CompletableFuture<Map<String, Object>> start();
+    }
+
+    // Each client keeps one booking open at a time; a request thread only runs until start()
+    // returns, which for the async mode is as soon as the first HTTP call is on the wire.
+    private static void run(String label, int bookings, int requestThreads, int clients, Booking booking) throws Exception {
+        ExecutorService requestPool = Executors.newFixedThreadPool(requestThreads);
+        Semaphore openClients = new Semaphore(clients);
+        LatencyRecorder latency = new LatencyRecorder(bookings);
+        CountDownLatch done = new CountDownLatch(bookings);
+        AtomicInteger failed = new AtomicInteger();
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < bookings; i++) {
+            openClients.acquire();
+            long submitted = System.nanoTime();
+            requestPool.execute(() -> {
+                CompletableFuture<Map<String, Object>> f;
+                try {
+                    f = booking.start();
+                } catch (RuntimeException ex) {
+                    f = CompletableFuture.failedFuture(ex);
+                }
+                f.whenComplete((resp, ex) -> {
+                    if (ex != null || resp.containsKey("status")) failed.incrementAndGet();
+                    latency.record(System.nanoTime() - submitted);
+                    openClients.release();
+                    done.countDown();
+                });
+            });
+        }
+        done.await(5, TimeUnit.MINUTES);
+        long wallNanos = System.nanoTime() - begin;
+        requestPool.shutdown();
+
+        System.out.printf("%-9s threads=%d clients=%d wall=%dms throughput=%.0f bookings/s failed=%d latency %s%n",
+                label, requestThreads, clients, wallNanos / 1_000_000, bookings / (wallNanos / 1e9),
+                failed.get(), latency.summary());
+    }
+
+    // FeignInterface that waits on the HTTP call, like the generated Feign client.
+    private static FeignInterface blocking(AsyncFlightClient http) {
+        return (FeignInterface) Proxy.newProxyInstance(FeignInterface.class.getClassLoader(),
+                new Class<?>[] { FeignInterface.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getFlightInfo":
+                            return http.getFlightInfo((String) args[0]).join();
+                        case "reserveSeats":
+                            return http.reserveSeats((String) args[0], castMap(args[1])).join();
+                        case "releaseSeats":
+                            return http.releaseSeats((String) args[0], castMap(args[1])).join();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> castMap(Object o) {
+        return (Map<String, Object>) o;
+    }
+}
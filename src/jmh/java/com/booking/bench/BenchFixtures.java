@@ -0,0 +1,224 @@
+package com.booking.bench;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.booking.cache.FlightInfoCache;
+import com.booking.cache.FlightInfoCoalescer;
+import com.booking.cache.LocalTicketCacheBackend;
+import com.booking.cache.TicketCache;
+import com.booking.feign.AsyncFlightClient;
+import com.booking.feign.FeignInterface;
+import com.booking.feign.FlightCallGuard;
+import com.booking.feign.FlightInventory;
+import com.booking.feign.FlightServiceClient;
+import com.booking.feign.SeatSet;
+import com.booking.hold.SeatHoldEngine;
+import com.booking.inventory.SoldSeatIndex;
+import com.booking.metrics.BookingMetrics;
+import com.booking.pnr.PnrGenerator;
+import com.booking.publisher.EmailPublisher;
+import com.booking.repositories.BookingRepository;
+import com.booking.repositories.OutboxEventRepository;
+import com.booking.repositories.SeatReleaseRepository;
+import com.booking.request.BookingRequest;
+import com.booking.request.PassengerRequest;
+import com.booking.service.BookingServiceImpl;
+import com.booking.service.BookingWriter;
+import com.booking.service.TicketReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+// Shared wiring for the booking benchmarks: the real service on top of in-process stubs.
+public final class BenchFixtures {
+
+    private BenchFixtures() {}
+
+    public static List<String> seatMap(int rows) {
+        List<String> seats = new ArrayList<>();
+        for (int row = 1; row <= rows; row++) {
+            for (char c = 'A'; c <= 'F'; c++) {
+                seats.add(row + String.valueOf(c));
+            }
+        }
+        return seats;
+    }
+
+    public static FeignInterface stubFlightClient(List<String> seats) {
+        return stubFlightClient(seats, 0);
+    }
+
+    // Remote calls block the calling thread for latencyMillis, like a real Feign round-trip.
+    public static FeignInterface stubFlightClient(List<String> seats, long latencyMillis) {
+        FlightInventory inventory = new FlightInventory(false, null, null, 4599.0,
+                LocalDateTime.of(2025, 6, 1, 10, 30), SeatSet.of(seats));
+        return new FeignInterface() {
+            @Override
+            public FlightInventory getFlightInfo(String flightId) {
+                pause(latencyMillis);
+                return inventory;
+            }
+
+            @Override
+            public Map<String, Object> reserveSeats(String flightId, Map<String, Object> body) {
+                pause(latencyMillis);
+                return Map.of("message", "Reserved");
+            }
+
+            @Override
+            public Map<String, Object> releaseSeats(String flightId, Map<String, Object> body) {
+                pause(latencyMillis);
+                return Map.of("message", "Released");
+            }
+        };
+    }
+
+    // Outbox rows are serialized as in production and then dropped.
+    public static EmailPublisher noopPublisher() {
+        return new EmailPublisher(discardingRepository(OutboxEventRepository.class), new ObjectMapper());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T discardingRepository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "save":
+                case "saveAll":
+                    return args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName();
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    // The real booking service over repo and flightClient; each benchmark overrides only what it
+    // measures, e.g. BenchFixtures.service(repo, client).flightCacheTtl(Duration.ZERO).build().
+    public static ServiceBuilder service(BookingRepository repo, FeignInterface flightClient) {
+        return new ServiceBuilder(repo, flightClient);
+    }
+
+    public static final class ServiceBuilder {
+        private final BookingRepository repo;
+        private final FeignInterface flightClient;
+        private BookingWriter writer;
+        private Duration flightCacheTtl = Duration.ofSeconds(2);
+        private TicketCache ticketCache;
+        private FlightCallGuard flightCalls;
+
+        private ServiceBuilder(BookingRepository repo, FeignInterface flightClient) {
+            this.repo = repo;
+            this.flightClient = flightClient;
+        }
+
+        // default: writes through repo, outbox rows dropped
+        public ServiceBuilder writer(BookingWriter writer) {
+            this.writer = writer;
+            return this;
+        }
+
+        // zero disables the inventory cache so every booking pays the remote call
+        public ServiceBuilder flightCacheTtl(Duration flightCacheTtl) {
+            this.flightCacheTtl = flightCacheTtl;
+            return this;
+        }
+
+        // default: local, 60s TTL, 10k tickets
+        public ServiceBuilder ticketCache(TicketCache ticketCache) {
+            this.ticketCache = ticketCache;
+            return this;
+        }
+
+        // default: unlimitedFlightCalls()
+        public ServiceBuilder flightCalls(FlightCallGuard flightCalls) {
+            this.flightCalls = flightCalls;
+            return this;
+        }
+
+        public BookingServiceImpl build() {
+            // the blocking service never touches the async client
+            AsyncFlightClient noAsyncClient = null;
+            FlightServiceClient flightService = new FlightServiceClient(flightClient, noAsyncClient,
+                    flightCalls != null ? flightCalls : unlimitedFlightCalls(),
+                    new FlightInfoCoalescer(Duration.ofSeconds(3)), CircuitBreakerRegistry.ofDefaults());
+            return new BookingServiceImpl(repo, discardingRepository(SeatReleaseRepository.class),
+                    writer != null ? writer : new BookingWriter(repo, noopPublisher()),
+                    new FlightInfoCache(flightCacheTtl, 1000),
+                    flightService,
+                    BookingMetrics.noop(),
+                    new PnrGenerator(0, System::currentTimeMillis),
+                    seatHolds(),
+                    soldSeats(),
+                    ticketCache != null ? ticketCache : new TicketCache(new LocalTicketCacheBackend(Duration.ofSeconds(60), 10_000)),
+                    new TicketReader(repo));
+        }
+    }
+
+    // Tracks no flights: the benchmarks book the same seats over and over, which a real index
+    // would refuse locally after the first booking.
+    public static SoldSeatIndex soldSeats() {
+        return new SoldSeatIndex(0);
+    }
+
+    // Production bulkhead sizes and limiter defaults (see application.properties).
+    public static FlightCallGuard flightCalls() {
+        BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+        bulkheads.bulkhead("flightInfo", BulkheadConfig.custom().maxConcurrentCalls(50).maxWaitDuration(Duration.ZERO).build());
+        bulkheads.bulkhead("flightReserve", BulkheadConfig.custom().maxConcurrentCalls(30).maxWaitDuration(Duration.ZERO).build());
+        bulkheads.bulkhead("flightRelease", BulkheadConfig.custom().maxConcurrentCalls(10).maxWaitDuration(Duration.ZERO).build());
+        return new FlightCallGuard(bulkheads, 20, 2, 50,
+                Duration.ofMillis(250), Duration.ofMillis(750), Duration.ofMillis(750));
+    }
+
+    // Admission control out of the way, for benchmarks measuring something else.
+    public static FlightCallGuard unlimitedFlightCalls() {
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(
+                BulkheadConfig.custom().maxConcurrentCalls(100_000).maxWaitDuration(Duration.ZERO).build());
+        return new FlightCallGuard(bulkheads, 100_000, 100_000, 100_000,
+                Duration.ofDays(1), Duration.ofDays(1), Duration.ofDays(1));
+    }
+
+    public static SeatHoldEngine seatHolds() {
+        return new SeatHoldEngine(Duration.ofMinutes(5), Duration.ofMinutes(15), 9, System::currentTimeMillis);
+    }
+
+    public static void pause(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static BookingRequest request(String email, List<String> seats) {
+        BookingRequest req = new BookingRequest();
+        req.setEmail(email);
+        req.setName("Bench User");
+        req.setNumberOfSeats(seats.size());
+        req.setMealPreference("VEG");
+        req.setSeatNumbers(seats);
+        List<PassengerRequest> passengers = new ArrayList<>();
+        for (int i = 0; i < seats.size(); i++) {
+            PassengerRequest p = new PassengerRequest();
+            p.setName("Passenger " + i);
+            p.setGender(i % 2 == 0 ? "M" : "F");
+            p.setAge(20 + i);
+            passengers.add(p);
+        }
+        req.setPassengers(passengers);
+        return req;
+    }
+}
@@ -0,0 +1,95 @@
+package com.booking.bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.booking.request.BookingRequest;
+import com.booking.service.BookingServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Baseline for the booking hot paths. Throughput plus SampleTime (p50/p90/p99/p999); run with the
+// default -prof gc from the jmh profile for allocation rate.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingHotPathBenchmark {
+
+    private static final int STORED_BOOKINGS = 10_000;
+    private static final int HISTORY_SIZE = 50;
+
+    private final InMemoryBookingStore bookStore = new InMemoryBookingStore();
+    private final InMemoryBookingStore readStore = new InMemoryBookingStore();
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    private BookingServiceImpl bookingService;
+    private BookingServiceImpl readService;
+    private BookingRequest request;
+    private String[] pnrs;
+    private Map<String, Object> ticketResponse;
+    private Map<String, Object> historyResponse;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> seats = BenchFixtures.seatMap(50);
+        bookingService = BenchFixtures.service(bookStore.repository(), BenchFixtures.stubFlightClient(seats)).build();
+        readService = BenchFixtures.service(readStore.repository(), BenchFixtures.stubFlightClient(seats)).build();
+        request = BenchFixtures.request("bench@example.com", List.of("12A", "12B"));
+
+        pnrs = new String[STORED_BOOKINGS];
+        for (int i = 0; i < STORED_BOOKINGS; i++) {
+            String email = i < HISTORY_SIZE ? "frequent@example.com" : "user" + i + "@example.com";
+            Map<String, Object> resp = readService.bookTicket("AI-202", BenchFixtures.request(email, List.of("3C")));
+            pnrs[i] = (String) resp.get("pnr");
+        }
+        ticketResponse = readService.getTicketByPnr(pnrs[0]);
+        historyResponse = readService.getBookingHistory("frequent@example.com", null, HISTORY_SIZE);
+    }
+
+    // Keeps the write-side store from growing without bound across iterations.
+    @Setup(Level.Iteration)
+    public void resetBookings() {
+        bookStore.clear();
+    }
+
+    @Benchmark
+    public Map<String, Object> bookTicket() {
+        return bookingService.bookTicket("AI-202", request);
+    }
+
+    @Benchmark
+    public Map<String, Object> getTicketByPnr() {
+        return readService.getTicketByPnr(pnrs[ThreadLocalRandom.current().nextInt(STORED_BOOKINGS)]);
+    }
+
+    @Benchmark
+    public Map<String, Object> getBookingHistory() {
+        return readService.getBookingHistory("frequent@example.com", null, HISTORY_SIZE);
+    }
+
+    @Benchmark
+    public byte[] serializeTicketResponse() throws Exception {
+        return mapper.writeValueAsBytes(ticketResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeHistoryResponse() throws Exception {
+        return mapper.writeValueAsBytes(historyResponse);
+    }
+}
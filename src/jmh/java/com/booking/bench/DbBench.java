@@ -0,0 +1,55 @@
+package com.booking.bench;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.booking.model.Booking;
+import com.booking.publisher.EmailPublisher;
+import com.booking.repositories.BookingRepository;
+import com.booking.service.BookingWriter;
+import com.booking.service.TicketReader;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Minimal JPA-only context for database benchmarks. Needs a disposable MySQL schema:
+//   -Dbench.jdbc.url=jdbc:mysql://localhost:3306/booking_bench -Dbench.jdbc.user=root -Dbench.jdbc.password=...
+// Hibernate statistics are on so benchmarks can report statements per operation.
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = Booking.class)
+@EnableJpaRepositories(basePackageClasses = BookingRepository.class)
+@Import({ BookingWriter.class, EmailPublisher.class, TicketReader.class })
+public class DbBench {
+
+    public static ConfigurableApplicationContext start(Class<?>... extraComponents) {
+        Class<?>[] sources = new Class<?>[extraComponents.length + 1];
+        sources[0] = DbBench.class;
+        System.arraycopy(extraComponents, 0, sources, 1, extraComponents.length);
+        return new SpringApplicationBuilder(sources)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.cloud.config.enabled=false",
+                        "spring.config.import=",
+                        "eureka.client.enabled=false",
+                        "spring.datasource.url=" + System.getProperty("bench.jdbc.url", "jdbc:mysql://localhost:3306/booking_bench"),
+                        "spring.datasource.username=" + System.getProperty("bench.jdbc.user", "root"),
+                        "spring.datasource.password=" + System.getProperty("bench.jdbc.password", ""),
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "spring.jpa.open-in-view=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN")
+                .run();
+    }
+
+    public static Statistics statistics(ConfigurableApplicationContext ctx) {
+        return ctx.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+}
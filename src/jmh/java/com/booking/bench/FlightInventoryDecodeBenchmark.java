@@ -0,0 +1,104 @@
+package com.booking.bench;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.booking.feign.FlightInventory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Old Map<String,Object> inventory path against the typed FlightInventory path for a
+// 300-seat aircraft (50 rows x A-F). Run with -prof gc to compare allocation per call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightInventoryDecodeBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private byte[] payload;
+    private List<String> requested;
+    private Map<String, Object> decodedMap;
+    private FlightInventory decodedInventory;
+
+    @Setup
+    public void setup() throws Exception {
+        List<String> seats = new ArrayList<>();
+        for (int row = 1; row <= 50; row++) {
+            for (char c = 'A'; c <= 'F'; c++) {
+                seats.add(row + String.valueOf(c));
+            }
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("flightId", "AI-202");
+        body.put("price", 4599.0);
+        body.put("startDate", "2025-06-01T10:30:00");
+        body.put("availableSeatNumbers", seats);
+        payload = mapper.writeValueAsBytes(body);
+        requested = List.of("48A", "48B", "49C", "49D", "50E", "50F");
+        decodedMap = mapper.readValue(payload, MAP_TYPE);
+        decodedInventory = mapper.readValue(payload, FlightInventory.class);
+    }
+
+    @Benchmark
+    public void mapPath(Blackhole bh) throws Exception {
+        Map<String, Object> info = mapper.readValue(payload, MAP_TYPE);
+        bh.consume(legacyCheck(info));
+    }
+
+    @Benchmark
+    public void typedPath(Blackhole bh) throws Exception {
+        FlightInventory info = mapper.readValue(payload, FlightInventory.class);
+        bh.consume(info.availableSeatNumbers().containsAll(requested));
+        bh.consume(info.price());
+        bh.consume(info.startDate());
+    }
+
+    @Benchmark
+    public boolean mapAvailabilityCheck() {
+        @SuppressWarnings("unchecked")
+        List<String> available = (List<String>) decodedMap.get("availableSeatNumbers");
+        return available.containsAll(requested);
+    }
+
+    @Benchmark
+    public boolean typedAvailabilityCheck() {
+        return decodedInventory.availableSeatNumbers().containsAll(requested);
+    }
+
+    // Mirrors what bookTicket did with the raw map before the typed contract.
+    private double legacyCheck(Map<String, Object> info) {
+        @SuppressWarnings("unchecked")
+        List<String> available = (List<String>) info.getOrDefault("availableSeatNumbers", List.of());
+        if (!available.containsAll(requested)) return -1;
+        double price = 0.0;
+        Object priceObj = info.get("price");
+        if (priceObj instanceof Number) {
+            price = ((Number) priceObj).doubleValue();
+        } else if (priceObj != null) {
+            price = Double.parseDouble(String.valueOf(priceObj));
+        }
+        LocalDateTime start = LocalDateTime.parse(String.valueOf(info.get("startDate")));
+        return price + start.getDayOfYear();
+    }
+}
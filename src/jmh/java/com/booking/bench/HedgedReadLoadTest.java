@@ -0,0 +1,84 @@
+package com.booking.bench;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.booking.feign.HedgedFlightInfoReader;
+import com.booking.feign.HttpAsyncFlightClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Flight lookups against several local FLIGHT-MICROSERVICE instances, one of which at a time
+// stalls for pauseMs every pauseEveryMs (a GC pause). Same closed-loop clients with hedging off
+// (budget 0) and on; the tail and the extra calls actually sent are the numbers to compare.
+//
+//   mvn -Pjmh test-compile exec:java -Dexec.mainClass=com.booking.bench.HedgedReadLoadTest \
+//       -Dinstances=3 -DremoteLatencyMs=5 -DpauseMs=200 -DpauseEveryMs=2000 -Dclients=20 -Dseconds=15
+public final class HedgedReadLoadTest {
+
+    private HedgedReadLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int instances = Integer.getInteger("instances", 3);
+        long remoteMs = Long.getLong("remoteLatencyMs", 5);
+        long pauseMs = Long.getLong("pauseMs", 200);
+        long pauseEveryMs = Long.getLong("pauseEveryMs", 2000);
+        int clients = Integer.getInteger("clients", 20);
+        int seconds = Integer.getInteger("seconds", 15);
+        double budgetPercent = Double.parseDouble(System.getProperty("budgetPercent", "5"));
+
+        List<StubFlightServer> stubs = new ArrayList<>();
+        try {
+            for (int i = 0; i < instances; i++) stubs.add(new StubFlightServer(BenchFixtures.seatMap(50), remoteMs));
+            List<URI> uris = stubs.stream().map(StubFlightServer::uri).toList();
+            HttpAsyncFlightClient http = new HttpAsyncFlightClient(() -> uris.get(0),
+                    new ObjectMapper().findAndRegisterModules(), Duration.ofSeconds(5));
+
+            run("unhedged", new HedgedFlightInfoReader(() -> uris, http, 0, Duration.ofMillis(10), Duration.ofMillis(500)),
+                    stubs, remoteMs, pauseMs, pauseEveryMs, clients, seconds);
+            run("hedged", new HedgedFlightInfoReader(() -> uris, http, budgetPercent, Duration.ofMillis(10), Duration.ofMillis(500)),
+                    stubs, remoteMs, pauseMs, pauseEveryMs, clients, seconds);
+        } finally {
+            stubs.forEach(StubFlightServer::close);
+        }
+    }
+
+    private static void run(String label, HedgedFlightInfoReader reader, List<StubFlightServer> stubs, long remoteMs,
+                            long pauseMs, long pauseEveryMs, int clients, int seconds) throws Exception {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        LatencyRecorder latencies = new LatencyRecorder(5_000_000);
+
+        Thread pauses = new Thread(() -> {
+            while (System.nanoTime() < end) {
+                StubFlightServer victim = stubs.get(ThreadLocalRandom.current().nextInt(stubs.size()));
+                victim.setLatencyMillis(pauseMs);
+                BenchFixtures.pause(pauseMs);
+                victim.setLatencyMillis(remoteMs);
+                BenchFixtures.pause(Math.max(0, pauseEveryMs - pauseMs));
+            }
+        }, "gc-pauses");
+        pauses.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            pool.execute(() -> {
+                while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    reader.getFlightInfo("AI-202").join();
+                    latencies.record(System.nanoTime() - start);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        pauses.join();
+
+        System.out.printf("%-9s lookups %s%n", label, latencies.summary());
+        System.out.printf("%-9s hedging %s%n", label, reader.stats());
+    }
+}
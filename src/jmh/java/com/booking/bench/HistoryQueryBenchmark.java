@@ -0,0 +1,135 @@
+package com.booking.bench;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.repositories.BookingHistoryRow;
+import com.booking.repositories.BookingRepository;
+import com.booking.service.BookingWriter;
+
+// History reads for one email with 10, 1k and 10k bookings against MySQL (see DbBench).
+// legacyFindByEmail is the old entity path (one select plus one seat select per booking),
+// keysetFirstPage is what the endpoint now serves by default, keysetFullWalk pages through
+// everything. SampleTime reports p99; statements per call are printed after each iteration.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HistoryQueryBenchmark {
+
+    private static final int PAGE = 50;
+    private static final int WALK_PAGE = 200;
+
+    @Param({ "10", "1000", "10000" })
+    public int bookingsPerEmail;
+
+    private ConfigurableApplicationContext ctx;
+    private BookingRepository repo;
+    private Statistics stats;
+    private String email;
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void start() {
+        ctx = DbBench.start();
+        repo = ctx.getBean(BookingRepository.class);
+        stats = DbBench.statistics(ctx);
+        email = "history-" + bookingsPerEmail + "-" + System.currentTimeMillis() + "@example.com";
+        BookingWriter writer = ctx.getBean(BookingWriter.class);
+        List<Booking> chunk = new ArrayList<>();
+        for (int i = 0; i < bookingsPerEmail; i++) {
+            chunk.add(booking(i));
+            if (chunk.size() == 500) {
+                writer.insertAll(chunk);
+                chunk = new ArrayList<>();
+            }
+        }
+        if (!chunk.isEmpty()) writer.insertAll(chunk);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        stats.clear();
+        calls = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportStatements() {
+        System.out.printf("%n  bookings=%d statements/call=%.1f%n",
+                bookingsPerEmail, (double) stats.getPrepareStatementCount() / Math.max(1, calls));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> legacyFindByEmail() {
+        calls++;
+        List<Map<String, Object>> history = new ArrayList<>();
+        for (Booking b : repo.findByEmail(email)) {
+            history.add(Map.of("pnr", b.getPnr(), "flightId", b.getFlightId(), "status", b.getStatus().name()));
+        }
+        return history;
+    }
+
+    @Benchmark
+    public List<BookingHistoryRow> keysetFirstPage() {
+        calls++;
+        return repo.findHistoryPage(email, 0L, PageRequest.of(0, PAGE + 1));
+    }
+
+    @Benchmark
+    public int keysetFullWalk() {
+        calls++;
+        int total = 0;
+        long after = 0L;
+        List<BookingHistoryRow> rows;
+        do {
+            rows = repo.findHistoryPage(email, after, PageRequest.of(0, WALK_PAGE));
+            total += rows.size();
+            if (!rows.isEmpty()) after = rows.get(rows.size() - 1).id();
+        } while (rows.size() == WALK_PAGE);
+        return total;
+    }
+
+    private Booking booking(int i) {
+        Booking b = new Booking();
+        b.setPnr(("H" + Long.toString(System.nanoTime(), 36) + i).toUpperCase());
+        b.setEmail(email);
+        b.setName("Frequent Flyer");
+        b.setFlightId("AI-" + (i % 40));
+        b.setStatus(i % 10 == 0 ? BookingStatus.CANCELLED : BookingStatus.CONFIRMED);
+        b.setTimeOfBooking(LocalDateTime.now());
+        b.setNumberOfSeats(1);
+        b.setTotalPrice(100.0);
+        b.setPassengers(new ArrayList<>());
+        b.setSeatNumbers(List.of((i % 30 + 1) + "A"));
+        return b;
+    }
+}
@@ -0,0 +1,75 @@
+package com.booking.bench;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.booking.idempotency.IdempotencyGuard;
+import com.booking.request.BookingRequest;
+import com.booking.service.BookingServiceImpl;
+
+// Happy-path cost of the Idempotency-Key guard: every call carries a fresh key, so the guard
+// always claims and runs. Compare against the unguarded bookTicket, and replay for the retry case.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class IdempotencyOverheadBenchmark {
+
+    private final InMemoryBookingStore store = new InMemoryBookingStore();
+    private final AtomicLong keys = new AtomicLong();
+
+    private BookingServiceImpl service;
+    private IdempotencyGuard guard;
+    private BookingRequest request;
+    private String fingerprint;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        service = BenchFixtures.service(store.repository(), BenchFixtures.stubFlightClient(BenchFixtures.seatMap(50))).build();
+        guard = new IdempotencyGuard(Optional.empty(), Duration.ofHours(24), 100_000, Duration.ofSeconds(10));
+        request = BenchFixtures.request("bench@example.com", List.of("12A", "12B"));
+        fingerprint = "AI-202:" + Integer.toHexString(request.hashCode());
+        guard.execute("replayed-key", fingerprint, () -> service.bookTicket("AI-202", request));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBookings() {
+        store.clear();
+    }
+
+    @Benchmark
+    public Map<String, Object> withoutKey() {
+        return service.bookTicket("AI-202", request);
+    }
+
+    @Benchmark
+    public IdempotencyGuard.Outcome withFreshKey() {
+        String key = Long.toString(keys.incrementAndGet(), 36);
+        return guard.execute(key, fingerprint, () -> service.bookTicket("AI-202", request));
+    }
+
+    @Benchmark
+    public IdempotencyGuard.Outcome replay() {
+        return guard.execute("replayed-key", fingerprint, () -> service.bookTicket("AI-202", request));
+    }
+}
@@ -0,0 +1,111 @@
+package com.booking.bench;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.domain.Pageable;
+
+import com.booking.model.Booking;
+import com.booking.repositories.BookingHistoryRow;
+import com.booking.repositories.BookingRepository;
+
+// Map-backed stand-in for BookingRepository so benchmarks measure our code rather than MySQL.
+// Only the methods the service actually calls are implemented.
+public class InMemoryBookingStore implements InvocationHandler {
+
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Booking> byId = new ConcurrentHashMap<>();
+    private final Map<String, Booking> byPnr = new ConcurrentHashMap<>();
+    private final Map<String, List<Booking>> byEmail = new ConcurrentHashMap<>();
+    private volatile long writeLatencyMillis;
+    private volatile long readLatencyMillis;
+
+    public BookingRepository repository() {
+        return (BookingRepository) Proxy.newProxyInstance(
+                BookingRepository.class.getClassLoader(), new Class<?>[] { BookingRepository.class }, this);
+    }
+
+    public void clear() {
+        byId.clear();
+        byPnr.clear();
+        byEmail.clear();
+    }
+
+    // Simulates the MySQL round-trip of an insert/update for load tests.
+    public InMemoryBookingStore withWriteLatency(long millis) {
+        this.writeLatencyMillis = millis;
+        return this;
+    }
+
+    // Simulates the select plus lazy collection loads behind a PNR lookup.
+    public InMemoryBookingStore withReadLatency(long millis) {
+        this.readLatencyMillis = millis;
+        return this;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public Booking save(Booking b) {
+        BenchFixtures.pause(writeLatencyMillis);
+        if (b.getId() == null) {
+            b.setId(ids.incrementAndGet());
+            byEmail.computeIfAbsent(b.getEmail(), k -> new CopyOnWriteArrayList<>()).add(b);
+        }
+        byId.put(b.getId(), b);
+        byPnr.put(b.getPnr(), b);
+        return b;
+    }
+
+    private List<BookingHistoryRow> historyPage(String email, long after, int size) {
+        List<BookingHistoryRow> rows = new ArrayList<>();
+        for (Booking b : byEmail.getOrDefault(email, List.of())) {
+            if (b.getId() > after && rows.size() < size) {
+                rows.add(new BookingHistoryRow(b.getId(), b.getPnr(), b.getFlightId(), b.getStatus()));
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "save":
+                return save((Booking) args[0]);
+            case "saveAll": {
+                List<Booking> saved = new ArrayList<>();
+                for (Object o : (Iterable<?>) args[0]) saved.add(save((Booking) o));
+                return saved;
+            }
+            case "findByPnr":
+            case "findTicketByPnr":
+                BenchFixtures.pause(readLatencyMillis);
+                return byPnr.get((String) args[0]);
+            case "findByEmail":
+                return byEmail.getOrDefault((String) args[0], List.of());
+            case "findHistoryPage":
+                return historyPage((String) args[0], (Long) args[1], ((Pageable) args[2]).getPageSize());
+            case "findById":
+                return Optional.ofNullable(byId.get((Long) args[0]));
+            case "count":
+                return (long) byId.size();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "InMemoryBookingStore";
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+}
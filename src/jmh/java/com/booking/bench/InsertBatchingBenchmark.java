@@ -0,0 +1,104 @@
+package com.booking.bench;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.Passenger;
+import com.booking.service.BookingWriter;
+
+// Insert latency and JDBC statements per booking for 1, 6 and 50 passengers against MySQL (see DbBench).
+// For the IDENTITY "before" numbers run the same benchmark on the commit before pooled ids.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InsertBatchingBenchmark {
+
+    @Param({ "1", "6", "50" })
+    public int passengers;
+
+    private final AtomicLong pnrs = new AtomicLong(System.currentTimeMillis());
+    private ConfigurableApplicationContext ctx;
+    private BookingWriter writer;
+    private Statistics stats;
+    private long bookings;
+
+    @Setup(Level.Trial)
+    public void start() {
+        ctx = DbBench.start();
+        writer = ctx.getBean(BookingWriter.class);
+        stats = DbBench.statistics(ctx);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        stats.clear();
+        bookings = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportStatements() {
+        System.out.printf("%n  passengers=%d statements/booking=%.2f (prepared %d for %d bookings)%n",
+                passengers, (double) stats.getPrepareStatementCount() / Math.max(1, bookings),
+                stats.getPrepareStatementCount(), bookings);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Booking insertBooking() {
+        bookings++;
+        return writer.insert(booking());
+    }
+
+    private Booking booking() {
+        Booking b = new Booking();
+        b.setPnr(Long.toString(pnrs.incrementAndGet(), 36).toUpperCase());
+        b.setEmail("bench@example.com");
+        b.setName("Bench");
+        b.setFlightId("AI-202");
+        b.setStatus(BookingStatus.CONFIRMED);
+        b.setTimeOfBooking(LocalDateTime.now());
+        b.setNumberOfSeats(passengers);
+        b.setTotalPrice(100.0 * passengers);
+        List<Passenger> list = new ArrayList<>(passengers);
+        List<String> seats = new ArrayList<>(passengers);
+        for (int i = 0; i < passengers; i++) {
+            Passenger p = new Passenger();
+            p.setName("P" + i);
+            p.setGender("M");
+            p.setAge(30);
+            list.add(p);
+            seats.add((i / 6 + 1) + String.valueOf((char) ('A' + i % 6)));
+        }
+        b.setPassengers(list);
+        b.setSeatNumbers(seats);
+        return b;
+    }
+}
@@ -0,0 +1,38 @@
+package com.booking.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fixed-capacity latency sample buffer for the load-test harnesses (JMH covers the micro benchmarks).
+public class LatencyRecorder {
+
+    private final long[] samples;
+    private final AtomicInteger count = new AtomicInteger();
+
+    public LatencyRecorder(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public void record(long nanos) {
+        int i = count.getAndIncrement();
+        if (i < samples.length) samples[i] = nanos;
+    }
+
+    public int count() {
+        return Math.min(count.get(), samples.length);
+    }
+
+    public double percentileMillis(double p) {
+        int n = count();
+        if (n == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, n);
+        Arrays.sort(sorted);
+        int idx = (int) Math.min(n - 1, Math.ceil(p / 100.0 * n) - 1);
+        return sorted[Math.max(0, idx)] / 1_000_000.0;
+    }
+
+    public String summary() {
+        return String.format("n=%d p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms",
+                count(), percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(100));
+    }
+}
@@ -0,0 +1,111 @@
+package com.booking.bench;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.booking.logging.SampledLogger;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+
+// A fallback storm logged from 200 request threads, all output going to /dev/null so only the
+// logging path is measured. stdout is what FlightServiceClient did before (println on a shared
+// synchronized PrintStream, one write per line). asyncLogback is the logback-spring.xml pipeline:
+// threads enqueue, one worker formats and writes. sampled adds the per-type limit, so a storm
+// mostly costs a counter increment.
+//
+//   mvn -Pjmh test-compile exec:exec -Djmh.include=LoggingContention
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(200)
+@Fork(1)
+public class LoggingContentionBenchmark {
+
+    private PrintStream stdout;
+    private LoggerContext context;
+    private org.slf4j.Logger asyncLog;
+    private SampledLogger sampledLog;
+
+    @Setup(Level.Trial)
+    public void setup() throws FileNotFoundException {
+        stdout = new PrintStream(new FileOutputStream("/dev/null"), true);
+
+        context = new LoggerContext();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %level [%thread] %logger - %msg %kvp%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> devNull = new OutputStreamAppender<>();
+        devNull.setContext(context);
+        devNull.setEncoder(encoder);
+        devNull.setOutputStream(new FileOutputStream("/dev/null"));
+        devNull.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(0);
+        async.setNeverBlock(true);
+        async.addAppender(devNull);
+        async.start();
+
+        Logger logger = context.getLogger("flight-client");
+        logger.setAdditive(false);
+        logger.addAppender(async);
+        asyncLog = logger;
+        sampledLog = new SampledLogger(logger, 10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+        stdout.close();
+    }
+
+    @Benchmark
+    public void stdout() {
+        stdout.println("reserveSeats: exception -> Connection refused");
+    }
+
+    @Benchmark
+    public void asyncLogback() {
+        asyncLog.atWarn().setMessage("Flight service call fell back")
+                .addKeyValue("call", "reserveSeats")
+                .addKeyValue("reason", "failed")
+                .addKeyValue("error", "Connection refused")
+                .log();
+    }
+
+    @Benchmark
+    public void sampled() {
+        sampledLog.atWarn("reserveSeats.failed").setMessage("Flight service call fell back")
+                .addKeyValue("call", "reserveSeats")
+                .addKeyValue("reason", "failed")
+                .addKeyValue("error", "Connection refused")
+                .log();
+    }
+}
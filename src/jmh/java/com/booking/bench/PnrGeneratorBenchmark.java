@@ -0,0 +1,46 @@
+package com.booking.bench;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.booking.pnr.PnrGenerator;
+
+// Old UUID-substring PNR against PnrGenerator with 64 threads hammering one instance.
+// A node issues at most 16 x 8192 PNRs per second; the benchmark clock runs 1000x fast so the
+// numbers show the per-call cost rather than that ceiling.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class PnrGeneratorBenchmark {
+
+    private static final long START_MILLIS = System.currentTimeMillis();
+    private static final long START_NANOS = System.nanoTime();
+
+    private final PnrGenerator generator =
+            new PnrGenerator(0, () -> START_MILLIS + (System.nanoTime() - START_NANOS) / 1_000);
+
+    @Benchmark
+    public String uuidSubstring() {
+        return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    @Benchmark
+    public String pnrGenerator() {
+        return generator.next();
+    }
+}
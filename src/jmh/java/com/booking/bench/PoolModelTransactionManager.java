@@ -0,0 +1,40 @@
+package com.booking.bench;
+
+import java.util.concurrent.Semaphore;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+// Models a Hikari pool: each transaction holds one connection permit from begin to commit/rollback,
+// and the time spent waiting for a permit is recorded as pool wait. Managers built on the same
+// semaphore share one pool.
+public class PoolModelTransactionManager implements PlatformTransactionManager {
+
+    private final Semaphore connections;
+    private final LatencyRecorder poolWait;
+
+    public PoolModelTransactionManager(Semaphore connections, LatencyRecorder poolWait) {
+        this.connections = connections;
+        this.poolWait = poolWait;
+    }
+
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) {
+        long t0 = System.nanoTime();
+        connections.acquireUninterruptibly();
+        poolWait.record(System.nanoTime() - t0);
+        return new SimpleTransactionStatus();
+    }
+
+    @Override
+    public void commit(TransactionStatus status) {
+        connections.release();
+    }
+
+    @Override
+    public void rollback(TransactionStatus status) {
+        connections.release();
+    }
+}
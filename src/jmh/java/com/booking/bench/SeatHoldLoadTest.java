@@ -0,0 +1,102 @@
+package com.booking.bench;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.booking.hold.SeatHold;
+import com.booking.hold.SeatHoldEngine;
+
+// Flash sale on one flight: 10k holder threads racing for two adjacent seats each, releasing what
+// they win and trying again. Row-striped engine against the same engine behind one flight-wide
+// lock, which is what a synchronized per-flight map would give.
+//
+//   mvn -Pjmh test-compile exec:java -Dexec.mainClass=com.booking.bench.SeatHoldLoadTest \
+//       -Dholders=10000 -Drows=60 -Dseconds=10
+public final class SeatHoldLoadTest {
+
+    private SeatHoldLoadTest() {}
+
+    private interface Holds {
+        SeatHold hold(List<String> seats);
+        void release(String holdId);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int holders = Integer.getInteger("holders", 10_000);
+        int rows = Integer.getInteger("rows", 60);
+        int seconds = Integer.getInteger("seconds", 10);
+
+        SeatHoldEngine striped = engine();
+        run("striped", holders, rows, seconds, new Holds() {
+            @Override
+            public SeatHold hold(List<String> seats) { return striped.hold("AI-202", seats, "load@example.com").hold(); }
+            @Override
+            public void release(String holdId) { striped.release(holdId); }
+        });
+
+        SeatHoldEngine global = engine();
+        run("one-lock", holders, rows, seconds, new Holds() {
+            @Override
+            public SeatHold hold(List<String> seats) {
+                synchronized (global) { return global.hold("AI-202", seats, "load@example.com").hold(); }
+            }
+            @Override
+            public void release(String holdId) {
+                synchronized (global) { global.release(holdId); }
+            }
+        });
+    }
+
+    private static SeatHoldEngine engine() {
+        return new SeatHoldEngine(Duration.ofMinutes(5), Duration.ofMinutes(15), 9, System::currentTimeMillis);
+    }
+
+    private static void run(String label, int holders, int rows, int seconds, Holds holds) throws Exception {
+        List<String> seatMap = BenchFixtures.seatMap(rows);
+        LongAdder won = new LongAdder();
+        LongAdder lost = new LongAdder();
+        LatencyRecorder latency = new LatencyRecorder(1_000_000);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+
+        List<Thread> threads = new ArrayList<>(holders);
+        for (int h = 0; h < holders; h++) {
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline[0]) {
+                    // seatMap has six seats per row; pairs never straddle two rows
+                    int first = rnd.nextInt(rows) * 6 + rnd.nextInt(5);
+                    long t0 = System.nanoTime();
+                    SeatHold hold = holds.hold(List.of(seatMap.get(first), seatMap.get(first + 1)));
+                    latency.record(System.nanoTime() - t0);
+                    if (hold == null) {
+                        lost.increment();
+                        Thread.yield();
+                    } else {
+                        won.increment();
+                        holds.release(hold.holdId());
+                    }
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+        deadline[0] = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        start.countDown();
+        for (Thread t : threads) t.join();
+
+        long attempts = won.sum() + lost.sum();
+        System.out.printf("%-9s holders=%d attempts/s=%.0f won=%d lost=%d hold %s%n",
+                label, holders, attempts / (double) seconds, won.sum(), lost.sum(), latency.summary());
+    }
+}
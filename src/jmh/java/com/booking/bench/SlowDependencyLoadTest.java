@@ -0,0 +1,95 @@
+package com.booking.bench;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.booking.feign.FlightCallGuard;
+import com.booking.request.BookingRequest;
+import com.booking.service.BookingServiceImpl;
+
+// FLIGHT-MICROSERVICE turns slow (not down) while PNR reads keep coming. Open-loop arrivals on a
+// Tomcat-sized pool of 200 threads: bookings at bookingRate, ticket reads at readRate. The read
+// latency (queueing included) is the number to watch, with and without the flight-call guard.
+//
+//   mvn -Pjmh test-compile exec:java -Dexec.mainClass=com.booking.bench.SlowDependencyLoadTest \
+//       -DremoteLatencyMs=2000 -DbookingRate=200 -DreadRate=500 -Dseconds=15
+public final class SlowDependencyLoadTest {
+
+    private static final int STORED_BOOKINGS = 1_000;
+
+    private SlowDependencyLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        long remoteMs = Long.getLong("remoteLatencyMs", 2000);
+        int bookingRate = Integer.getInteger("bookingRate", 200);
+        int readRate = Integer.getInteger("readRate", 500);
+        int seconds = Integer.getInteger("seconds", 15);
+        int requestThreads = Integer.getInteger("requestThreads", 200);
+
+        List<String> seats = BenchFixtures.seatMap(50);
+        InMemoryBookingStore store = new InMemoryBookingStore();
+        BookingServiceImpl loader = BenchFixtures.service(store.repository(), BenchFixtures.stubFlightClient(seats)).build();
+        String[] pnrs = new String[STORED_BOOKINGS];
+        for (int i = 0; i < STORED_BOOKINGS; i++) {
+            pnrs[i] = (String) loader.bookTicket("AI-202", BenchFixtures.request("user" + i + "@example.com", List.of("3C"))).get("pnr");
+        }
+
+        run("unguarded", BenchFixtures.unlimitedFlightCalls(), store, seats, pnrs, remoteMs, bookingRate, readRate, seconds, requestThreads);
+        run("guarded", BenchFixtures.flightCalls(), store, seats, pnrs, remoteMs, bookingRate, readRate, seconds, requestThreads);
+    }
+
+    private static void run(String label, FlightCallGuard flightCalls, InMemoryBookingStore store, List<String> seats,
+                            String[] pnrs, long remoteMs, int bookingRate, int readRate, int seconds,
+                            int requestThreads) throws Exception {
+        BookingServiceImpl service = BenchFixtures.service(store.repository(), BenchFixtures.stubFlightClient(seats, remoteMs))
+                .flightCacheTtl(Duration.ZERO)
+                .flightCalls(flightCalls)
+                .build();
+        BookingRequest req = BenchFixtures.request("load@example.com", List.of("7C"));
+
+        ExecutorService tomcat = Executors.newFixedThreadPool(requestThreads);
+        LatencyRecorder reads = new LatencyRecorder(readRate * seconds + 1_000);
+        LatencyRecorder bookings = new LatencyRecorder(bookingRate * seconds + 1_000);
+        LongAdder booked = new LongAdder();
+        LongAdder failed = new LongAdder();
+
+        // 10ms ticks; the pool's queue absorbs whatever the threads cannot keep up with
+        long tick = TimeUnit.MILLISECONDS.toNanos(10);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        double bookingDebt = 0;
+        double readDebt = 0;
+        for (long next = System.nanoTime(); next < end; next += tick) {
+            BenchFixtures.pause(TimeUnit.NANOSECONDS.toMillis(next - System.nanoTime()));
+            bookingDebt += bookingRate / 100.0;
+            readDebt += readRate / 100.0;
+            for (; bookingDebt >= 1; bookingDebt--) {
+                long submitted = System.nanoTime();
+                tomcat.execute(() -> {
+                    Map<String, Object> resp = service.bookTicket("AI-202", req);
+                    (resp.containsKey("pnr") ? booked : failed).increment();
+                    bookings.record(System.nanoTime() - submitted);
+                });
+            }
+            for (; readDebt >= 1; readDebt--) {
+                long submitted = System.nanoTime();
+                String pnr = pnrs[ThreadLocalRandom.current().nextInt(pnrs.length)];
+                tomcat.execute(() -> {
+                    service.getTicketByPnr(pnr);
+                    reads.record(System.nanoTime() - submitted);
+                });
+            }
+        }
+        tomcat.shutdown();
+        tomcat.awaitTermination(10, TimeUnit.MINUTES);
+
+        System.out.printf("%-10s reads    %s%n", label, reads.summary());
+        System.out.printf("%-10s bookings %s booked=%d failed=%d%n", label, bookings.summary(), booked.sum(), failed.sum());
+        System.out.printf("%-10s flightCalls %s%n", label, flightCalls.stats());
+    }
+}
@@ -0,0 +1,81 @@
+package com.booking.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.booking.inventory.SoldSeatIndex;
+
+// Local sold-seat check over 10k flights of 300 seats (50 rows x A-F), two thirds of them sold.
+// sold hits a sold seat on a random flight (the request that no longer reaches the flight
+// service), free walks three free seats. The index is local-only, so a hit is not confirmed
+// against the database here. Setup prints the index's own size estimate next to the measured
+// heap growth.
+//
+//   mvn -Pjmh test-compile exec:exec -Djmh.include=SoldSeatIndex
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SoldSeatIndexBenchmark {
+
+    private static final int FLIGHTS = 10_000;
+
+    private SoldSeatIndex index;
+    private String[] flightIds;
+    private final List<String> soldSeat = List.of("11C");
+    private final List<String> freeSeats = List.of("3C", "6C", "9C");
+
+    @Setup
+    public void setup() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long before = rt.totalMemory() - rt.freeMemory();
+
+        index = new SoldSeatIndex(20_000);
+        flightIds = new String[FLIGHTS];
+        for (int f = 0; f < FLIGHTS; f++) {
+            flightIds[f] = "AI-" + (1000 + f);
+            List<String> sold = new ArrayList<>();
+            for (int row = 1; row <= 50; row++) {
+                for (char c = 'A'; c <= 'F'; c++) {
+                    if (row % 3 != 0) sold.add(row + String.valueOf(c));
+                }
+            }
+            index.markSold(flightIds[f], sold);
+        }
+
+        System.gc();
+        long after = rt.totalMemory() - rt.freeMemory();
+        System.out.printf("%nsold-seat index: %d flights, estimate %d KB, heap growth %d KB%n",
+                FLIGHTS, (Long) index.stats().get("approxBytes") / 1024, (after - before) / 1024);
+    }
+
+    private String anyFlight() {
+        return flightIds[ThreadLocalRandom.current().nextInt(FLIGHTS)];
+    }
+
+    @Benchmark
+    public boolean sold() {
+        return index.anySold(anyFlight(), soldSeat);
+    }
+
+    @Benchmark
+    public boolean free() {
+        return index.anySold(anyFlight(), freeSeats);
+    }
+}
@@ -0,0 +1,76 @@
+package com.booking.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// Local FLIGHT-MICROSERVICE on the JDK HTTP server. Answers after latencyMillis without parking a
+// thread per request, so the stub itself never becomes the bottleneck of a load test.
+public final class StubFlightServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ScheduledExecutorService delays = Executors.newScheduledThreadPool(4);
+    private final byte[] inventoryJson;
+    private volatile long latencyMillis;
+
+    public StubFlightServer(List<String> seats, long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        StringBuilder json = new StringBuilder("{\"fallback\":false,\"price\":4599.0,\"startDate\":\"2025-06-01T10:30:00\",\"availableSeatNumbers\":[");
+        for (int i = 0; i < seats.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append('"').append(seats.get(i)).append('"');
+        }
+        this.inventoryJson = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/api/flight/inventory/reserve/", ex -> later(ex, "{\"message\":\"Reserved\"}".getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/api/flight/inventory/release/", ex -> later(ex, "{\"message\":\"Released\"}".getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/api/flight/inventory/", ex -> later(ex, inventoryJson));
+        server.start();
+    }
+
+    public URI uri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    // e.g. a GC pause on this one instance
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    private void later(HttpExchange exchange, byte[] body) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+        delays.schedule(() -> respond(exchange, body), latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) {
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            out.write(body);
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        delays.shutdownNow();
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+}
@@ -0,0 +1,80 @@
+package com.booking.bench;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.booking.cache.LocalTicketCacheBackend;
+import com.booking.cache.TicketCache;
+import com.booking.service.BookingServiceImpl;
+
+// getTicketByPnr with and without the ticket cache at a ~95% hit rate: every lookup first
+// invalidates its PNR with 5% probability, like a cancel would. The store answers findByPnr
+// after 1 ms to stand in for the MySQL select plus lazy loads.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TicketCacheBenchmark {
+
+    private static final int STORED_BOOKINGS = 10_000;
+    private static final int INVALIDATE_PERCENT = 5;
+
+    @Param({ "true", "false" })
+    public boolean cached;
+
+    private TicketCache ticketCache;
+    private BookingServiceImpl service;
+    private String[] pnrs;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        InMemoryBookingStore store = new InMemoryBookingStore();
+        // max-size 0 stores nothing, which is the uncached baseline
+        ticketCache = new TicketCache(new LocalTicketCacheBackend(Duration.ofMinutes(10), cached ? STORED_BOOKINGS : 0));
+        service = BenchFixtures.service(store.repository(), BenchFixtures.stubFlightClient(BenchFixtures.seatMap(50)))
+                .ticketCache(ticketCache)
+                .build();
+        pnrs = new String[STORED_BOOKINGS];
+        for (int i = 0; i < STORED_BOOKINGS; i++) {
+            Map<String, Object> resp = service.bookTicket("AI-202",
+                    BenchFixtures.request("user" + i + "@example.com", List.of("3C")));
+            pnrs[i] = (String) resp.get("pnr");
+            service.getTicketByPnr(pnrs[i]);
+        }
+        store.withReadLatency(1);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportHitRatio() {
+        System.out.printf("%n  cached=%s %s%n", cached, ticketCache.stats());
+    }
+
+    @Benchmark
+    public Map<String, Object> getTicketByPnr() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String pnr = pnrs[rnd.nextInt(STORED_BOOKINGS)];
+        if (rnd.nextInt(100) < INVALIDATE_PERCENT) ticketCache.invalidate(pnr);
+        return service.getTicketByPnr(pnr);
+    }
+}
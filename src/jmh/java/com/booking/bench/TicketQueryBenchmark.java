@@ -0,0 +1,130 @@
+package com.booking.bench;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.booking.cache.TicketView;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.Passenger;
+import com.booking.repositories.BookingRepository;
+import com.booking.service.BookingWriter;
+import com.booking.service.TicketReader;
+
+// Statements and latency per PNR lookup against MySQL (see DbBench). legacyFindByPnr replays the
+// old path, findByPnr plus lazy collections, inside a read-only transaction that stands in for
+// open-in-view. ticketReader is the entity-graph read model.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TicketQueryBenchmark {
+
+    private static final int BOOKINGS = 200;
+    private static final int PASSENGERS = 3;
+
+    private ConfigurableApplicationContext ctx;
+    private BookingRepository repo;
+    private TicketReader reader;
+    private TransactionTemplate readOnlyTx;
+    private Statistics stats;
+    private String[] pnrs;
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void start() {
+        ctx = DbBench.start();
+        repo = ctx.getBean(BookingRepository.class);
+        reader = ctx.getBean(TicketReader.class);
+        readOnlyTx = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+        stats = DbBench.statistics(ctx);
+
+        List<Booking> bookings = new ArrayList<>();
+        pnrs = new String[BOOKINGS];
+        for (int i = 0; i < BOOKINGS; i++) {
+            pnrs[i] = ("T" + Long.toString(System.nanoTime(), 36) + i).toUpperCase();
+            bookings.add(booking(pnrs[i]));
+        }
+        ctx.getBean(BookingWriter.class).insertAll(bookings);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        stats.clear();
+        calls = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportStatements() {
+        System.out.printf("%n  statements/lookup=%.2f%n", (double) stats.getPrepareStatementCount() / Math.max(1, calls));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public int legacyFindByPnr() {
+        calls++;
+        String pnr = pnrs[ThreadLocalRandom.current().nextInt(BOOKINGS)];
+        return readOnlyTx.execute(status -> {
+            Booking b = repo.findByPnr(pnr);
+            return b.getSeatNumbers().size() + b.getPassengers().size();
+        });
+    }
+
+    @Benchmark
+    public TicketView ticketReader() {
+        calls++;
+        return reader.load(pnrs[ThreadLocalRandom.current().nextInt(BOOKINGS)]);
+    }
+
+    private static Booking booking(String pnr) {
+        Booking b = new Booking();
+        b.setPnr(pnr);
+        b.setEmail("ticket@example.com");
+        b.setName("Bench");
+        b.setFlightId("AI-202");
+        b.setStatus(BookingStatus.CONFIRMED);
+        b.setTimeOfBooking(LocalDateTime.now());
+        b.setNumberOfSeats(PASSENGERS);
+        b.setTotalPrice(300.0);
+        List<Passenger> passengers = new ArrayList<>();
+        List<String> seats = new ArrayList<>();
+        for (int i = 0; i < PASSENGERS; i++) {
+            Passenger p = new Passenger();
+            p.setName("P" + i);
+            p.setGender("F");
+            p.setAge(30);
+            passengers.add(p);
+            seats.add("4" + (char) ('A' + i));
+        }
+        b.setPassengers(passengers);
+        b.setSeatNumbers(seats);
+        return b;
+    }
+}
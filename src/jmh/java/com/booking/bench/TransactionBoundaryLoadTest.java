@@ -0,0 +1,91 @@
+package com.booking.bench;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.booking.model.Booking;
+import com.booking.repositories.BookingRepository;
+import com.booking.request.BookingRequest;
+import com.booking.service.BookingServiceImpl;
+import com.booking.service.BookingWriter;
+
+// Pool wait under a slow flight service, old boundary (whole bookTicket in one transaction)
+// against the current one (only BookingWriter.insert). PNR reads share the same 10-connection
+// pool, which is what starved them before.
+//
+//   mvn -Pjmh test-compile exec:java -Dexec.mainClass=com.booking.bench.TransactionBoundaryLoadTest \
+//       -DflightLatencyMs=500 -Dbookings=400 -Dreads=2000
+public final class TransactionBoundaryLoadTest {
+
+    private static final int POOL_SIZE = 10;
+
+    private TransactionBoundaryLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        long flightMs = Long.getLong("flightLatencyMs", 500);
+        int bookings = Integer.getInteger("bookings", 400);
+        int reads = Integer.getInteger("reads", 2000);
+
+        run("whole-booking-tx", true, flightMs, bookings, reads);
+        run("insert-only-tx", false, flightMs, bookings, reads);
+    }
+
+    private static void run(String label, boolean wholeBookingInTx, long flightMs, int bookings, int reads) throws Exception {
+        LatencyRecorder bookingWait = new LatencyRecorder(bookings + 1);
+        LatencyRecorder readWait = new LatencyRecorder(reads);
+        Semaphore connections = new Semaphore(POOL_SIZE, true);
+        TransactionTemplate bookingTx = new TransactionTemplate(new PoolModelTransactionManager(connections, bookingWait));
+        TransactionTemplate readTx = new TransactionTemplate(new PoolModelTransactionManager(connections, readWait));
+
+        InMemoryBookingStore store = new InMemoryBookingStore().withWriteLatency(2);
+        BookingRepository repo = store.repository();
+        BookingWriter writer = wholeBookingInTx
+                ? new BookingWriter(repo, BenchFixtures.noopPublisher())
+                : new BookingWriter(repo, BenchFixtures.noopPublisher()) {
+            @Override
+            public Booking insert(Booking booking) {
+                return bookingTx.execute(s -> super.insert(booking));
+            }
+        };
+        BookingServiceImpl service = BenchFixtures.service(repo, BenchFixtures.stubFlightClient(BenchFixtures.seatMap(50), flightMs))
+                .writer(writer)
+                .flightCacheTtl(Duration.ZERO)
+                .build();
+        BookingRequest req = BenchFixtures.request("pool@example.com", List.of("9D"));
+        String pnr = (String) service.bookTicket("AI-202", req).get("pnr");
+
+        ExecutorService pool = Executors.newFixedThreadPool(200);
+        LatencyRecorder readLatency = new LatencyRecorder(reads);
+        List<Future<?>> futures = new ArrayList<>();
+        long begin = System.nanoTime();
+        for (int i = 0; i < Math.max(bookings, reads); i++) {
+            if (i < bookings) {
+                futures.add(pool.submit(() -> wholeBookingInTx
+                        ? bookingTx.execute(s -> service.bookTicket("AI-202", req))
+                        : service.bookTicket("AI-202", req)));
+            }
+            if (i < reads) {
+                futures.add(pool.submit(() -> {
+                    long t0 = System.nanoTime();
+                    Map<String, Object> ticket = readTx.execute(s -> service.getTicketByPnr(pnr));
+                    readLatency.record(System.nanoTime() - t0);
+                    return ticket;
+                }));
+            }
+        }
+        for (Future<?> f : futures) f.get();
+        long wallMs = (System.nanoTime() - begin) / 1_000_000;
+        pool.shutdown();
+
+        System.out.printf("%-17s wall=%dms%n  booking pool wait %s%n  read pool wait    %s%n  read latency      %s%n",
+                label, wallMs, bookingWait.summary(), readWait.summary(), readLatency.summary());
+    }
+}
@@ -0,0 +1,79 @@
+package com.booking.bench;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.booking.request.BookingRequest;
+import com.booking.service.BookingServiceImpl;
+
+// Platform threads (Tomcat's default 200) against one virtual thread per booking, 5k concurrent
+// bookings through the real service with blocking local stubs. Virtual threads need JDK 21+.
+//
+//   mvn -Pjmh test-compile exec:java -Dexec.mainClass=com.booking.bench.VirtualThreadLoadTest \
+//       -Dbookings=5000 -DremoteLatencyMs=20 -DdbLatencyMs=5
+public final class VirtualThreadLoadTest {
+
+    private VirtualThreadLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int bookings = Integer.getInteger("bookings", 5000);
+        long remoteMs = Long.getLong("remoteLatencyMs", 20);
+        long dbMs = Long.getLong("dbLatencyMs", 5);
+
+        run("platform-200", Executors.newFixedThreadPool(200), bookings, remoteMs, dbMs);
+
+        ExecutorService virtual = virtualThreadExecutor();
+        if (virtual == null) {
+            System.out.println("virtual: skipped, running on JDK " + Runtime.version().feature() + " (needs 21+)");
+        } else {
+            run("virtual", virtual, bookings, remoteMs, dbMs);
+        }
+    }
+
+    private static void run(String label, ExecutorService pool, int bookings, long remoteMs, long dbMs) throws Exception {
+        InMemoryBookingStore store = new InMemoryBookingStore().withWriteLatency(dbMs);
+        BookingServiceImpl service = BenchFixtures.service(store.repository(),
+                        BenchFixtures.stubFlightClient(BenchFixtures.seatMap(50), remoteMs))
+                .flightCacheTtl(Duration.ZERO)
+                .build();
+        BookingRequest req = BenchFixtures.request("load@example.com", List.of("7C"));
+        LatencyRecorder latency = new LatencyRecorder(bookings);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] released = new long[1];
+
+        List<Future<?>> futures = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                service.bookTicket("AI-202", req);
+                latency.record(System.nanoTime() - released[0]);
+                return null;
+            }));
+        }
+        released[0] = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        long wallNanos = System.nanoTime() - released[0];
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        // Latency is measured from the moment all 5k bookings are released, so it includes
+        // queueing for a free platform thread.
+        System.out.printf("%-12s wall=%dms throughput=%.0f bookings/s latency %s%n", label,
+                wallNanos / 1_000_000, bookings / (wallNanos / 1e9), latency.summary());
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
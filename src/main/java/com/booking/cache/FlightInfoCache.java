@@ -0,0 +1,45 @@
+package com.booking.cache;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.booking.feign.FlightInventory;
+import com.booking.metrics.StatsSource;
+
+// Short-lived copy of FLIGHT-MICROSERVICE inventory per flightId. Reserve stays authoritative,
+// so a stale entry only turns into a failed reserve, never an oversold seat.
+@Component
+public class FlightInfoCache implements StatsSource {
+
+    private final LocalTtlCache<String, FlightInventory> cache;
+
+    public FlightInfoCache(@Value("${booking.flight-cache.ttl:2s}") Duration ttl,
+                           @Value("${booking.flight-cache.max-size:1000}") int maxSize) {
+        this.cache = new LocalTtlCache<>(ttl, maxSize);
+    }
+
+    public FlightInventory get(String flightId) {
+        return cache.get(flightId);
+    }
+
+    public void put(String flightId, FlightInventory flightInfo) {
+        cache.put(flightId, flightInfo);
+    }
+
+    public void invalidate(String flightId) {
+        cache.invalidate(flightId);
+    }
+
+    @Override
+    public String statsName() {
+        return "flightInfoCache";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,42 @@
+package com.booking.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.booking.feign.FlightInventory;
+import com.booking.metrics.StatsSource;
+
+// Single-flight layer for getFlightInfo: a burst of lookups for one flightId becomes one HTTP call.
+// Sync and async lookups share the same in-flight map.
+@Component
+public class FlightInfoCoalescer implements StatsSource {
+
+    private final SingleFlight<String, FlightInventory> group;
+
+    public FlightInfoCoalescer(@Value("${booking.flight-coalescing.timeout:3s}") Duration timeout) {
+        this.group = new SingleFlight<>(timeout);
+    }
+
+    public FlightInventory load(String flightId, Supplier<FlightInventory> loader) {
+        return group.execute(flightId, loader);
+    }
+
+    public CompletableFuture<FlightInventory> loadAsync(String flightId, Supplier<CompletableFuture<FlightInventory>> loader) {
+        return group.executeAsync(flightId, loader);
+    }
+
+    @Override
+    public String statsName() {
+        return "flightInfoCoalescing";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return group.stats();
+    }
+}
@@ -0,0 +1,40 @@
+package com.booking.cache;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "booking.ticket-cache.backend", havingValue = "local", matchIfMissing = true)
+public class LocalTicketCacheBackend implements TicketCacheBackend {
+
+    private final LocalTtlCache<String, TicketView> cache;
+
+    public LocalTicketCacheBackend(@Value("${booking.ticket-cache.ttl:60s}") Duration ttl,
+                                   @Value("${booking.ticket-cache.max-size:10000}") int maxSize) {
+        this.cache = new LocalTtlCache<>(ttl, maxSize);
+    }
+
+    @Override
+    public TicketView get(String pnr) {
+        return cache.get(pnr);
+    }
+
+    @Override
+    public void put(String pnr, TicketView view) {
+        cache.put(pnr, view);
+    }
+
+    @Override
+    public void evict(String pnr) {
+        cache.invalidate(pnr);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return cache.stats();
+    }
+}
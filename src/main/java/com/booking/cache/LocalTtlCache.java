@@ -0,0 +1,125 @@
+package com.booking.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Bounded in-process cache with a fixed TTL per entry. When the size bound is crossed the
+// expired entries are purged first, then the oldest ones, so writes never block readers.
+public class LocalTtlCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public LocalTtlCache(Duration ttl, int maxSize) {
+        this(ttl, maxSize, System::nanoTime);
+    }
+
+    public LocalTtlCache(Duration ttl, int maxSize, LongSupplier clock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    public V get(K key) {
+        Entry<V> e = map.get(key);
+        if (e == null) {
+            misses.increment();
+            return null;
+        }
+        if (clock.getAsLong() - e.expiresAt() >= 0) {
+            if (map.remove(key, e)) expirations.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return e.value();
+    }
+
+    public void put(K key, V value) {
+        if (value == null || ttlNanos <= 0 || maxSize <= 0) return;
+        Entry<V> prev = map.put(key, new Entry<>(value, clock.getAsLong() + ttlNanos));
+        if (prev == null && map.size() > maxSize) evict();
+    }
+
+    // Stores value unless a live entry exists; returns that entry's value, or null if value was stored.
+    public V putIfAbsent(K key, V value) {
+        if (value == null || ttlNanos <= 0 || maxSize <= 0) return null;
+        long now = clock.getAsLong();
+        Entry<V> fresh = new Entry<>(value, now + ttlNanos);
+        Entry<V> winner = map.compute(key, (k, cur) -> cur == null || now - cur.expiresAt() >= 0 ? fresh : cur);
+        if (winner != fresh) return winner.value();
+        if (map.size() > maxSize) evict();
+        return null;
+    }
+
+    public void invalidate(K key) {
+        map.remove(key);
+    }
+
+    // Removes the entry only while it still holds this exact value.
+    public void invalidate(K key, V value) {
+        map.computeIfPresent(key, (k, e) -> e.value() == value ? null : e);
+    }
+
+    public void invalidateAll() {
+        map.clear();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    // One scan per batch of inserts: purge expired entries, then drop the oldest down to a little
+    // below maxSize, so a full cache does not pay a full scan on every new key.
+    private void evict() {
+        long now = clock.getAsLong();
+        int target = maxSize - maxSize / 16;
+        List<Map.Entry<K, Entry<V>>> live = new ArrayList<>(map.size());
+        for (Map.Entry<K, Entry<V>> me : map.entrySet()) {
+            Entry<V> e = me.getValue();
+            if (now - e.expiresAt() >= 0) {
+                if (map.remove(me.getKey(), e)) expirations.increment();
+            } else {
+                live.add(Map.entry(me.getKey(), e));
+            }
+        }
+        int excess = map.size() - target;
+        if (excess <= 0) return;
+        live.sort((a, b) -> Long.compare(a.getValue().expiresAt() - now, b.getValue().expiresAt() - now));
+        for (int i = 0; i < live.size() && excess > 0; i++) {
+            if (map.remove(live.get(i).getKey(), live.get(i).getValue())) {
+                evictions.increment();
+                excess--;
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("size", map.size());
+        s.put("maxSize", maxSize);
+        s.put("hits", h);
+        s.put("misses", m);
+        s.put("hitRatio", h + m == 0 ? 0.0 : (double) h / (h + m));
+        s.put("evictions", evictions.sum());
+        s.put("expirations", expirations.sum());
+        return s;
+    }
+}
@@ -0,0 +1,110 @@
+package com.booking.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Collapses concurrent loads of the same key into one call. The first caller runs the loader,
+// everyone arriving while it is in flight waits on the same future. Each in-flight future times
+// out on its own so a stuck call only holds back its own followers, and the next caller starts fresh.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public SingleFlight(Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        executions.increment();
+        mine.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+            .whenComplete((v, ex) -> inFlight.remove(key, mine));
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    // Same as execute for a loader that is already asynchronous. Callers get a copy of the shared
+    // future, so one of them cancelling or completing it does not affect the others.
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        calls.increment();
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return existing.copy().whenComplete((v, ex) -> {
+                if (ex instanceof TimeoutException || (ex != null && ex.getCause() instanceof TimeoutException)) {
+                    timeouts.increment();
+                }
+            });
+        }
+
+        executions.increment();
+        mine.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+            .whenComplete((v, ex) -> inFlight.remove(key, mine));
+        try {
+            loader.get().whenComplete((v, ex) -> {
+                if (ex == null) mine.complete(v);
+                else mine.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            });
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+        }
+        return mine.copy();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof TimeoutException) {
+                timeouts.increment();
+                throw new IllegalStateException("Timed out waiting for in-flight call", cause);
+            }
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw ex;
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    public Map<String, Object> stats() {
+        long c = calls.sum();
+        long e = executions.sum();
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("calls", c);
+        s.put("executions", e);
+        s.put("coalesced", c - e);
+        s.put("coalescingRatio", c == 0 ? 0.0 : (double) (c - e) / c);
+        s.put("timeouts", timeouts.sum());
+        s.put("inFlight", inFlight.size());
+        return s;
+    }
+}
@@ -0,0 +1,83 @@
+package com.booking.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.booking.metrics.StatsSource;
+
+// Read-through cache of assembled tickets keyed by PNR. Every path that changes a booking must
+// call invalidate(pnr); misses (unknown PNRs) are never cached. Each invalidation bumps a
+// generation for the PNR (striped, so a collision only costs an extra miss); a load that saw an
+// older generation than the one current after its put takes the entry out again.
+@Component
+public class TicketCache implements StatsSource {
+
+    private static final int GENERATIONS = 1024;
+
+    private final TicketCacheBackend backend;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATIONS);
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TicketCache(TicketCacheBackend backend) {
+        this.backend = backend;
+    }
+
+    public TicketView get(String pnr, Function<String, TicketView> loader) {
+        TicketView view = backend.get(pnr);
+        if (view != null) return view;
+        loads.increment();
+        long generation = generations.get(slot(pnr));
+        view = loader.apply(pnr);
+        if (view != null) {
+            backend.put(pnr, view);
+            // invalidated while loading: the row may predate the change
+            if (generations.get(slot(pnr)) != generation) backend.evict(pnr);
+        }
+        return view;
+    }
+
+    // Evicts now and again after commit, bumping the generation before each eviction: a reader that
+    // loaded the old row while the transaction was still open then drops its own put.
+    public void invalidate(String pnr) {
+        invalidations.increment();
+        evict(pnr);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(pnr);
+                }
+            });
+        }
+    }
+
+    private void evict(String pnr) {
+        generations.incrementAndGet(slot(pnr));
+        backend.evict(pnr);
+    }
+
+    private static int slot(String pnr) {
+        return pnr.hashCode() & (GENERATIONS - 1);
+    }
+
+    @Override
+    public String statsName() {
+        return "ticketCache";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>(backend.stats());
+        s.put("loads", loads.sum());
+        s.put("invalidations", invalidations.sum());
+        return s;
+    }
+}
@@ -0,0 +1,12 @@
+package com.booking.cache;
+
+import java.util.Map;
+
+// Storage behind TicketCache. The in-process backend is the default; a shared backend (e.g. Redis)
+// can replace it by registering its own bean for another booking.ticket-cache.backend value.
+public interface TicketCacheBackend {
+    TicketView get(String pnr);
+    void put(String pnr, TicketView view);
+    void evict(String pnr);
+    Map<String, Object> stats();
+}
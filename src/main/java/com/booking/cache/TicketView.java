@@ -0,0 +1,11 @@
+package com.booking.cache;
+
+import java.util.List;
+
+// Fully assembled answer for a PNR lookup. Plain data with no entity references, so it can be
+// cached in-process or serialized to a shared cache.
+public record TicketView(String pnr, String flightId, String status,
+                         List<String> seatNumbers, List<PassengerView> passengers) {
+
+    public record PassengerView(Long id, String name, String gender, int age) {}
+}
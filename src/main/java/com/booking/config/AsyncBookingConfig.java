@@ -0,0 +1,28 @@
+package com.booking.config;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncBookingConfig {
+
+    public static final String DB_EXECUTOR = "bookingDbExecutor";
+
+    // JDBC stays blocking, so the async pipeline hands inserts to a pool no larger than the
+    // connection pool instead of running them on HTTP client threads.
+    @Bean(name = DB_EXECUTOR)
+    public Executor bookingDbExecutor(@Value("${booking.async.db-threads:10}") int threads,
+                                      @Value("${booking.async.db-queue:1000}") int queue) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queue);
+        executor.setThreadNamePrefix("booking-db-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,52 @@
+package com.booking.config;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.booking.model.IdBlocks;
+
+import lombok.RequiredArgsConstructor;
+
+// Rows created under the old IDENTITY ids already occupy the low id range. Before the first insert,
+// move each id table past MAX(id) so the pooled blocks never overlap them. Runs once per start and
+// only ever moves the counter forward, so it is safe with several instances.
+@Component
+@RequiredArgsConstructor
+public class IdBlockInitializer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdBlockInitializer.class);
+
+    private static final Map<String, String> ID_TABLES = Map.of(
+            "booking_seq", "booking",
+            "passenger_seq", "passenger",
+            "outbox_event_seq", "outbox_event",
+            "seat_release_seq", "seat_release");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ID_TABLES.forEach(this::moveBeyondExistingIds);
+    }
+
+    // The pooled optimizer hands out (next_val - ALLOCATION_SIZE, next_val], so the stored value
+    // has to sit a full block above the highest existing id.
+    private void moveBeyondExistingIds(String idTable, String entityTable) {
+        String target = "(select coalesce(max(id), 0) + " + (IdBlocks.ALLOCATION_SIZE + 1) + " from " + entityTable + ")";
+        try {
+            int updated = jdbcTemplate.update(
+                    "update " + idTable + " set next_val = " + target + " where next_val < " + target);
+            if (updated > 0) {
+                log.info("Moved {} past existing {} ids", idTable, entityTable);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not align {} with {}: {}", idTable, entityTable, ex.getMessage());
+        }
+    }
+}
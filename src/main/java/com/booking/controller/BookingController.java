@@ -1,18 +1,29 @@
 package com.booking.controller;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.booking.idempotency.IdempotencyGuard;
+import com.booking.request.BatchBookingRequest;
 import com.booking.request.BookingRequest;
+import com.booking.request.SeatHoldRequest;
+import com.booking.service.AsyncBookingService;
+import com.booking.service.BookingHistoryExporter;
 import com.booking.service.BookingService;
 
 import jakarta.validation.Valid;
@@ -24,11 +35,66 @@ import lombok.RequiredArgsConstructor;
 @EnableDiscoveryClient
 public class BookingController {
 
+ static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+ static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
  private final BookingService bookingService;
+ private final BookingHistoryExporter historyExporter;
+ private final IdempotencyGuard idempotencyGuard;
+ private final AsyncBookingService asyncBookingService;
 
  @PostMapping("/booking/{flightId}")
- public ResponseEntity<?> bookTicket(@PathVariable String flightId, @Valid @RequestBody BookingRequest request) {
-     Map<String,Object> resp = bookingService.bookTicket(flightId, request);
+ public ResponseEntity<?> bookTicket(@PathVariable String flightId,
+                                     @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                     @Valid @RequestBody BookingRequest request) {
+     if (idempotencyKey == null || idempotencyKey.isBlank()) {
+         Map<String,Object> resp = bookingService.bookTicket(flightId, request);
+         return ResponseEntity.status(201).body(resp);
+     }
+     // a retry must carry the same flight and body; anything else under the same key is rejected
+     String fingerprint = IdempotencyGuard.fingerprint(flightId, request);
+     IdempotencyGuard.Outcome outcome = idempotencyGuard.execute(idempotencyKey, fingerprint,
+             () -> bookingService.bookTicket(flightId, request));
+     return ResponseEntity.status(201)
+             .header(IDEMPOTENT_REPLAYED, String.valueOf(outcome.replayed()))
+             .body(outcome.body());
+ }
+
+ // Same booking without holding a request thread while the flight service answers.
+ @PostMapping("/booking/{flightId}/async")
+ public CompletableFuture<ResponseEntity<Map<String,Object>>> bookTicketAsync(@PathVariable String flightId,
+                                                                             @Valid @RequestBody BookingRequest request) {
+     return asyncBookingService.bookTicketAsync(flightId, request)
+             .thenApply(resp -> ResponseEntity.status(201).body(resp));
+ }
+
+ @PostMapping("/booking/{flightId}/batch")
+ public ResponseEntity<?> bookBatch(@PathVariable String flightId, @Valid @RequestBody BatchBookingRequest request) {
+     Map<String,Object> resp = bookingService.bookBatch(flightId, request);
+     return ResponseEntity.status(201).body(resp);
+ }
+
+ // Seats picked before passenger details are filled in stay held until booked, released or expired.
+ @PostMapping("/booking/{flightId}/holds")
+ public ResponseEntity<?> holdSeats(@PathVariable String flightId, @Valid @RequestBody SeatHoldRequest request) {
+     Map<String,Object> resp = bookingService.holdSeats(flightId, request);
+     return ResponseEntity.status(201).body(resp);
+ }
+
+ @PutMapping("/booking/holds/{holdId}")
+ public ResponseEntity<?> extendHold(@PathVariable String holdId) {
+     return ResponseEntity.ok(bookingService.extendHold(holdId));
+ }
+
+ @DeleteMapping("/booking/holds/{holdId}")
+ public ResponseEntity<?> releaseHold(@PathVariable String holdId) {
+     return ResponseEntity.ok(bookingService.releaseHold(holdId));
+ }
+
+ @PostMapping("/booking/{flightId}/holds/{holdId}")
+ public ResponseEntity<?> bookHeldSeats(@PathVariable String flightId, @PathVariable String holdId,
+                                        @Valid @RequestBody BookingRequest request) {
+     Map<String,Object> resp = bookingService.bookHeldSeats(flightId, holdId, request);
      return ResponseEntity.status(201).body(resp);
  }
 
@@ -38,8 +104,17 @@ public class BookingController {
  }
 
  @GetMapping("/booking/history/{emailId}")
- public ResponseEntity<?> getHistory(@PathVariable("emailId") String emailId) {
-     return ResponseEntity.ok(bookingService.getBookingHistory(emailId));
+ public ResponseEntity<?> getHistory(@PathVariable("emailId") String emailId,
+                                     @RequestParam(required = false) Long after,
+                                     @RequestParam(defaultValue = "50") int limit) {
+     return ResponseEntity.ok(bookingService.getBookingHistory(emailId, after, limit));
+ }
+
+ // Whole history as NDJSON, written page by page instead of built up in memory.
+ @GetMapping(value = "/booking/history/{emailId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+ public ResponseEntity<StreamingResponseBody> streamHistory(@PathVariable("emailId") String emailId) {
+     StreamingResponseBody body = out -> historyExporter.writeNdjson(emailId, out);
+     return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
  }
 
  @DeleteMapping("/booking/cancel/{pnr}")
@@ -0,0 +1,31 @@
+package com.booking.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.booking.metrics.StatsSource;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/flight/internal")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final List<StatsSource> sources;
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats() {
+        Map<String, Object> resp = new LinkedHashMap<>();
+        for (StatsSource s : sources) {
+            resp.put(s.statsName(), s.stats());
+        }
+        return ResponseEntity.ok(resp);
+    }
+}
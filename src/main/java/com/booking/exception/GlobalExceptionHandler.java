@@ -2,6 +2,8 @@ package com.booking.exception;
 
 import java.time.LocalDateTime;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -14,6 +16,8 @@ import feign.FeignException;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     private ResponseEntity<ApiError> build(HttpStatus status, String message, WebRequest req) {
         ApiError error = new ApiError(
                 LocalDateTime.now(),
@@ -41,7 +45,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiError> handleRuntime(RuntimeException ex, WebRequest req) {
 
-        if (ex.getMessage().contains("Booking not found")) {
+        if (ex.getMessage().contains("Booking not found") || ex.getMessage().contains("Hold not found")) {
             return build(HttpStatus.NOT_FOUND, ex.getMessage(), req);
         }
 
@@ -50,7 +54,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGeneric(Exception ex, WebRequest req) {
-        ex.printStackTrace();
+        log.error("Unhandled exception on {}", req.getDescription(false), ex);
         return build(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), req);
     }
 }
@@ -0,0 +1,69 @@
+package com.booking.feign;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// AIMD concurrency limit for one downstream operation, driven by latency. A call that finishes
+// under the target while the limit was actually in use adds 1/limit (about +1 per full window);
+// a slow or failed call multiplies the limit by backoff. Only calls that started after the last
+// cut can cut again, so one slow window shrinks the limit once instead of once per call in it.
+// At the limit callers are turned away rather than queued.
+public final class AdaptiveLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final double backoff;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int currentLimit;
+
+    // guarded by this
+    private double limit;
+    private long lastDecreaseNanos;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long targetNanos, double backoff) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.backoff = backoff;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.currentLimit = (int) limit;
+        this.lastDecreaseNanos = System.nanoTime() - 1;
+    }
+
+    public boolean tryAcquire() {
+        for (;;) {
+            int n = inFlight.get();
+            if (n >= currentLimit) return false;
+            if (inFlight.compareAndSet(n, n + 1)) return true;
+        }
+    }
+
+    // permit taken but the call never went out
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    public void release(long startNanos, long endNanos, boolean succeeded) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (!succeeded || endNanos - startNanos > targetNanos) {
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoff);
+                    lastDecreaseNanos = endNanos;
+                }
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            currentLimit = (int) limit;
+        }
+    }
+
+    public int limit() {
+        return currentLimit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
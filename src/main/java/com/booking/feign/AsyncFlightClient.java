@@ -0,0 +1,15 @@
+package com.booking.feign;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking counterpart of FeignInterface: same FLIGHT-MICROSERVICE endpoints, but the caller's
+// thread is released while the request is on the wire.
+public interface AsyncFlightClient {
+
+    CompletableFuture<FlightInventory> getFlightInfo(String flightId);
+
+    CompletableFuture<Map<String, Object>> reserveSeats(String flightId, Map<String, Object> body);
+
+    CompletableFuture<Map<String, Object>> releaseSeats(String flightId, Map<String, Object> body);
+}
@@ -12,7 +12,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 public interface FeignInterface {
 
     @GetMapping("/api/flight/inventory/{flightId}")
-    Map<String, Object> getFlightInfo(@PathVariable("flightId") String flightId);
+    FlightInventory getFlightInfo(@PathVariable("flightId") String flightId);
 
     @PostMapping("/api/flight/inventory/reserve/{flightId}")
     Map<String, Object> reserveSeats(@PathVariable("flightId") String flightId, @RequestBody Map<String, Object> body);
@@ -0,0 +1,146 @@
+package com.booking.feign;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.booking.metrics.StatsSource;
+
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+// Admission control in front of every FLIGHT-MICROSERVICE call. Per operation an adaptive limit
+// follows the dependency's latency, and a semaphore bulkhead (resilience4j.bulkhead.instances.*)
+// caps it. Over either one the call fails fast with FlightCallRejectedException. A slow flight
+// service then ties up at most the bulkheads' worth of request threads, and PNR reads keep the rest.
+@Component
+public class FlightCallGuard implements StatsSource {
+
+    private final Map<FlightOperation, Lane> lanes = new EnumMap<>(FlightOperation.class);
+
+    public FlightCallGuard(BulkheadRegistry bulkheads,
+                           @Value("${booking.flight-calls.limiter.initial-limit:20}") int initialLimit,
+                           @Value("${booking.flight-calls.limiter.min-limit:2}") int minLimit,
+                           @Value("${booking.flight-calls.limiter.max-limit:50}") int maxLimit,
+                           @Value("${booking.flight-calls.info.target-latency:250ms}") Duration infoTarget,
+                           @Value("${booking.flight-calls.reserve.target-latency:750ms}") Duration reserveTarget,
+                           @Value("${booking.flight-calls.release.target-latency:750ms}") Duration releaseTarget) {
+        Map<FlightOperation, Duration> targets = Map.of(
+                FlightOperation.INFO, infoTarget,
+                FlightOperation.RESERVE, reserveTarget,
+                FlightOperation.RELEASE, releaseTarget);
+        for (FlightOperation op : FlightOperation.values()) {
+            lanes.put(op, new Lane(op, bulkheads.bulkhead(op.bulkheadName()),
+                    new AdaptiveLimiter(initialLimit, minLimit, maxLimit, targets.get(op).toNanos(), 0.9)));
+        }
+    }
+
+    public <T> T call(FlightOperation op, Supplier<T> call) {
+        Lane lane = lanes.get(op);
+        lane.admit();
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = call.get();
+            succeeded = true;
+            return result;
+        } catch (RuntimeException ex) {
+            succeeded = isClientError(ex);
+            throw ex;
+        } finally {
+            lane.done(start, succeeded);
+        }
+    }
+
+    // the permit is held until the returned future completes
+    public <T> CompletableFuture<T> callAsync(FlightOperation op, Supplier<CompletableFuture<T>> call) {
+        Lane lane = lanes.get(op);
+        try {
+            lane.admit();
+        } catch (FlightCallRejectedException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException ex) {
+            lane.done(start, isClientError(ex));
+            return CompletableFuture.failedFuture(ex);
+        }
+        return future.whenComplete((result, ex) -> lane.done(start, ex == null || isClientError(ex)));
+    }
+
+    // A 4xx is an answer, not a failure: it must not shrink the limit, just as the breaker ignores it.
+    static boolean isClientError(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause instanceof FlightClientErrorException || cause instanceof FeignException.FeignClientException;
+    }
+
+    @Override
+    public String statsName() {
+        return "flightCalls";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        for (Lane lane : lanes.values()) {
+            Map<String, Object> l = new LinkedHashMap<>();
+            l.put("limit", lane.limiter.limit());
+            l.put("inFlight", lane.limiter.inFlight());
+            l.put("bulkheadAvailable", lane.bulkhead.getMetrics().getAvailableConcurrentCalls());
+            l.put("calls", lane.calls.sum());
+            l.put("failed", lane.failed.sum());
+            l.put("rejectedByLimit", lane.rejectedByLimit.sum());
+            l.put("rejectedByBulkhead", lane.rejectedByBulkhead.sum());
+            s.put(lane.bulkhead.getName(), l);
+        }
+        return s;
+    }
+
+    private static final class Lane {
+        final FlightOperation op;
+        final Bulkhead bulkhead;
+        final AdaptiveLimiter limiter;
+        final LongAdder calls = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder rejectedByLimit = new LongAdder();
+        final LongAdder rejectedByBulkhead = new LongAdder();
+
+        Lane(FlightOperation op, Bulkhead bulkhead, AdaptiveLimiter limiter) {
+            this.op = op;
+            this.bulkhead = bulkhead;
+            this.limiter = limiter;
+        }
+
+        void admit() {
+            if (!limiter.tryAcquire()) {
+                rejectedByLimit.increment();
+                throw new FlightCallRejectedException("Flight service busy: " + op + " concurrency limit "
+                        + limiter.limit() + " reached");
+            }
+            if (!bulkhead.tryAcquirePermission()) {
+                limiter.cancel();
+                rejectedByBulkhead.increment();
+                throw new FlightCallRejectedException("Flight service busy: " + op + " bulkhead full");
+            }
+        }
+
+        void done(long startNanos, boolean succeeded) {
+            bulkhead.onComplete();
+            limiter.release(startNanos, System.nanoTime(), succeeded);
+            calls.increment();
+            if (!succeeded) failed.increment();
+        }
+    }
+}
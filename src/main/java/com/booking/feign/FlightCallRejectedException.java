@@ -0,0 +1,10 @@
+package com.booking.feign;
+
+// Thrown instead of calling FLIGHT-MICROSERVICE when the operation is at its bulkhead or
+// concurrency limit. The circuit breaker ignores it: shedding load is not a dependency failure.
+public class FlightCallRejectedException extends RuntimeException {
+
+    public FlightCallRejectedException(String message) {
+        super(message);
+    }
+}
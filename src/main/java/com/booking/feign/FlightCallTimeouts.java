@@ -0,0 +1,62 @@
+package com.booking.feign;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import feign.Capability;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+
+// Read timeout per flight-service operation. Feign only has per-client options, so as a Capability
+// this wraps the Feign client and swaps the options per request by the called method.
+// HttpAsyncFlightClient reads the same values.
+@Component
+public class FlightCallTimeouts implements Capability {
+
+    private final Duration connectTimeout;
+    private final Map<FlightOperation, Duration> timeouts = new EnumMap<>(FlightOperation.class);
+
+    @Autowired
+    public FlightCallTimeouts(@Value("${booking.flight-calls.connect-timeout:1s}") Duration connectTimeout,
+                              @Value("${booking.flight-calls.info.timeout:1s}") Duration info,
+                              @Value("${booking.flight-calls.reserve.timeout:3s}") Duration reserve,
+                              @Value("${booking.flight-calls.release.timeout:5s}") Duration release) {
+        this.connectTimeout = connectTimeout;
+        timeouts.put(FlightOperation.INFO, info);
+        timeouts.put(FlightOperation.RESERVE, reserve);
+        timeouts.put(FlightOperation.RELEASE, release);
+    }
+
+    // same timeout for every operation
+    public FlightCallTimeouts(Duration timeout) {
+        this(timeout, timeout, timeout, timeout);
+    }
+
+    public Duration connectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration timeout(FlightOperation op) {
+        return timeouts.get(op);
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> client.execute(request, optionsFor(request, options));
+    }
+
+    private Request.Options optionsFor(Request request, Request.Options defaults) {
+        MethodMetadata method = request.requestTemplate() == null ? null : request.requestTemplate().methodMetadata();
+        FlightOperation op = method == null || method.method() == null ? null : FlightOperation.forMethod(method.method().getName());
+        if (op == null) return defaults;
+        return new Request.Options(connectTimeout.toMillis(), TimeUnit.MILLISECONDS,
+                timeouts.get(op).toMillis(), TimeUnit.MILLISECONDS, defaults.isFollowRedirects());
+    }
+}
@@ -0,0 +1,18 @@
+package com.booking.feign;
+
+// A 4xx answer from FLIGHT-MICROSERVICE on the async path, the counterpart of Feign's
+// FeignClientException. The flight service is up and refused this one request, so neither the
+// circuit breaker nor the adaptive limiter counts it as a failure.
+public class FlightClientErrorException extends RuntimeException {
+
+    private final int status;
+
+    public FlightClientErrorException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int status() {
+        return status;
+    }
+}
@@ -0,0 +1,84 @@
+package com.booking.feign;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import org.slf4j.LoggerFactory;
+
+import com.booking.logging.SampledLogger;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+// price and startDate are decoded leniently: a value the flight service sends in an unexpected
+// shape becomes null (with a sampled warning) instead of failing the whole inventory, so the seat
+// map stays usable. A booking needs a price, see unpriced().
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record FlightInventory(
+        boolean fallback,
+        String status,
+        String message,
+        @JsonDeserialize(using = LenientPrice.class) Double price,
+        @JsonDeserialize(using = LenientStartDate.class) LocalDateTime startDate,
+        SeatSet availableSeatNumbers) {
+
+    private static final SampledLogger DECODE_LOG = new SampledLogger(LoggerFactory.getLogger(FlightInventory.class), 1);
+
+    public FlightInventory {
+        if (availableSeatNumbers == null) availableSeatNumbers = SeatSet.empty();
+    }
+
+    public static FlightInventory unavailable(String message) {
+        return new FlightInventory(true, "UNAVAILABLE", message, 0.0, null, SeatSet.empty());
+    }
+
+    public boolean isUnavailable() {
+        return fallback || "UNAVAILABLE".equals(status);
+    }
+
+    public boolean unpriced() {
+        return price == null;
+    }
+
+    // Reads the value as a tree first, so a failed conversion leaves the parser past the field.
+    abstract static class Lenient<T> extends JsonDeserializer<T> {
+        private final Class<T> type;
+        private final String field;
+
+        Lenient(Class<T> type, String field) {
+            this.type = type;
+            this.field = field;
+        }
+
+        @Override
+        public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonNode node = ctxt.readTree(p);
+            try {
+                return ctxt.readTreeAsValue(node, type);
+            } catch (JsonProcessingException ex) {
+                DECODE_LOG.atWarn("flightInventory.invalid." + field)
+                        .setMessage("Unreadable flight inventory field, using null")
+                        .addKeyValue("field", field)
+                        .addKeyValue("value", node.toString())
+                        .log();
+                return null;
+            }
+        }
+    }
+
+    public static final class LenientPrice extends Lenient<Double> {
+        public LenientPrice() {
+            super(Double.class, "price");
+        }
+    }
+
+    public static final class LenientStartDate extends Lenient<LocalDateTime> {
+        public LenientStartDate() {
+            super(LocalDateTime.class, "startDate");
+        }
+    }
+}
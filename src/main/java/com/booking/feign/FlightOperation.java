@@ -0,0 +1,34 @@
+package com.booking.feign;
+
+// The three FLIGHT-MICROSERVICE calls. Each gets its own timeout, bulkhead and concurrency limit,
+// so a slow reserve cannot use up the capacity inventory lookups and releases need.
+public enum FlightOperation {
+
+    INFO("getFlightInfo", "flightInfo"),
+    RESERVE("reserveSeats", "flightReserve"),
+    RELEASE("releaseSeats", "flightRelease");
+
+    private final String clientMethod;
+    private final String bulkheadName;
+
+    FlightOperation(String clientMethod, String bulkheadName) {
+        this.clientMethod = clientMethod;
+        this.bulkheadName = bulkheadName;
+    }
+
+    public String clientMethod() {
+        return clientMethod;
+    }
+
+    public String bulkheadName() {
+        return bulkheadName;
+    }
+
+    // FeignInterface / AsyncFlightClient method name to operation, null for anything else
+    public static FlightOperation forMethod(String name) {
+        for (FlightOperation op : values()) {
+            if (op.clientMethod.equals(name)) return op;
+        }
+        return null;
+    }
+}
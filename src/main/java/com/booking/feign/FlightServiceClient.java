@@ -0,0 +1,248 @@
+package com.booking.feign;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.booking.cache.FlightInfoCoalescer;
+import com.booking.logging.SampledLogger;
+import com.booking.metrics.BookingMetrics;
+import com.booking.metrics.StatsSource;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+// The resilience layer for FLIGHT-MICROSERVICE, blocking and async: flightServiceCB, then the
+// FlightCallGuard, then the call. The breaker decorates the calls directly instead of going
+// through @CircuitBreaker, so no self-invocation or catch block can hide a failure from it.
+// Whatever still fails comes back as the same fallback values the services always handled.
+// Flight lookups are hedged across instances when a HedgedFlightInfoReader is configured.
+// Metrics: flight.client{operation,outcome} latency per call and flight.client.fallbacks{method,reason}.
+@Component
+public class FlightServiceClient implements StatsSource {
+
+    static final String CIRCUIT_BREAKER = "flightServiceCB";
+    private static final SampledLogger FALLBACK_LOG = new SampledLogger(LoggerFactory.getLogger(FlightServiceClient.class), 10);
+
+    private final FeignInterface flightClient;
+    private final AsyncFlightClient asyncFlightClient;
+    private final FlightCallGuard flightCalls;
+    private final FlightInfoCoalescer flightInfoCoalescer;
+    private final HedgedFlightInfoReader hedgedReads;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Map<FlightOperation, Timer> succeededTimers = new EnumMap<>(FlightOperation.class);
+    private final Map<FlightOperation, Timer> failedTimers = new EnumMap<>(FlightOperation.class);
+    private final Map<String, Counter> fallbackCounters = new ConcurrentHashMap<>();
+
+    private final LongAdder shortCircuited = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public FlightServiceClient(FeignInterface flightClient, AsyncFlightClient asyncFlightClient,
+                               FlightCallGuard flightCalls, FlightInfoCoalescer flightInfoCoalescer,
+                               CircuitBreakerRegistry circuitBreakers) {
+        this(flightClient, asyncFlightClient, flightCalls, flightInfoCoalescer, Optional.empty(), circuitBreakers,
+                new CompositeMeterRegistry());
+    }
+
+    @Autowired
+    public FlightServiceClient(FeignInterface flightClient, AsyncFlightClient asyncFlightClient,
+                               FlightCallGuard flightCalls, FlightInfoCoalescer flightInfoCoalescer,
+                               Optional<HedgedFlightInfoReader> hedgedReads, CircuitBreakerRegistry circuitBreakers,
+                               MeterRegistry meterRegistry) {
+        this.flightClient = flightClient;
+        this.asyncFlightClient = asyncFlightClient;
+        this.flightCalls = flightCalls;
+        this.flightInfoCoalescer = flightInfoCoalescer;
+        this.hedgedReads = hedgedReads.orElse(null);
+        this.circuitBreaker = circuitBreakers.circuitBreaker(CIRCUIT_BREAKER);
+        this.meterRegistry = meterRegistry;
+        for (FlightOperation op : FlightOperation.values()) {
+            succeededTimers.put(op, timer(op, "success"));
+            failedTimers.put(op, timer(op, "failure"));
+        }
+    }
+
+    private Timer timer(FlightOperation op, String outcome) {
+        return BookingMetrics.histogram(Timer.builder("flight.client"))
+                .description("FLIGHT-MICROSERVICE calls through the breaker and guard")
+                .tag("operation", op.clientMethod())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Lookups for one flight share a single HTTP call. Only the leader goes through the breaker and
+    // guard, so a burst takes one permit and records one call; waiting callers get its result or
+    // its exception. A hedged lookup holds one guard permit even when it sends its second request.
+    public FlightInventory getFlightInfo(String flightId) {
+        try {
+            return flightInfoCoalescer.load(flightId, () -> protect(FlightOperation.INFO, () -> hedgedReads == null
+                    ? flightClient.getFlightInfo(flightId)
+                    : join(hedgedReads.getFlightInfo(flightId))));
+        } catch (RuntimeException ex) {
+            return flightInfoFallback("getFlightInfo", ex);
+        }
+    }
+
+    public Map<String, Object> reserveSeats(String flightId, Map<String, Object> body) {
+        try {
+            return protect(FlightOperation.RESERVE, () -> flightClient.reserveSeats(flightId, body));
+        } catch (RuntimeException ex) {
+            return fallback("reserveSeats", "Seat reservation is temporarily unavailable.", ex);
+        }
+    }
+
+    public Map<String, Object> releaseSeats(String flightId, Map<String, Object> body) {
+        try {
+            return protect(FlightOperation.RELEASE, () -> flightClient.releaseSeats(flightId, body));
+        } catch (RuntimeException ex) {
+            return fallback("releaseSeats", "Seat release pending: Flight Service unavailable.", ex);
+        }
+    }
+
+    public CompletableFuture<FlightInventory> getFlightInfoAsync(String flightId) {
+        return flightInfoCoalescer.loadAsync(flightId, () -> protectAsync(FlightOperation.INFO, () -> hedgedReads == null
+                        ? asyncFlightClient.getFlightInfo(flightId)
+                        : hedgedReads.getFlightInfo(flightId)))
+                .exceptionally(ex -> flightInfoFallback("getFlightInfoAsync", ex));
+    }
+
+    public CompletableFuture<Map<String, Object>> reserveSeatsAsync(String flightId, Map<String, Object> body) {
+        return protectAsync(FlightOperation.RESERVE, () -> asyncFlightClient.reserveSeats(flightId, body))
+                .exceptionally(ex -> fallback("reserveSeatsAsync", "Seat reservation is temporarily unavailable.", ex));
+    }
+
+    public CompletableFuture<Map<String, Object>> releaseSeatsAsync(String flightId, Map<String, Object> body) {
+        return protectAsync(FlightOperation.RELEASE, () -> asyncFlightClient.releaseSeats(flightId, body))
+                .exceptionally(ex -> fallback("releaseSeatsAsync", "Seat release pending: Flight Service unavailable.", ex));
+    }
+
+    public CircuitBreaker.State state() {
+        return circuitBreaker.getState();
+    }
+
+    private <T> T protect(FlightOperation op, Supplier<T> call) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = circuitBreaker.executeSupplier(() -> flightCalls.call(op, call));
+            succeeded = true;
+            return result;
+        } finally {
+            time(op, start, succeeded);
+        }
+    }
+
+    private <T> CompletableFuture<T> protectAsync(FlightOperation op, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        return circuitBreaker.executeCompletionStage(() -> flightCalls.callAsync(op, call)).toCompletableFuture()
+                .whenComplete((result, ex) -> time(op, start, ex == null));
+    }
+
+    private void time(FlightOperation op, long startNanos, boolean succeeded) {
+        (succeeded ? succeededTimers : failedTimers).get(op).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+    }
+
+    private FlightInventory flightInfoFallback(String call, Throwable ex) {
+        record(call, ex);
+        return FlightInventory.unavailable("Flight Service is down. Please try again later.");
+    }
+
+    private Map<String, Object> fallback(String call, String message, Throwable ex) {
+        Throwable cause = record(call, ex);
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("fallback", true);
+        resp.put("message", message);
+        resp.put("error", cause.getMessage());
+        return resp;
+    }
+
+    private Throwable record(String call, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        String reason;
+        if (cause instanceof CallNotPermittedException) {
+            shortCircuited.increment();
+            reason = "shortCircuited";
+        } else if (cause instanceof FlightCallRejectedException) {
+            rejected.increment();
+            reason = "rejected";
+        } else if (isTimeout(cause)) {
+            timedOut.increment();
+            reason = "timedOut";
+        } else {
+            failed.increment();
+            reason = "failed";
+        }
+        fallbackCounters.computeIfAbsent(call + ':' + reason, k -> Counter.builder("flight.client.fallbacks")
+                .description("flightServiceCB fallbacks by method and reason")
+                .tag("method", call)
+                .tag("reason", reason)
+                .register(meterRegistry)).increment();
+        FALLBACK_LOG.atWarn(call + '.' + reason)
+                .setMessage("Flight service call fell back")
+                .addKeyValue("call", call)
+                .addKeyValue("reason", reason)
+                .addKeyValue("error", cause.getMessage())
+                .log();
+        return cause;
+    }
+
+    // Feign wraps read timeouts in RetryableException, the JDK client and SingleFlight use their own types
+    private static boolean isTimeout(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SocketTimeoutException || t instanceof HttpTimeoutException || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String statsName() {
+        return "flightService";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("state", circuitBreaker.getState().name());
+        s.put("failureRate", metrics.getFailureRate());
+        s.put("bufferedCalls", metrics.getNumberOfBufferedCalls());
+        s.put("shortCircuited", shortCircuited.sum());
+        s.put("timedOut", timedOut.sum());
+        s.put("rejected", rejected.sum());
+        s.put("failed", failed.sum());
+        return s;
+    }
+}
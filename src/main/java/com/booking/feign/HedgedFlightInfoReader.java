@@ -0,0 +1,190 @@
+package com.booking.feign;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+
+import com.booking.metrics.StatsSource;
+
+// Hedged getFlightInfo. The lookup goes to one FLIGHT-MICROSERVICE instance; if that instance has
+// not answered within the observed p95 of recent lookups, a second request goes to a different
+// instance and whichever answers first wins. Every lookup earns budgetPercent/100 of a hedge and
+// a hedge spends a whole one, so the extra calls stay within the budget however slow the fleet
+// gets. Only the read is hedged: reserve and release are not idempotent and never come here.
+// Off unless enabled: with it, synchronous lookups leave Feign for the JDK client as well.
+@Component
+@ConditionalOnProperty(name = "booking.flight-calls.hedge.enabled", havingValue = "true", matchIfMissing = false)
+public class HedgedFlightInfoReader implements StatsSource {
+
+    private static final long MILLI_TOKENS_PER_HEDGE = 1_000;
+    private static final long MAX_MILLI_TOKENS = 10 * MILLI_TOKENS_PER_HEDGE;
+    private static final int WINDOW = 512;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final Supplier<List<URI>> instances;
+    private final HttpAsyncFlightClient http;
+    private final long depositMilliTokens;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService timer;
+
+    private final AtomicLong milliTokens = new AtomicLong();
+    private final AtomicLongArray latencies = new AtomicLongArray(WINDOW);
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long p95Nanos = -1;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetDenied = new LongAdder();
+    private final LongAdder singleInstance = new LongAdder();
+
+    @Autowired
+    public HedgedFlightInfoReader(DiscoveryClient discovery, HttpAsyncFlightClient http,
+                                  @Value("${booking.flight-calls.hedge.budget-percent:5}") double budgetPercent,
+                                  @Value("${booking.flight-calls.hedge.min-delay:10ms}") Duration minDelay,
+                                  @Value("${booking.flight-calls.hedge.max-delay:500ms}") Duration maxDelay) {
+        this(() -> discovery.getInstances(HttpAsyncFlightClient.SERVICE_ID).stream().map(ServiceInstance::getUri).toList(),
+                http, budgetPercent, minDelay, maxDelay);
+    }
+
+    public HedgedFlightInfoReader(Supplier<List<URI>> instances, HttpAsyncFlightClient http,
+                                  double budgetPercent, Duration minDelay, Duration maxDelay) {
+        this.instances = instances;
+        this.http = http;
+        this.depositMilliTokens = Math.round(budgetPercent * MILLI_TOKENS_PER_HEDGE / 100);
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = Math.max(minDelayNanos, maxDelay.toNanos());
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "flight-hedge-timer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public CompletableFuture<FlightInventory> getFlightInfo(String flightId) {
+        calls.increment();
+        List<URI> uris;
+        try {
+            uris = instances.get();
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        if (uris.isEmpty()) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("No " + HttpAsyncFlightClient.SERVICE_ID + " instance available"));
+        }
+        deposit();
+
+        int first = ThreadLocalRandom.current().nextInt(uris.size());
+        long start = System.nanoTime();
+        CompletableFuture<FlightInventory> primary = http.getFlightInfo(uris.get(first), flightId);
+        primary.whenComplete((info, ex) -> {
+            if (ex == null) record(System.nanoTime() - start);
+        });
+        if (uris.size() < 2) {
+            singleInstance.increment();
+            return primary;
+        }
+
+        // fails only once every request that was sent has failed
+        CompletableFuture<FlightInventory> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        BiConsumer<FlightInventory, Throwable> settle = (info, ex) -> {
+            if (ex == null) {
+                result.complete(info);
+            } else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(ex);
+            }
+        };
+        primary.whenComplete(settle);
+
+        ScheduledFuture<?> hedge = timer.schedule(() -> {
+            if (result.isDone()) return;
+            if (!withdraw()) {
+                budgetDenied.increment();
+                return;
+            }
+            hedged.increment();
+            outstanding.incrementAndGet();
+            int second = (first + 1 + ThreadLocalRandom.current().nextInt(uris.size() - 1)) % uris.size();
+            http.getFlightInfo(uris.get(second), flightId).whenComplete((info, ex) -> {
+                if (ex == null && !result.isDone()) hedgeWins.increment();
+                settle.accept(info, ex);
+            });
+        }, hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        result.whenComplete((info, ex) -> hedge.cancel(false));
+        return result;
+    }
+
+    // p95 of recent primary lookups within [minDelay, maxDelay]; maxDelay until there is a p95
+    long hedgeDelayNanos() {
+        long p95 = p95Nanos;
+        if (p95 < 0) return maxDelayNanos;
+        return Math.max(minDelayNanos, Math.min(maxDelayNanos, p95));
+    }
+
+    private void deposit() {
+        milliTokens.accumulateAndGet(depositMilliTokens, (have, add) -> Math.min(MAX_MILLI_TOKENS, have + add));
+    }
+
+    private boolean withdraw() {
+        for (;;) {
+            long have = milliTokens.get();
+            if (have < MILLI_TOKENS_PER_HEDGE) return false;
+            if (milliTokens.compareAndSet(have, have - MILLI_TOKENS_PER_HEDGE)) return true;
+        }
+    }
+
+    private void record(long nanos) {
+        long n = recorded.getAndIncrement();
+        latencies.set((int) (n % WINDOW), nanos);
+        if ((n + 1) % RECOMPUTE_EVERY == 0) {
+            int size = (int) Math.min(n + 1, WINDOW);
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) sorted[i] = latencies.get(i);
+            Arrays.sort(sorted);
+            p95Nanos = sorted[(int) Math.ceil(size * 0.95) - 1];
+        }
+    }
+
+    @Override
+    public String statsName() {
+        return "flightHedging";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("calls", calls.sum());
+        s.put("hedged", hedged.sum());
+        s.put("hedgeWins", hedgeWins.sum());
+        s.put("budgetDenied", budgetDenied.sum());
+        s.put("singleInstance", singleInstance.sum());
+        s.put("p95Ms", p95Nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(p95Nanos));
+        s.put("hedgeDelayMs", TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos()));
+        return s;
+    }
+}
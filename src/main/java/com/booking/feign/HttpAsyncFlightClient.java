@@ -0,0 +1,127 @@
+package com.booking.feign;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// AsyncFlightClient on the JDK HttpClient. The instance is picked by the same Spring Cloud
+// load balancer Feign uses (it answers from its cached Eureka list), then sendAsync hands the
+// exchange to the client's selector thread. Non-2xx answers fail the future like Feign throws:
+// 4xx with FlightClientErrorException, which the breaker ignores like FeignClientException.
+@Component
+public class HttpAsyncFlightClient implements AsyncFlightClient {
+
+    static final String SERVICE_ID = "FLIGHT-MICROSERVICE";
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final HttpClient http;
+    private final Supplier<URI> baseUri;
+    private final ObjectMapper objectMapper;
+    private final FlightCallTimeouts timeouts;
+
+    @Autowired
+    public HttpAsyncFlightClient(LoadBalancerClient loadBalancer, ObjectMapper objectMapper, FlightCallTimeouts timeouts) {
+        this(() -> {
+            ServiceInstance instance = loadBalancer.choose(SERVICE_ID);
+            if (instance == null) throw new IllegalStateException("No " + SERVICE_ID + " instance available");
+            return instance.getUri();
+        }, objectMapper, timeouts);
+    }
+
+    public HttpAsyncFlightClient(Supplier<URI> baseUri, ObjectMapper objectMapper, Duration timeout) {
+        this(baseUri, objectMapper, new FlightCallTimeouts(timeout));
+    }
+
+    public HttpAsyncFlightClient(Supplier<URI> baseUri, ObjectMapper objectMapper, FlightCallTimeouts timeouts) {
+        this.http = HttpClient.newBuilder().connectTimeout(timeouts.connectTimeout()).build();
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.timeouts = timeouts;
+    }
+
+    @Override
+    public CompletableFuture<FlightInventory> getFlightInfo(String flightId) {
+        return send(FlightOperation.INFO, "/api/flight/inventory/" + encode(flightId), null)
+                .thenApply(body -> read(body, FlightInventory.class));
+    }
+
+    // the same lookup against one chosen instance, for HedgedFlightInfoReader
+    public CompletableFuture<FlightInventory> getFlightInfo(URI instance, String flightId) {
+        return send(FlightOperation.INFO, () -> instance, "/api/flight/inventory/" + encode(flightId), null)
+                .thenApply(body -> read(body, FlightInventory.class));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> reserveSeats(String flightId, Map<String, Object> body) {
+        return send(FlightOperation.RESERVE, "/api/flight/inventory/reserve/" + encode(flightId), body).thenApply(this::readMap);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> releaseSeats(String flightId, Map<String, Object> body) {
+        return send(FlightOperation.RELEASE, "/api/flight/inventory/release/" + encode(flightId), body).thenApply(this::readMap);
+    }
+
+    // GET when body is null, otherwise POST it as JSON. Every failure ends up in the future.
+    private CompletableFuture<byte[]> send(FlightOperation op, String path, Map<String, Object> body) {
+        return send(op, baseUri, path, body);
+    }
+
+    private CompletableFuture<byte[]> send(FlightOperation op, Supplier<URI> instance, String path, Map<String, Object> body) {
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(instance.get().resolve(path))
+                    .timeout(timeouts.timeout(op))
+                    .header("Accept", "application/json");
+            request = body == null
+                    ? builder.GET().build()
+                    : builder.header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                            .build();
+        } catch (IOException | RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(resp -> {
+            String error = SERVICE_ID + " returned " + resp.statusCode() + " for " + path;
+            if (resp.statusCode() / 100 == 4) throw new FlightClientErrorException(resp.statusCode(), error);
+            if (resp.statusCode() / 100 != 2) throw new IllegalStateException(error);
+            return resp.body();
+        });
+    }
+
+    private <T> T read(byte[] body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Map<String, Object> readMap(byte[] body) {
+        try {
+            return objectMapper.readValue(body, MAP_TYPE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String encode(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,120 @@
+package com.booking.feign;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+// Immutable open-addressing set of seat labels. Decoded straight from the JSON array so a
+// 300-seat inventory costs one String[] instead of an ArrayList plus a LinkedHashMap tree,
+// and containsAll is O(k) in the number of requested seats.
+@JsonDeserialize(using = SeatSet.Deserializer.class)
+public final class SeatSet {
+
+    private static final SeatSet EMPTY = new SeatSet(new String[0], new String[1], 0);
+
+    private final String[] seats;
+    private final String[] table;
+    private final int mask;
+
+    private SeatSet(String[] seats, String[] table, int size) {
+        this.seats = size == seats.length ? seats : Arrays.copyOf(seats, size);
+        this.table = table;
+        this.mask = table.length - 1;
+    }
+
+    public static SeatSet empty() {
+        return EMPTY;
+    }
+
+    public static SeatSet of(Collection<String> seats) {
+        return of(seats.toArray(new String[0]), seats.size());
+    }
+
+    static SeatSet of(String[] seats, int size) {
+        if (size == 0) return EMPTY;
+        int capacity = Integer.highestOneBit(Math.max(2, size * 2 - 1)) << 1;
+        String[] table = new String[capacity];
+        int mask = capacity - 1;
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            String seat = seats[i];
+            int slot = spread(seat.hashCode()) & mask;
+            while (table[slot] != null && !table[slot].equals(seat)) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] == null) {
+                table[slot] = seat;
+                seats[distinct++] = seat;
+            }
+        }
+        return new SeatSet(seats, table, distinct);
+    }
+
+    public boolean contains(String seat) {
+        if (seat == null || seats.length == 0) return false;
+        int slot = spread(seat.hashCode()) & mask;
+        String s;
+        while ((s = table[slot]) != null) {
+            if (s.equals(seat)) return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean containsAll(Collection<String> requested) {
+        for (String seat : requested) {
+            if (!contains(seat)) return false;
+        }
+        return true;
+    }
+
+    public int size() {
+        return seats.length;
+    }
+
+    @JsonValue
+    public List<String> toList() {
+        return List.of(seats);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(seats);
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    public static final class Deserializer extends JsonDeserializer<SeatSet> {
+
+        @Override
+        public SeatSet deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return (SeatSet) ctxt.handleUnexpectedToken(SeatSet.class, p);
+            }
+            String[] buf = new String[64];
+            int n = 0;
+            JsonToken t;
+            while ((t = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (t == JsonToken.VALUE_NULL) continue;
+                if (n == buf.length) buf = Arrays.copyOf(buf, n * 2);
+                buf[n++] = p.getValueAsString();
+            }
+            return SeatSet.of(buf, n);
+        }
+
+        @Override
+        public SeatSet getNullValue(DeserializationContext ctxt) {
+            return EMPTY;
+        }
+    }
+}
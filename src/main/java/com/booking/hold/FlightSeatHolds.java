@@ -0,0 +1,139 @@
+package com.booking.hold;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Held seats of one flight: a 16-bit word per seat row plus the owning hold of each set bit.
+// Each row has its own lock, so holders on different rows never wait for each other. A hold
+// spanning rows locks them in ascending order; SeatHold.seats is sorted, so that is just
+// walking the array. An expired owner counts as free and is overwritten in place, the
+// sweeper only tidies up what nobody claimed again. Once no hold is registered the sweeper
+// retires the instance; a tryHold that races with that gets null and looks the flight up again.
+final class FlightSeatHolds {
+
+    private static final class Row {
+        final ReentrantLock lock = new ReentrantLock();
+        int held;
+        final SeatHold[] owners = new SeatHold[SeatCodec.COLUMNS];
+    }
+
+    private final AtomicReferenceArray<Row> rows = new AtomicReferenceArray<>(SeatCodec.MAX_ROWS);
+
+    // holds placed here and not yet released, counting one being placed; -1 once retired
+    private final AtomicInteger holds = new AtomicInteger();
+
+    // empty when every seat was free (or held by an expired hold) and is now owned by hold,
+    // null when this instance was retired
+    List<String> tryHold(SeatHold hold, long now) {
+        if (holds.getAndUpdate(n -> n < 0 ? n : n + 1) < 0) return null;
+        boolean placed = false;
+        Row[] locked = lock(hold.seats());
+        try {
+            List<String> conflicts = taken(hold.seats(), null, now);
+            if (!conflicts.isEmpty()) return conflicts;
+            for (int seat : hold.seats()) {
+                Row row = rows.get(SeatCodec.row(seat));
+                int col = SeatCodec.column(seat);
+                row.held |= 1 << col;
+                row.owners[col] = hold;
+            }
+            placed = true;
+            return conflicts;
+        } finally {
+            unlock(locked);
+            if (!placed) holds.decrementAndGet();
+        }
+    }
+
+    // true when no hold is left; the instance then refuses new holds and can be dropped
+    boolean retireIfEmpty() {
+        return holds.compareAndSet(0, -1);
+    }
+
+    // seats held by a live hold other than exceptHoldId
+    List<String> heldByOthers(int[] seats, String exceptHoldId, long now) {
+        Row[] locked = lock(seats);
+        try {
+            return taken(seats, exceptHoldId, now);
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    // false when the hold expired, or this instance was retired and so no longer has it
+    boolean extend(SeatHold hold, long now, long expiresAt) {
+        Row[] locked = lock(hold.seats());
+        try {
+            if (holds.get() < 0 || !hold.isLive(now)) return false;
+            hold.expiresAt(expiresAt);
+            return true;
+        } finally {
+            unlock(locked);
+        }
+    }
+
+    // clears only the seats this hold still owns; called once per placed hold
+    void release(SeatHold hold) {
+        Row[] locked = lock(hold.seats());
+        try {
+            for (int seat : hold.seats()) {
+                Row row = rows.get(SeatCodec.row(seat));
+                int col = SeatCodec.column(seat);
+                if (row.owners[col] == hold) {
+                    row.held &= ~(1 << col);
+                    row.owners[col] = null;
+                }
+            }
+        } finally {
+            unlock(locked);
+            holds.decrementAndGet();
+        }
+    }
+
+    private List<String> taken(int[] seats, String exceptHoldId, long now) {
+        List<String> conflicts = List.of();
+        for (int seat : seats) {
+            Row row = rows.get(SeatCodec.row(seat));
+            int col = SeatCodec.column(seat);
+            if ((row.held & (1 << col)) == 0) continue;
+            SeatHold owner = row.owners[col];
+            if (!owner.isLive(now) || owner.holdId().equals(exceptHoldId)) continue;
+            if (conflicts.isEmpty()) conflicts = new ArrayList<>();
+            conflicts.add(SeatCodec.decode(seat));
+        }
+        return conflicts;
+    }
+
+    private Row[] lock(int[] seats) {
+        Row[] locked = new Row[seats.length];
+        int n = 0;
+        int lastRow = -1;
+        for (int seat : seats) {
+            int r = SeatCodec.row(seat);
+            if (r == lastRow) continue;
+            Row row = row(r);
+            row.lock.lock();
+            locked[n++] = row;
+            lastRow = r;
+        }
+        return locked;
+    }
+
+    private static void unlock(Row[] locked) {
+        for (int i = locked.length - 1; i >= 0; i--) {
+            if (locked[i] != null) locked[i].lock.unlock();
+        }
+    }
+
+    private Row row(int r) {
+        Row row = rows.get(r);
+        if (row == null) {
+            rows.compareAndSet(r, null, new Row());
+            row = rows.get(r);
+        }
+        return row;
+    }
+}
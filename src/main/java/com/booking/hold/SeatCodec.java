@@ -0,0 +1,39 @@
+package com.booking.hold;
+
+// Maps seat labels like "12C" onto a dense index: row * COLUMNS + column. One row fits in the
+// low 16 bits of an int, so a row is both a bitset word and a lock stripe in FlightSeatHolds.
+public final class SeatCodec {
+
+    public static final int MAX_ROWS = 128;
+    public static final int COLUMNS = 16; // A..P
+
+    private SeatCodec() {}
+
+    // -1 for anything outside the seat map
+    public static int encode(String seat) {
+        if (seat == null || seat.length() < 2 || seat.length() > 4) return -1;
+        int last = seat.length() - 1;
+        int col = seat.charAt(last) - 'A';
+        if (col < 0 || col >= COLUMNS) return -1;
+        int row = 0;
+        for (int i = 0; i < last; i++) {
+            char c = seat.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            row = row * 10 + (c - '0');
+        }
+        if (row < 1 || row > MAX_ROWS) return -1;
+        return (row - 1) * COLUMNS + col;
+    }
+
+    public static String decode(int index) {
+        return (row(index) + 1) + String.valueOf((char) ('A' + column(index)));
+    }
+
+    static int row(int index) {
+        return index / COLUMNS;
+    }
+
+    static int column(int index) {
+        return index % COLUMNS;
+    }
+}
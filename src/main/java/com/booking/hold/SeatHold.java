@@ -0,0 +1,63 @@
+package com.booking.hold;
+
+import java.util.List;
+
+// A customer's soft claim on some seats of one flight. expiresAt only moves while
+// FlightSeatHolds has every row of the hold locked.
+public final class SeatHold {
+
+    private final String holdId;
+    private final String flightId;
+    private final String holder;
+    private final List<String> seatNumbers;
+    private final int[] seats; // sorted seat indexes
+    private final long maxExpiresAt;
+    private volatile long expiresAt;
+
+    SeatHold(String holdId, String flightId, String holder, List<String> seatNumbers, int[] seats,
+             long expiresAt, long maxExpiresAt) {
+        this.holdId = holdId;
+        this.flightId = flightId;
+        this.holder = holder;
+        this.seatNumbers = seatNumbers;
+        this.seats = seats;
+        this.expiresAt = expiresAt;
+        this.maxExpiresAt = maxExpiresAt;
+    }
+
+    public String holdId() {
+        return holdId;
+    }
+
+    public String flightId() {
+        return flightId;
+    }
+
+    public String holder() {
+        return holder;
+    }
+
+    public List<String> seatNumbers() {
+        return seatNumbers;
+    }
+
+    public long expiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isLive(long nowMillis) {
+        return nowMillis < expiresAt;
+    }
+
+    int[] seats() {
+        return seats;
+    }
+
+    long maxExpiresAt() {
+        return maxExpiresAt;
+    }
+
+    void expiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,159 @@
+package com.booking.hold;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.booking.metrics.StatsSource;
+
+// In-memory seat holds, so a customer filling in passenger details keeps the seats they picked.
+// Holds are soft: FLIGHT-MICROSERVICE reserve stays authoritative, a hold only stops other
+// bookings made through this instance from taking the seats before it expires.
+@Component
+public class SeatHoldEngine implements StatsSource {
+
+    public record HoldResult(SeatHold hold, List<String> conflicts) {}
+
+    private final Duration ttl;
+    private final Duration maxLifetime;
+    private final int maxSeats;
+    private final LongSupplier clockMillis;
+
+    // one entry per flight with a hold placed or not yet swept, a few KB each; the sweep drops
+    // flights whose last hold is gone
+    private final ConcurrentHashMap<String, FlightSeatHolds> flights = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SeatHold> holds = new ConcurrentHashMap<>();
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder extended = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    @Autowired
+    public SeatHoldEngine(@Value("${booking.seat-hold.ttl:5m}") Duration ttl,
+                          @Value("${booking.seat-hold.max-lifetime:15m}") Duration maxLifetime,
+                          @Value("${booking.seat-hold.max-seats:9}") int maxSeats) {
+        this(ttl, maxLifetime, maxSeats, System::currentTimeMillis);
+    }
+
+    public SeatHoldEngine(Duration ttl, Duration maxLifetime, int maxSeats, LongSupplier clockMillis) {
+        this.ttl = ttl;
+        this.maxLifetime = maxLifetime;
+        this.maxSeats = maxSeats;
+        this.clockMillis = clockMillis;
+    }
+
+    // all or nothing: either every seat is now held, or conflicts lists the ones held by others
+    public HoldResult hold(String flightId, List<String> seatNumbers, String holder) {
+        if (seatNumbers.size() > maxSeats) {
+            throw new RuntimeException("At most " + maxSeats + " seats can be held at once");
+        }
+        int[] seats = new int[seatNumbers.size()];
+        for (int i = 0; i < seats.length; i++) {
+            seats[i] = SeatCodec.encode(seatNumbers.get(i));
+            if (seats[i] < 0) throw new RuntimeException("Invalid seat number: " + seatNumbers.get(i));
+        }
+        Arrays.sort(seats);
+        for (int i = 1; i < seats.length; i++) {
+            if (seats[i] == seats[i - 1]) throw new RuntimeException("Seat requested more than once");
+        }
+
+        long now = clockMillis.getAsLong();
+        SeatHold hold = new SeatHold(UUID.randomUUID().toString(), flightId, holder, List.copyOf(seatNumbers),
+                seats, now + ttl.toMillis(), now + maxLifetime.toMillis());
+        List<String> conflicts;
+        do {
+            FlightSeatHolds flight = flights.computeIfAbsent(flightId, id -> new FlightSeatHolds());
+            conflicts = flight.tryHold(hold, now);
+            // retired by the sweep after we looked it up
+            if (conflicts == null) flights.remove(flightId, flight);
+        } while (conflicts == null);
+        if (!conflicts.isEmpty()) {
+            rejected.increment();
+            return new HoldResult(null, conflicts);
+        }
+        holds.put(hold.holdId(), hold);
+        created.increment();
+        return new HoldResult(hold, List.of());
+    }
+
+    // null once the hold is released or expired
+    public SeatHold get(String holdId) {
+        SeatHold hold = holds.get(holdId);
+        return hold != null && hold.isLive(clockMillis.getAsLong()) ? hold : null;
+    }
+
+    // pushes expiry out by one ttl, never past max-lifetime from creation
+    public SeatHold extend(String holdId) {
+        SeatHold hold = holds.get(holdId);
+        if (hold == null) return null;
+        long now = clockMillis.getAsLong();
+        long expiresAt = Math.min(now + ttl.toMillis(), hold.maxExpiresAt());
+        // a concurrent release and sweep may have retired and dropped the flight since the lookup
+        FlightSeatHolds flight = flights.get(hold.flightId());
+        if (flight == null || !flight.extend(hold, now, expiresAt)) return null;
+        extended.increment();
+        return hold;
+    }
+
+    public boolean release(String holdId) {
+        SeatHold hold = holds.remove(holdId);
+        if (hold == null) return false;
+        flights.get(hold.flightId()).release(hold);
+        boolean live = hold.isLive(clockMillis.getAsLong());
+        (live ? released : expired).increment();
+        return live;
+    }
+
+    // Seats of the request held by someone else. Labels outside the seat map can never be held.
+    public List<String> heldByOthers(String flightId, List<String> seatNumbers, String exceptHoldId) {
+        FlightSeatHolds flight = flights.get(flightId);
+        if (flight == null) return List.of();
+        int[] seats = seatNumbers.stream().mapToInt(SeatCodec::encode).filter(s -> s >= 0).sorted().distinct().toArray();
+        return flight.heldByOthers(seats, exceptHoldId, clockMillis.getAsLong());
+    }
+
+    @Scheduled(fixedDelayString = "${booking.seat-hold.sweep-interval-ms:5000}")
+    public void purgeExpired() {
+        long now = clockMillis.getAsLong();
+        for (SeatHold hold : holds.values()) {
+            if (!hold.isLive(now) && holds.remove(hold.holdId(), hold)) {
+                flights.get(hold.flightId()).release(hold);
+                expired.increment();
+            }
+        }
+        for (Map.Entry<String, FlightSeatHolds> flight : flights.entrySet()) {
+            if (flight.getValue().retireIfEmpty()) flights.remove(flight.getKey(), flight.getValue());
+        }
+    }
+
+    @Override
+    public String statsName() {
+        return "seatHolds";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("active", holds.size());
+        s.put("flights", flights.size());
+        s.put("created", created.sum());
+        s.put("rejected", rejected.sum());
+        s.put("extended", extended.sum());
+        s.put("released", released.sum());
+        s.put("expired", expired.sum());
+        return s;
+    }
+}
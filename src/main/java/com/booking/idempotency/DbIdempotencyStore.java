@@ -0,0 +1,116 @@
+package com.booking.idempotency;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// idempotency_record backed store. The primary key is the claim: the first insert wins, later
+// attempts poll the row until the winner writes its response or gives the key up. A claim with no
+// response after claimTimeout (its node died mid-booking) is taken over by the next attempt, using
+// the database clock like the pnr_node lease.
+@Component
+@ConditionalOnProperty(name = "booking.idempotency.db.enabled", havingValue = "true")
+public class DbIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DbIdempotencyStore.class);
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static final long POLL_NANOS = 50_000_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlSeconds;
+    private final long claimTimeoutSeconds;
+
+    public DbIdempotencyStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              @Value("${booking.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${booking.idempotency.db.claim-timeout:2m}") Duration claimTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttlSeconds = ttl.toSeconds();
+        this.claimTimeoutSeconds = claimTimeout.toSeconds();
+    }
+
+    @Override
+    public Map<String, Object> claim(String key, String fingerprint, Duration maxWait) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        for (;;) {
+            try {
+                jdbcTemplate.update(
+                        "insert into idempotency_record (idempotency_key, fingerprint, created_at, claimed_at) "
+                                + "values (?, ?, current_timestamp, current_timestamp)",
+                        key, fingerprint);
+                return null;
+            } catch (DuplicateKeyException ex) {
+                // someone else has it; fall through and look at their row
+            }
+            List<String[]> rows = jdbcTemplate.query(
+                    "select fingerprint, response from idempotency_record where idempotency_key = ?",
+                    (rs, i) -> new String[] { rs.getString(1), rs.getString(2) }, key);
+            if (!rows.isEmpty()) {
+                String[] row = rows.get(0);
+                if (!fingerprint.equals(row[0])) throw IdempotencyGuard.keyReused();
+                if (row[1] != null) return read(row[1]);
+                if (takeOverStaleClaim(key)) return null;
+            }
+            if (System.nanoTime() - deadline > 0) throw IdempotencyGuard.stillInProgress();
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+    }
+
+    // rows written before claimed_at existed fall back to created_at
+    private boolean takeOverStaleClaim(String key) {
+        int taken = jdbcTemplate.update(
+                "update idempotency_record set claimed_at = current_timestamp where idempotency_key = ? and response is null "
+                        + "and coalesce(claimed_at, created_at) < current_timestamp - interval ? second",
+                key, claimTimeoutSeconds);
+        if (taken == 0) return false;
+        log.warn("Took over idempotency claim {} after {}s without a response", key, claimTimeoutSeconds);
+        return true;
+    }
+
+    @Override
+    public void complete(String key, Map<String, Object> response) {
+        try {
+            jdbcTemplate.update("update idempotency_record set response = ? where idempotency_key = ?",
+                    objectMapper.writeValueAsString(response), key);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not store idempotent response", ex);
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("delete from idempotency_record where idempotency_key = ? and response is null", key);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.idempotency.db.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update(
+                "delete from idempotency_record where created_at < current_timestamp - interval ? second", ttlSeconds);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private Map<String, Object> read(String json) {
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable idempotent response", ex);
+        }
+    }
+}
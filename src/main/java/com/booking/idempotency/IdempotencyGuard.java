@@ -0,0 +1,160 @@
+package com.booking.idempotency;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.booking.cache.LocalTtlCache;
+import com.booking.metrics.StatsSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+// Runs a booking at most once per Idempotency-Key. The first request claims the key in memory
+// (and in the shared store when enabled). Duplicates arriving while it runs wait for its result,
+// and later retries get the stored response back without calling the action again.
+// FAILED responses and exceptions give the key up, so the client can retry for real.
+@Component
+public class IdempotencyGuard implements StatsSource {
+
+    public static final int MAX_KEY_LENGTH = 128;
+
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    public record Outcome(Map<String, Object> body, boolean replayed) {}
+
+    private record Claim(String fingerprint, CompletableFuture<Map<String, Object>> response) {}
+
+    private final LocalTtlCache<String, Claim> claims;
+    private final IdempotencyStore store;
+    private final Duration waitTimeout;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder released = new LongAdder();
+
+    public IdempotencyGuard(Optional<IdempotencyStore> store,
+                            @Value("${booking.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${booking.idempotency.max-keys:100000}") int maxKeys,
+                            @Value("${booking.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.claims = new LocalTtlCache<>(ttl, maxKeys);
+        this.store = store.orElse(null);
+        this.waitTimeout = waitTimeout;
+    }
+
+    public Outcome execute(String key, String fingerprint, Supplier<Map<String, Object>> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        Claim mine = new Claim(fingerprint, new CompletableFuture<>());
+        Claim existing = claims.putIfAbsent(key, mine);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) throw keyReused();
+            Map<String, Object> body = await(existing.response());
+            replays.increment();
+            return new Outcome(body, true);
+        }
+
+        boolean claimedInStore = false;
+        Map<String, Object> body;
+        try {
+            if (store != null) {
+                Map<String, Object> stored = store.claim(key, fingerprint, waitTimeout);
+                if (stored != null) {
+                    mine.response().complete(stored);
+                    replays.increment();
+                    return new Outcome(stored, true);
+                }
+                claimedInStore = true;
+            }
+            executions.increment();
+            body = action.get();
+        } catch (RuntimeException | Error ex) {
+            giveUp(key, mine, claimedInStore);
+            mine.response().completeExceptionally(ex);
+            throw ex;
+        }
+
+        if ("FAILED".equals(body.get("status"))) {
+            giveUp(key, mine, claimedInStore);
+        } else if (claimedInStore) {
+            store.complete(key, body);
+        }
+        mine.response().complete(body);
+        return new Outcome(body, false);
+    }
+
+    private void giveUp(String key, Claim mine, boolean claimedInStore) {
+        released.increment();
+        claims.invalidate(key, mine);
+        if (claimedInStore) store.release(key);
+    }
+
+    private Map<String, Object> await(CompletableFuture<Map<String, Object>> response) {
+        try {
+            return response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw stillInProgress();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw stillInProgress();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            if (ex.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    // Scope plus the SHA-256 of the body as canonical JSON (properties and map keys sorted), so a
+    // retry with the same content matches whatever the client's field order was.
+    public static String fingerprint(String scope, Object body) {
+        try {
+            byte[] json = CANONICAL_JSON.writeValueAsBytes(body);
+            return scope + ":" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not fingerprint request", ex);
+        }
+    }
+
+    static RuntimeException keyReused() {
+        return new RuntimeException("Idempotency-Key was already used for a different request");
+    }
+
+    static RuntimeException stillInProgress() {
+        return new RuntimeException("A request with this Idempotency-Key is still in progress");
+    }
+
+    @Override
+    public String statsName() {
+        return "idempotency";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("keys", claims.size());
+        s.put("executions", executions.sum());
+        s.put("replays", replays.sum());
+        s.put("released", released.sum());
+        s.put("sharedStore", store != null);
+        return s;
+    }
+}
@@ -0,0 +1,18 @@
+package com.booking.idempotency;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Shared second level behind IdempotencyGuard, so a retry that lands on another instance is
+// still answered from the first attempt.
+public interface IdempotencyStore {
+
+    // Claims the key for this caller and returns null, or returns the stored response of an
+    // earlier attempt, waiting up to maxWait while another instance is still working on it.
+    Map<String, Object> claim(String key, String fingerprint, Duration maxWait);
+
+    void complete(String key, Map<String, Object> response);
+
+    // Gives up a claim without a response, so the client's next retry runs again.
+    void release(String key);
+}
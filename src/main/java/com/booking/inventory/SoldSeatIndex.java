@@ -0,0 +1,204 @@
+package com.booking.inventory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.booking.hold.SeatCodec;
+import com.booking.metrics.StatsSource;
+import com.booking.repositories.BookingRepository;
+import com.booking.repositories.FlightSeatRow;
+
+// Seats of CONFIRMED bookings on upcoming flights, one bit per SeatCodec index: 32 longs (256 bytes)
+// per flight, so 10k flights are a few MB. Lets bookings for seats we already sold fail before any
+// flight-service call. It is only ever used to refuse, never to accept: a seat missing here (sold
+// by another instance, label outside the seat map, flight beyond maxFlights) just goes on to the
+// remote check. A set bit is only a hint, since the seat may have been cancelled on another
+// instance: anySold confirms it with one indexed query before refusing and clears it if it is stale.
+@Component
+public class SoldSeatIndex implements StatsSource, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SoldSeatIndex.class);
+
+    private static final int WORDS = SeatCodec.MAX_ROWS * SeatCodec.COLUMNS / Long.SIZE;
+
+    private final BookingRepository bookingRepo;
+    private final TransactionTemplate readTx;
+    private final int maxFlights;
+
+    private volatile ConcurrentHashMap<String, AtomicLongArray> flights = new ConcurrentHashMap<>();
+
+    // cancellations that arrive while a rebuild is reading, applied to the new map before the swap
+    private final Object rebuildLock = new Object();
+    private List<Map.Entry<String, Collection<String>>> clearedDuringRebuild;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder overflow = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    @Autowired
+    public SoldSeatIndex(BookingRepository bookingRepo, PlatformTransactionManager txManager,
+                         @Value("${booking.sold-seats.max-flights:20000}") int maxFlights) {
+        this.bookingRepo = bookingRepo;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+        this.maxFlights = maxFlights;
+    }
+
+    // local only, nothing is loaded from the database
+    public SoldSeatIndex(int maxFlights) {
+        this.bookingRepo = null;
+        this.readTx = null;
+        this.maxFlights = maxFlights;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    // True when one of the seats is sold on this flight. The bitmap answers most calls; a hit is
+    // checked against the database, and if that fails the seats go on to the remote check.
+    public boolean anySold(String flightId, Collection<String> seats) {
+        if (!mightBeSold(flightId, seats)) return false;
+        if (bookingRepo != null) {
+            List<String> sold;
+            try {
+                sold = bookingRepo.findSoldSeats(flightId, seats);
+            } catch (DataAccessException ex) {
+                return false;
+            }
+            if (sold.isEmpty()) {
+                // cancelled on another instance since the last rebuild
+                stale.increment();
+                markFree(flightId, seats);
+                return false;
+            }
+        }
+        rejected.increment();
+        return true;
+    }
+
+    // Bitmap only, no database: false means none of the seats is sold as far as this instance knows.
+    public boolean mightBeSold(String flightId, Collection<String> seats) {
+        AtomicLongArray sold = flights.get(flightId);
+        if (sold == null) return false;
+        for (String seat : seats) {
+            int bit = SeatCodec.encode(seat);
+            if (bit >= 0 && (sold.get(bit >>> 6) & (1L << bit)) != 0) return true;
+        }
+        return false;
+    }
+
+    // after the booking committed
+    public void markSold(String flightId, Collection<String> seats) {
+        markSold(flights, flightId, seats);
+    }
+
+    public void markFree(String flightId, Collection<String> seats) {
+        synchronized (rebuildLock) {
+            if (clearedDuringRebuild != null) clearedDuringRebuild.add(Map.entry(flightId, List.copyOf(seats)));
+        }
+        markFree(flights, flightId, seats);
+    }
+
+    // Reloads every upcoming flight into a fresh map and swaps it in; drops departed flights and
+    // picks up what other instances booked or cancelled since the last rebuild.
+    @Scheduled(initialDelayString = "${booking.sold-seats.rebuild-interval-ms:300000}",
+            fixedDelayString = "${booking.sold-seats.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        if (bookingRepo == null) return;
+        synchronized (rebuildLock) {
+            clearedDuringRebuild = new ArrayList<>();
+        }
+        ConcurrentHashMap<String, AtomicLongArray> fresh = new ConcurrentHashMap<>();
+        try {
+            readTx.executeWithoutResult(status -> {
+                try (Stream<FlightSeatRow> rows = bookingRepo.streamSoldSeats(LocalDateTime.now())) {
+                    rows.forEach(row -> markSold(fresh, row.flightId(), List.of(row.seat())));
+                }
+            });
+        } catch (DataAccessException | TransactionException ex) {
+            // keep serving the old map; it only ever refuses seats that were sold
+            log.warn("Could not rebuild the sold-seat index: {}", ex.getMessage());
+            synchronized (rebuildLock) {
+                clearedDuringRebuild = null;
+            }
+            return;
+        }
+        synchronized (rebuildLock) {
+            for (Map.Entry<String, Collection<String>> e : clearedDuringRebuild) markFree(fresh, e.getKey(), e.getValue());
+            clearedDuringRebuild = null;
+            flights = fresh;
+        }
+        rebuilds.increment();
+        log.info("Sold-seat index rebuilt: {} flights", fresh.size());
+    }
+
+    private void markSold(ConcurrentHashMap<String, AtomicLongArray> map, String flightId, Collection<String> seats) {
+        AtomicLongArray sold = map.get(flightId);
+        if (sold == null) {
+            if (map.size() >= maxFlights) {
+                overflow.increment();
+                return;
+            }
+            sold = map.computeIfAbsent(flightId, f -> new AtomicLongArray(WORDS));
+        }
+        for (String seat : seats) {
+            int bit = SeatCodec.encode(seat);
+            if (bit < 0) continue;
+            long mask = 1L << bit;
+            sold.getAndUpdate(bit >>> 6, w -> w | mask);
+        }
+    }
+
+    private static void markFree(ConcurrentHashMap<String, AtomicLongArray> map, String flightId, Collection<String> seats) {
+        AtomicLongArray sold = map.get(flightId);
+        if (sold == null) return;
+        for (String seat : seats) {
+            int bit = SeatCodec.encode(seat);
+            if (bit < 0) continue;
+            long mask = 1L << bit;
+            sold.getAndUpdate(bit >>> 6, w -> w & ~mask);
+        }
+    }
+
+    @Override
+    public String statsName() {
+        return "soldSeats";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        int size = flights.size();
+        s.put("flights", size);
+        // AtomicLongArray + its long[], plus a map node and a short flight id string per entry
+        s.put("approxBytes", (long) size * (16 + 16 + WORDS * Long.BYTES + 32 + 56));
+        s.put("rejected", rejected.sum());
+        s.put("stale", stale.sum());
+        s.put("overflow", overflow.sum());
+        s.put("rebuilds", rebuilds.sum());
+        return s;
+    }
+}
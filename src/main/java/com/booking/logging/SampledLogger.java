@@ -0,0 +1,77 @@
+package com.booking.logging;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+
+// Rate limit per message type for log lines a failure storm can repeat thousands of times a second
+// (fallbacks, compensations). Each type gets permitsPerSecond lines per second; the rest are only
+// counted, and the next line of that type that gets through carries suppressed=N. Lines are
+// structured: every one has type=..., callers add their own fields with addKeyValue.
+//
+//   flightLog.atWarn("reserveSeats.shortCircuited").setMessage("Flight call fell back")
+//           .addKeyValue("flightId", flightId).log();
+public final class SampledLogger {
+
+    private final Logger log;
+    private final int permitsPerSecond;
+    private final ConcurrentHashMap<String, Budget> budgets = new ConcurrentHashMap<>();
+
+    public SampledLogger(Logger log, int permitsPerSecond) {
+        this.log = log;
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public LoggingEventBuilder atWarn(String type) {
+        return at(Level.WARN, type);
+    }
+
+    public LoggingEventBuilder atError(String type) {
+        return at(Level.ERROR, type);
+    }
+
+    public LoggingEventBuilder atInfo(String type) {
+        return at(Level.INFO, type);
+    }
+
+    public long suppressed(String type) {
+        Budget b = budgets.get(type);
+        return b == null ? 0 : b.suppressedTotal.get();
+    }
+
+    private LoggingEventBuilder at(Level level, String type) {
+        if (!log.isEnabledForLevel(level)) return NOPLoggingEventBuilder.singleton();
+        Budget budget = budgets.computeIfAbsent(type, t -> new Budget());
+        if (!budget.tryAcquire(System.nanoTime(), permitsPerSecond)) {
+            budget.suppressed.incrementAndGet();
+            budget.suppressedTotal.incrementAndGet();
+            return NOPLoggingEventBuilder.singleton();
+        }
+        LoggingEventBuilder event = log.atLevel(level).addKeyValue("type", type);
+        long dropped = budget.suppressed.getAndSet(0);
+        return dropped > 0 ? event.addKeyValue("suppressed", dropped) : event;
+    }
+
+    private static final class Budget {
+        private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        final AtomicInteger used = new AtomicInteger();
+        final AtomicLong suppressed = new AtomicLong();
+        final AtomicLong suppressedTotal = new AtomicLong();
+
+        boolean tryAcquire(long now, int permits) {
+            long start = windowStart.get();
+            if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+                used.set(0);
+            }
+            return used.incrementAndGet() <= permits;
+        }
+    }
+}
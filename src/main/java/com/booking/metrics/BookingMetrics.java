@@ -0,0 +1,83 @@
+package com.booking.metrics;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+// Stage timers for the booking and cancel paths (booking.stage{flow,stage}) and one timer per
+// request outcome (booking.requests{flow,outcome}), all with percentile histograms for Prometheus.
+// Publish is the outbox write, so it also counts inside persist. Timers are resolved once, so a
+// stage costs a nanoTime and a histogram update.
+@Component
+public class BookingMetrics {
+
+    public enum Stage {
+        VALIDATION("book", "validation"),
+        FLIGHT_INFO("book", "flightInfo"),
+        SEAT_CHECK("book", "seatCheck"),
+        RESERVE("book", "reserve"),
+        PERSIST("book", "persist"),
+        PUBLISH("book", "publish"),
+        CANCEL_LOOKUP("cancel", "lookup"),
+        CANCEL_PERSIST("cancel", "persist"),
+        CANCEL_ENQUEUE("cancel", "enqueueRelease");
+
+        final String flow;
+        final String stage;
+
+        Stage(String flow, String stage) {
+            this.flow = flow;
+            this.stage = stage;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Map<String, Timer> requests = new ConcurrentHashMap<>();
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage s : Stage.values()) {
+            stages.put(s, histogram(Timer.builder("booking.stage"))
+                    .description("Time spent in one stage of a booking or cancellation")
+                    .tag("flow", s.flow)
+                    .tag("stage", s.stage)
+                    .register(registry));
+        }
+    }
+
+    // a registry without children: every meter is a no-op, for tests and benchmarks
+    public static BookingMetrics noop() {
+        return new BookingMetrics(new CompositeMeterRegistry());
+    }
+
+    // Records the stage that began at startNanos and returns now, the start of the next stage.
+    public long stage(Stage stage, long startNanos) {
+        long now = System.nanoTime();
+        stages.get(stage).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void request(String flow, String outcome, long startNanos) {
+        requests.computeIfAbsent(flow + ':' + outcome, k -> histogram(Timer.builder("booking.requests"))
+                        .description("End-to-end booking and cancel requests by outcome")
+                        .tag("flow", flow)
+                        .tag("outcome", outcome)
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static Timer.Builder histogram(Timer.Builder builder) {
+        return builder.publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,9 @@
+package com.booking.metrics;
+
+import java.util.Map;
+
+// Components that keep their own counters implement this so they show up under /api/flight/internal/stats.
+public interface StatsSource {
+    String statsName();
+    Map<String, Object> stats();
+}
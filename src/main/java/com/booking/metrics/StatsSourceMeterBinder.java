@@ -0,0 +1,89 @@
+package com.booking.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Every numeric value under /api/flight/internal/stats also becomes a gauge,
+// booking.internal.stats{source,key} with nested maps flattened to dotted keys ("flightInfo.limit").
+// Keys are taken when the registry binds. The gauges of one source share a snapshot of its stats()
+// that is reused for up to a second, so a scrape takes one snapshot per source, not one per key.
+@Component
+public class StatsSourceMeterBinder implements MeterBinder {
+
+    private static final long MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ObjectProvider<StatsSource> sources;
+
+    public StatsSourceMeterBinder(ObjectProvider<StatsSource> sources) {
+        this.sources = sources;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        sources.orderedStream().forEach(source -> {
+            Snapshot snapshot = new Snapshot(source);
+            for (String key : snapshot.values().keySet()) {
+                // the snapshot is only referenced from here, a weak reference would read NaN after a GC
+                Gauge.builder("booking.internal.stats", snapshot, s -> s.value(key))
+                        .strongReference(true)
+                        .tag("source", source.statsName())
+                        .tag("key", key)
+                        .register(registry);
+            }
+        });
+    }
+
+    private static final class Snapshot {
+        private final StatsSource source;
+        private volatile Taken taken;
+
+        private record Taken(long atNanos, Map<String, Number> values) {
+        }
+
+        Snapshot(StatsSource source) {
+            this.source = source;
+        }
+
+        // two gauges racing past the age check may both take one; either result is fine
+        Map<String, Number> values() {
+            long now = System.nanoTime();
+            Taken t = taken;
+            if (t == null || now - t.atNanos() > MAX_AGE_NANOS) {
+                t = new Taken(now, flatten(source.stats()));
+                taken = t;
+            }
+            return t.values();
+        }
+
+        double value(String key) {
+            Number n = values().get(key);
+            return n == null ? Double.NaN : n.doubleValue();
+        }
+    }
+
+    static Map<String, Number> flatten(Map<String, Object> stats) {
+        Map<String, Number> out = new LinkedHashMap<>();
+        flatten("", stats, out);
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void flatten(String prefix, Map<String, Object> stats, Map<String, Number> out) {
+        for (Map.Entry<String, Object> e : stats.entrySet()) {
+            String key = prefix + e.getKey();
+            if (e.getValue() instanceof Number n) {
+                out.put(key, n);
+            } else if (e.getValue() instanceof Map<?, ?> nested) {
+                flatten(key + ".", (Map<String, Object>) nested, out);
+            }
+        }
+    }
+}
@@ -14,16 +14,24 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_booking_email_id", columnList = "email, id"),
+        @Index(name = "idx_booking_flight_id", columnList = "flightId, id"),
+        @Index(name = "idx_booking_journey", columnList = "timeOfJourney") })
 @Data
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = IdBlocks.ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true)
@@ -0,0 +1,11 @@
+package com.booking.model;
+
+// Ids are handed out in pooled blocks from a per-entity table (MySQL has no sequences, so Hibernate
+// emulates each @SequenceGenerator with a one-row table). Unlike IDENTITY this lets Hibernate
+// batch the inserts, and each instance only touches the table once per block.
+public final class IdBlocks {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdBlocks() {}
+}
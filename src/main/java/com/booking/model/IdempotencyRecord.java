@@ -0,0 +1,31 @@
+package com.booking.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Response of a booking request made with an Idempotency-Key. response stays null while the
+// first attempt is still running.
+@Entity
+@Table(name = "idempotency_record")
+@Data
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 128)
+    private String idempotencyKey;
+
+    private String fingerprint;
+
+    @Column(length = 4000)
+    private String response;
+
+    private LocalDateTime createdAt;
+
+    // when the current attempt took the key; another node may take it over once this is too old
+    private LocalDateTime claimedAt;
+}
@@ -0,0 +1,44 @@
+package com.booking.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Message waiting to be relayed to RabbitMQ. Written in the same transaction as the booking,
+// deleted by OutboxRelay once the broker has confirmed it.
+@Entity
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_due", columnList = "status, nextAttemptAt"))
+@Data
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = IdBlocks.ALLOCATION_SIZE)
+    private Long id;
+
+    private String aggregateId;
+    private String exchange;
+    private String routingKey;
+    private String payloadType;
+
+    @Column(length = 4000)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxEventStatus status;
+
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,4 @@
+package com.booking.model;
+
+// FAILED: gave up after booking.outbox.max-attempts, left for an operator to requeue
+public enum OutboxEventStatus { PENDING, FAILED }
@@ -4,13 +4,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Data;
 
 @Entity
 @Data
 public class Passenger {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "passenger_seq")
+    @SequenceGenerator(name = "passenger_seq", sequenceName = "passenger_seq", allocationSize = IdBlocks.ALLOCATION_SIZE)
     private Long id;
     private String name;
     private String gender;
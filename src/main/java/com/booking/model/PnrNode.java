@@ -0,0 +1,26 @@
+package com.booking.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Lease on one of the PNR node ids. A running instance owns exactly one row and keeps pushing
+// leaseUntil forward; an expired row can be taken over by the next instance that starts, once its
+// own clock is past pnrUntilMillis.
+@Entity
+@Table(name = "pnr_node")
+@Data
+public class PnrNode {
+
+    @Id
+    private Integer nodeId;
+
+    private String owner;
+    private LocalDateTime leaseUntil;
+
+    // owner's local clock: its PNRs carry no second later than this
+    private Long pnrUntilMillis;
+}
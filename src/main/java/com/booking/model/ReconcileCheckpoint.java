@@ -0,0 +1,24 @@
+package com.booking.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Where the seat reconciliation sweep got to (flights are visited in flightId order) and which
+// instance is running it. Only the lease owner moves lastFlightId; an expired lease can be taken over.
+@Entity
+@Table(name = "reconcile_checkpoint")
+@Data
+public class ReconcileCheckpoint {
+
+    @Id
+    private String name;
+
+    private String lastFlightId;
+    private long sweeps;
+    private String owner;
+    private LocalDateTime leaseUntil;
+}
@@ -0,0 +1,60 @@
+package com.booking.model;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// Seats a cancellation still owes FLIGHT-MICROSERVICE. Written in the cancel transaction, deleted
+// by SeatReleaseWorker once the flight service has released them.
+@Entity
+@Table(name = "seat_release", indexes = @Index(name = "idx_seat_release_due", columnList = "status, nextAttemptAt"))
+@Data
+public class SeatRelease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_release_seq")
+    @SequenceGenerator(name = "seat_release_seq", sequenceName = "seat_release_seq", allocationSize = IdBlocks.ALLOCATION_SIZE)
+    private Long id;
+
+    private String flightId;
+    private String pnr;
+
+    // comma separated, the release is always for the whole list
+    @Column(length = 1000)
+    private String seats;
+
+    @Enumerated(EnumType.STRING)
+    private SeatReleaseStatus status;
+
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private String lastError;
+    private LocalDateTime createdAt;
+
+    public static SeatRelease pending(Booking b, LocalDateTime now) {
+        SeatRelease r = new SeatRelease();
+        r.setFlightId(b.getFlightId());
+        r.setPnr(b.getPnr());
+        r.setSeats(String.join(",", b.getSeatNumbers()));
+        r.setStatus(SeatReleaseStatus.PENDING);
+        r.setNextAttemptAt(now);
+        r.setCreatedAt(now);
+        return r;
+    }
+
+    public List<String> seatList() {
+        return seats == null || seats.isEmpty() ? List.of() : Arrays.asList(seats.split(","));
+    }
+}
@@ -0,0 +1,4 @@
+package com.booking.model;
+
+// DEAD: gave up after booking.seat-release.max-attempts, left for an operator to requeue
+public enum SeatReleaseStatus { PENDING, DEAD }
@@ -0,0 +1,122 @@
+package com.booking.pnr;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+import org.springframework.stereotype.Component;
+
+// 11-character PNRs that are unique by construction: seconds since 2025-01-01 (30 bits), node id
+// leased per instance (8 bits), stripe (4 bits) and a per-second sequence (13 bits), written in a
+// 32-letter airline-style alphabet without 0/O/1/I. Threads are spread over padded stripes, so
+// generation is one uncontended CAS and no allocation besides the String itself. A leased node id
+// comes with the time its lease is known to hold; next() refuses once fewer than MAX_AHEAD_SECONDS
+// of it are left, so nothing this instance produced can collide with the id's next owner.
+@Component
+public class PnrGenerator {
+
+    public static final int MAX_NODES = 1 << 8;
+    public static final int LENGTH = 11;
+
+    static final char[] ALPHABET = "23456789ABCDEFGHJKLMNPQRSTUVWXYZ".toCharArray();
+    static final long EPOCH_MILLIS = 1735689600000L; // 2025-01-01T00:00:00Z
+
+    private static final int STRIPES = 16;
+    private static final int SEQ_BITS = 13;
+    private static final long SEQ_MAX = (1L << SEQ_BITS) - 1;
+    private static final int PAD = 8; // one stripe per 64-byte cache line
+    // A busy stripe may borrow future seconds, but never further than this. Node leases last
+    // longer, so a node id is never reused while its old owner's PNRs are still "in the future".
+    static final long MAX_AHEAD_SECONDS = 60;
+
+    private record Lease(int nodeId, long generateUntilMillis) {}
+
+    private final AtomicLongArray stripes = new AtomicLongArray(STRIPES * PAD);
+    private final LongSupplier clockMillis;
+    private volatile Lease lease;
+
+    public PnrGenerator() {
+        this.clockMillis = System::currentTimeMillis;
+    }
+
+    public PnrGenerator(int nodeId, LongSupplier clockMillis) {
+        this.clockMillis = clockMillis;
+        assignNode(nodeId);
+    }
+
+    // operator-assigned id, never expires
+    public void assignNode(int nodeId) {
+        assignNode(nodeId, Long.MAX_VALUE);
+    }
+
+    // leaseUntilMillis: this generator's clock time up to which the database lease surely holds
+    public void assignNode(int nodeId, long leaseUntilMillis) {
+        if (nodeId < 0 || nodeId >= MAX_NODES) {
+            throw new IllegalArgumentException("PNR node id must be in [0, " + MAX_NODES + "): " + nodeId);
+        }
+        long until = leaseUntilMillis == Long.MAX_VALUE ? Long.MAX_VALUE : leaseUntilMillis - MAX_AHEAD_SECONDS * 1000;
+        this.lease = new Lease(nodeId, until);
+    }
+
+    // after a renewal of the same node's lease
+    public void extendLease(int nodeId, long leaseUntilMillis) {
+        Lease current = lease;
+        if (current != null && current.nodeId() == nodeId) assignNode(nodeId, leaseUntilMillis);
+    }
+
+    public int nodeId() {
+        Lease current = lease;
+        return current == null ? -1 : current.nodeId();
+    }
+
+    public String next() {
+        Lease current = lease;
+        if (current == null) throw new IllegalStateException("PNR node id not assigned yet");
+        long nowMillis = clockMillis.getAsLong();
+        if (nowMillis > current.generateUntilMillis()) {
+            throw new IllegalStateException("PNR node " + current.nodeId() + " lease is not confirmed, refusing to generate");
+        }
+        int node = current.nodeId();
+        int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        int slot = stripe * PAD;
+        long now = toSecond(nowMillis);
+        for (;;) {
+            long cur = stripes.get(slot);
+            long sec = cur >>> SEQ_BITS;
+            long next;
+            if (now > sec) {
+                next = now << SEQ_BITS;
+            } else if ((cur & SEQ_MAX) < SEQ_MAX) {
+                next = cur + 1;
+            } else {
+                next = (sec + 1) << SEQ_BITS;
+            }
+            if ((next >>> SEQ_BITS) - now > MAX_AHEAD_SECONDS) {
+                LockSupport.parkNanos(1_000_000L);
+                now = currentSecond();
+                continue;
+            }
+            if (stripes.compareAndSet(slot, cur, next)) {
+                long value = ((next >>> SEQ_BITS) << 25) | ((long) node << 17) | ((long) stripe << SEQ_BITS) | (next & SEQ_MAX);
+                return encode(value);
+            }
+        }
+    }
+
+    private long currentSecond() {
+        return toSecond(clockMillis.getAsLong());
+    }
+
+    private static long toSecond(long millis) {
+        return Math.max(0, (millis - EPOCH_MILLIS) / 1000);
+    }
+
+    static String encode(long value) {
+        char[] out = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,140 @@
+package com.booking.pnr;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+
+// Gives every running instance its own PNR node id by leasing a row in pnr_node. Lease times use
+// the database clock, so instance clock skew does not matter for who owns an id. The lease outlives
+// the generator's borrow window (PnrGenerator.MAX_AHEAD_SECONDS), so a node id is only handed to a
+// new instance once its previous owner has stopped generating. The seconds inside a PNR come from
+// the owner's local clock, though, so the row also keeps pnr_until_millis: the owner's local time
+// up to which its PNRs may reach. An instance only claims an id once that time is more than a
+// second behind its own clock; with a clock running behind the previous owner's it skips to another
+// id instead of reusing (second, node) pairs. The leased id is also published as Eureka metadata
+// ("pnrNode") to make it visible next to the instance. Each claim or renewal tells the generator
+// how long the lease holds, counted from just before the statement ran, so an instance that cannot
+// renew (DB outage, long pause) stops generating before the id is free.
+@Component
+public class PnrNodeRegistry implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PnrNodeRegistry.class);
+
+    static final String METADATA_KEY = "pnrNode";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PnrGenerator generator;
+    private final ObjectProvider<ApplicationInfoManager> eureka;
+    private final int fixedNodeId;
+    private final long leaseSeconds;
+    private final String owner = UUID.randomUUID().toString();
+
+    public PnrNodeRegistry(JdbcTemplate jdbcTemplate,
+                           PnrGenerator generator,
+                           ObjectProvider<ApplicationInfoManager> eureka,
+                           @Value("${booking.pnr.node-id:-1}") int fixedNodeId,
+                           @Value("${booking.pnr.lease-seconds:120}") long leaseSeconds) {
+        if (leaseSeconds <= PnrGenerator.MAX_AHEAD_SECONDS) {
+            throw new IllegalArgumentException("booking.pnr.lease-seconds must be longer than "
+                    + PnrGenerator.MAX_AHEAD_SECONDS + "s");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.generator = generator;
+        this.eureka = eureka;
+        this.fixedNodeId = fixedNodeId;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (fixedNodeId >= 0) {
+            // operator-assigned id, e.g. for a single instance without the pnr_node table
+            generator.assignNode(fixedNodeId);
+        } else {
+            long asked = System.currentTimeMillis();
+            generator.assignNode(claimNode(asked), leaseUntil(asked));
+        }
+        publish(generator.nodeId());
+    }
+
+    @Scheduled(fixedDelayString = "${booking.pnr.renew-interval-ms:30000}")
+    public void renew() {
+        if (fixedNodeId >= 0) return;
+        int node = generator.nodeId();
+        long asked = System.currentTimeMillis();
+        try {
+            int updated = jdbcTemplate.update(
+                    "update pnr_node set lease_until = current_timestamp + interval ? second, pnr_until_millis = ? "
+                            + "where node_id = ? and owner = ?",
+                    leaseSeconds, leaseUntil(asked), node, owner);
+            if (updated == 0) {
+                // lease lapsed (e.g. long GC pause or DB outage) and someone else may own it now
+                log.warn("Lost lease on PNR node {}, claiming a new one", node);
+                asked = System.currentTimeMillis();
+                generator.assignNode(claimNode(asked), leaseUntil(asked));
+                publish(generator.nodeId());
+            } else {
+                generator.extendLease(node, leaseUntil(asked));
+            }
+        } catch (DataAccessException ex) {
+            // the generator keeps going on the last confirmed lease and stops when that runs out
+            log.warn("Could not renew PNR node {}: {}", node, ex.getMessage());
+        }
+    }
+
+    // Start at a random id so instances booting together do not all race for node 0.
+    int claimNode(long askedMillis) {
+        int start = ThreadLocalRandom.current().nextInt(PnrGenerator.MAX_NODES);
+        for (int i = 0; i < PnrGenerator.MAX_NODES; i++) {
+            int node = (start + i) % PnrGenerator.MAX_NODES;
+            if (tryClaim(node, askedMillis)) {
+                log.info("Leased PNR node {}", node);
+                return node;
+            }
+        }
+        throw new IllegalStateException("No free PNR node id, all " + PnrGenerator.MAX_NODES + " are leased");
+    }
+
+    // pnr_until_millis is null on rows written before it existed
+    private boolean tryClaim(int node, long askedMillis) {
+        long pnrUntil = leaseUntil(askedMillis);
+        int taken = jdbcTemplate.update(
+                "update pnr_node set owner = ?, lease_until = current_timestamp + interval ? second, pnr_until_millis = ? "
+                        + "where node_id = ? and lease_until < current_timestamp "
+                        + "and (pnr_until_millis is null or pnr_until_millis < ?)",
+                owner, leaseSeconds, pnrUntil, node, askedMillis - 1000);
+        if (taken > 0) return true;
+        try {
+            return jdbcTemplate.update(
+                    "insert into pnr_node (node_id, owner, lease_until, pnr_until_millis) "
+                            + "values (?, ?, current_timestamp + interval ? second, ?)",
+                    node, owner, leaseSeconds, pnrUntil) > 0;
+        } catch (DuplicateKeyException ex) {
+            return false; // row exists and its lease, or its previous owner's PNR seconds, are still live
+        }
+    }
+
+    // current_timestamp may be truncated to whole seconds, so one second less than the lease. Also the
+    // bound on the PNR seconds this instance can produce under the lease, as the generator stops
+    // MAX_AHEAD_SECONDS before it.
+    private long leaseUntil(long askedMillis) {
+        return askedMillis + (leaseSeconds - 1) * 1000;
+    }
+
+    private void publish(int node) {
+        eureka.ifAvailable(manager -> manager.registerAppMetadata(Map.of(METADATA_KEY, String.valueOf(node))));
+    }
+}
@@ -1,24 +1,65 @@
 package com.booking.publisher;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.booking.config.RabbitConfig;
 import com.booking.events.EmailPayload;
+import com.booking.model.OutboxEvent;
+import com.booking.model.OutboxEventStatus;
+import com.booking.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
+// Writes the email event to the outbox; OutboxRelay does the actual RabbitMQ publish.
+// MANDATORY so the row always commits (or rolls back) together with the booking.
 @Service
 @RequiredArgsConstructor
 public class EmailPublisher {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxRepo;
+    private final ObjectMapper objectMapper;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishEmailEvent(EmailPayload payload) {
-        rabbitTemplate.convertAndSend(
-                com.booking.config.RabbitConfig.EXCHANGE,
-                com.booking.config.RabbitConfig.ROUTING_KEY,
-                payload
-        );
-        System.out.println("Published email event to queue: " + payload);
+        outboxRepo.save(toOutboxEvent(payload));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishEmailEvents(List<EmailPayload> payloads) {
+        List<OutboxEvent> events = new ArrayList<>(payloads.size());
+        for (EmailPayload payload : payloads) {
+            events.add(toOutboxEvent(payload));
+        }
+        outboxRepo.saveAll(events);
+    }
+
+    private OutboxEvent toOutboxEvent(EmailPayload payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateId(payload.getPnr());
+        event.setExchange(RabbitConfig.EXCHANGE);
+        event.setRoutingKey(RabbitConfig.ROUTING_KEY);
+        event.setPayloadType(EmailPayload.class.getName());
+        event.setPayload(toJson(payload));
+        event.setStatus(OutboxEventStatus.PENDING);
+        LocalDateTime now = LocalDateTime.now();
+        event.setNextAttemptAt(now);
+        event.setCreatedAt(now);
+        return event;
+    }
+
+    private String toJson(EmailPayload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize email event for " + payload.getPnr(), e);
+        }
     }
 }
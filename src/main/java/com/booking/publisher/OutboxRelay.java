@@ -0,0 +1,159 @@
+package com.booking.publisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.booking.logging.SampledLogger;
+import com.booking.metrics.StatsSource;
+import com.booking.model.OutboxEvent;
+import com.booking.model.OutboxEventStatus;
+import com.booking.repositories.OutboxEventRepository;
+
+// Drains outbox_event in id order. A batch is claimed in one short transaction (its rows leased by
+// moving nextAttemptAt ahead), sent with no transaction open, and its outcome written in a second
+// one: confirmed rows are deleted, failed ones get attempts bumped and retry after retryDelay.
+// Delivery is at-least-once; a relay that dies mid-batch leaves the rows due again after the lease.
+// Events that failed before are sent one at a time, so a poison message only fails itself, and
+// after maxAttempts it is marked FAILED and no longer relayed.
+@Component
+public class OutboxRelay implements StatsSource {
+
+    private static final SampledLogger FAILURE_LOG = new SampledLogger(LoggerFactory.getLogger(OutboxRelay.class), 1);
+
+    private final OutboxEventRepository outboxRepo;
+    private final OutboxSender sender;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration lease;
+    private final Clock clock;
+
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxRepo, OutboxSender sender, PlatformTransactionManager txManager,
+                       @Value("${booking.outbox.batch-size:100}") int batchSize,
+                       @Value("${booking.outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+                       @Value("${booking.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${booking.outbox.retry-delay:5s}") Duration retryDelay,
+                       @Value("${booking.outbox.lease:60s}") Duration lease) {
+        this(outboxRepo, sender, txManager, batchSize, maxBatchesPerRun, maxAttempts, retryDelay, lease,
+                Clock.systemDefaultZone());
+    }
+
+    public OutboxRelay(OutboxEventRepository outboxRepo, OutboxSender sender, PlatformTransactionManager txManager,
+                       int batchSize, int maxBatchesPerRun, int maxAttempts, Duration retryDelay, Duration lease,
+                       Clock clock) {
+        this.outboxRepo = outboxRepo;
+        this.sender = sender;
+        this.tx = new TransactionTemplate(txManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.lease = lease;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.relay-interval-ms:500}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (relayBatch() < batchSize) return;
+        }
+    }
+
+    // Must not run inside a transaction, the publish and confirm wait would hold the row locks.
+    // Returns how many events were taken, or 0 when any of them failed so the run stops.
+    public int relayBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<OutboxEvent> batch = tx.execute(status -> claim(now));
+        if (batch == null || batch.isEmpty()) return 0;
+
+        List<OutboxEvent> fresh = new ArrayList<>();
+        List<OutboxEvent> retried = new ArrayList<>();
+        for (OutboxEvent e : batch) (e.getAttempts() == 0 ? fresh : retried).add(e);
+
+        List<OutboxEvent> sent = new ArrayList<>();
+        List<OutboxEvent> failed = new ArrayList<>();
+        if (!fresh.isEmpty()) send(fresh, now, sent, failed);
+        for (OutboxEvent e : retried) send(List.of(e), now, sent, failed);
+
+        tx.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) outboxRepo.deleteAllInBatch(sent);
+            if (!failed.isEmpty()) outboxRepo.saveAll(failed);
+        });
+        relayed.add(sent.size());
+        return failed.isEmpty() ? batch.size() : 0;
+    }
+
+    // SKIP LOCKED keeps concurrent claims disjoint; the lease keeps the rows out of lockNextBatch
+    // once this transaction commits and the locks are gone.
+    private List<OutboxEvent> claim(LocalDateTime now) {
+        List<OutboxEvent> batch = outboxRepo.lockNextBatch(now, PageRequest.of(0, batchSize));
+        if (!batch.isEmpty()) {
+            outboxRepo.lease(batch.stream().map(OutboxEvent::getId).toList(), now.plus(lease));
+        }
+        return batch;
+    }
+
+    private void send(List<OutboxEvent> events, LocalDateTime now, List<OutboxEvent> sent, List<OutboxEvent> failed) {
+        try {
+            sender.send(events);
+            sent.addAll(events);
+        } catch (RuntimeException ex) {
+            failedBatches.increment();
+            String error = String.valueOf(ex.getMessage());
+            for (OutboxEvent e : events) markFailed(e, error, now);
+            failed.addAll(events);
+            FAILURE_LOG.atWarn("outboxRelay.failed")
+                    .setMessage("Outbox relay failed, events stay queued")
+                    .addKeyValue("events", events.size())
+                    .addKeyValue("error", error)
+                    .log();
+        }
+    }
+
+    private void markFailed(OutboxEvent e, String error, LocalDateTime now) {
+        e.setAttempts(e.getAttempts() + 1);
+        e.setLastError(error.length() > 255 ? error.substring(0, 255) : error);
+        if (e.getAttempts() >= maxAttempts) {
+            e.setStatus(OutboxEventStatus.FAILED);
+            deadLettered.increment();
+            return;
+        }
+        e.setNextAttemptAt(now.plus(retryDelay));
+    }
+
+    @Override
+    public String statsName() {
+        return "outboxRelay";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("relayed", relayed.sum());
+        s.put("failedBatches", failedBatches.sum());
+        s.put("deadLettered", deadLettered.sum());
+        return s;
+    }
+}
@@ -0,0 +1,10 @@
+package com.booking.publisher;
+
+import java.util.List;
+
+import com.booking.model.OutboxEvent;
+
+// Transport used by OutboxRelay. send must only return once the broker has accepted the whole batch.
+public interface OutboxSender {
+    void send(List<OutboxEvent> batch);
+}
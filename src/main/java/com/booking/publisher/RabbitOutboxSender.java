@@ -0,0 +1,47 @@
+package com.booking.publisher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.booking.model.OutboxEvent;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class RabbitOutboxSender implements OutboxSender {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${booking.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    // One channel for the whole batch, then a single wait for publisher confirms
+    // (needs spring.rabbitmq.publisher-confirm-type=simple).
+    @Override
+    public void send(List<OutboxEvent> batch) {
+        rabbitTemplate.invoke(ops -> {
+            for (OutboxEvent e : batch) {
+                ops.send(e.getExchange(), e.getRoutingKey(), toMessage(e));
+            }
+            ops.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+    }
+
+    private Message toMessage(OutboxEvent e) {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        props.setContentEncoding(StandardCharsets.UTF_8.name());
+        props.setMessageId(String.valueOf(e.getId()));
+        // same type header Jackson2JsonMessageConverter wrote, so consumers are unaffected
+        props.setHeader("__TypeId__", e.getPayloadType());
+        return new Message(e.getPayload().getBytes(StandardCharsets.UTF_8), props);
+    }
+}
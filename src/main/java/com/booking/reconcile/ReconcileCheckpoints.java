@@ -0,0 +1,67 @@
+package com.booking.reconcile;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// The reconcile_checkpoint row of one job. Like pnr_node, the lease uses the database clock, so
+// only one instance sweeps at a time and a crashed one is replaced once its lease runs out; the
+// next owner resumes after lastFlightId.
+@Component
+public class ReconcileCheckpoints {
+
+    static final String SEAT_SWEEP = "seat-sweep";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long leaseSeconds;
+    private final String owner = UUID.randomUUID().toString();
+
+    public ReconcileCheckpoints(JdbcTemplate jdbcTemplate,
+                                @Value("${booking.reconcile.lease-seconds:300}") long leaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    // Takes or renews the lease; false while another instance holds it.
+    public boolean tryLease(String name) {
+        int taken = jdbcTemplate.update(
+                "update reconcile_checkpoint set owner = ?, lease_until = current_timestamp + interval ? second "
+                        + "where name = ? and (owner = ? or lease_until < current_timestamp)",
+                owner, leaseSeconds, name, owner);
+        if (taken > 0) return true;
+        try {
+            return jdbcTemplate.update(
+                    "insert into reconcile_checkpoint (name, last_flight_id, sweeps, owner, lease_until) "
+                            + "values (?, '', 0, ?, current_timestamp + interval ? second)",
+                    name, owner, leaseSeconds) > 0;
+        } catch (DuplicateKeyException ex) {
+            return false; // row exists and its lease is still live
+        }
+    }
+
+    public String lastFlightId(String name) {
+        List<String> last = jdbcTemplate.queryForList(
+                "select last_flight_id from reconcile_checkpoint where name = ?", String.class, name);
+        return last.isEmpty() || last.get(0) == null ? "" : last.get(0);
+    }
+
+    // Moves the checkpoint and renews the lease in one statement; false when the lease was lost,
+    // in which case the caller must stop.
+    public boolean advance(String name, String lastFlightId) {
+        return jdbcTemplate.update(
+                "update reconcile_checkpoint set last_flight_id = ?, lease_until = current_timestamp + interval ? second "
+                        + "where name = ? and owner = ?",
+                lastFlightId, leaseSeconds, name, owner) > 0;
+    }
+
+    // Sweep finished: start from the first flight again.
+    public boolean wrap(String name) {
+        return jdbcTemplate.update(
+                "update reconcile_checkpoint set last_flight_id = '', sweeps = sweeps + 1 where name = ? and owner = ?",
+                name, owner) > 0;
+    }
+}
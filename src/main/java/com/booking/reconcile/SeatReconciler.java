@@ -0,0 +1,294 @@
+package com.booking.reconcile;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.booking.cache.FlightInfoCache;
+import com.booking.feign.FlightInventory;
+import com.booking.feign.FlightServiceClient;
+import com.booking.feign.SeatSet;
+import com.booking.logging.SampledLogger;
+import com.booking.metrics.StatsSource;
+import com.booking.model.BookingStatus;
+import com.booking.repositories.BookingRepository;
+import com.booking.repositories.BookingSeatRow;
+import com.booking.repositories.SeatReleaseRepository;
+
+// Walks the upcoming flights that have bookings, a few per run in flightId order, and compares
+// each flight's booking_seat_numbers with FLIGHT-MICROSERVICE's inventory:
+//   - a seat of a CONFIRMED booking that the flight service shows as available is reserved again
+//   - a seat of a CANCELLED booking that no confirmed booking holds, that is not waiting in
+//     seat_release and that the flight service still shows as taken is released
+// Corrections go out as one reserveSeats and one releaseSeats call per flight. Seats are read in
+// keyset pages outside any transaction, with a pause between pages, and the checkpoint moves after
+// every flight so a restarted or replacement instance picks up where this one stopped.
+@Component
+@ConditionalOnProperty(name = "booking.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class SeatReconciler implements StatsSource {
+
+    private static final SampledLogger DRIFT_LOG = new SampledLogger(LoggerFactory.getLogger(SeatReconciler.class), 5);
+
+    // flights with an unconfirmed difference; beyond this new ones wait for a later sweep
+    static final int MAX_SUSPECTS = 10_000;
+
+    private final BookingRepository bookingRepo;
+    private final SeatReleaseRepository releaseRepo;
+    private final FlightServiceClient flightService;
+    private final FlightInfoCache flightInfoCache;
+    private final ReconcileCheckpoints checkpoints;
+    private final int flightsPerRun;
+    private final int pageSize;
+    private final long pauseMillis;
+    private final long graceMillis;
+    private final boolean dryRun;
+    private final LongSupplier clock;
+
+    private final Map<String, Drift> suspects = new ConcurrentHashMap<>();
+
+    private final LongAdder sweeps = new LongAdder();
+    private final LongAdder flightsScanned = new LongAdder();
+    private final LongAdder seatRowsScanned = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder suspected = new LongAdder();
+    private final LongAdder seatsReserved = new LongAdder();
+    private final LongAdder seatsReleased = new LongAdder();
+    private final LongAdder correctionFailures = new LongAdder();
+
+    @Autowired
+    public SeatReconciler(BookingRepository bookingRepo, SeatReleaseRepository releaseRepo,
+                          FlightServiceClient flightService, FlightInfoCache flightInfoCache,
+                          ReconcileCheckpoints checkpoints,
+                          @Value("${booking.reconcile.flights-per-run:20}") int flightsPerRun,
+                          @Value("${booking.reconcile.page-size:500}") int pageSize,
+                          @Value("${booking.reconcile.pause-ms:20}") long pauseMillis,
+                          @Value("${booking.reconcile.grace:5m}") Duration grace,
+                          @Value("${booking.reconcile.dry-run:false}") boolean dryRun) {
+        this(bookingRepo, releaseRepo, flightService, flightInfoCache, checkpoints, flightsPerRun, pageSize,
+                pauseMillis, grace.toMillis(), dryRun, System::currentTimeMillis);
+    }
+
+    public SeatReconciler(BookingRepository bookingRepo, SeatReleaseRepository releaseRepo,
+                          FlightServiceClient flightService, FlightInfoCache flightInfoCache,
+                          ReconcileCheckpoints checkpoints, int flightsPerRun, int pageSize, long pauseMillis,
+                          long graceMillis, boolean dryRun, LongSupplier clock) {
+        this.bookingRepo = bookingRepo;
+        this.releaseRepo = releaseRepo;
+        this.flightService = flightService;
+        this.flightInfoCache = flightInfoCache;
+        this.checkpoints = checkpoints;
+        this.flightsPerRun = flightsPerRun;
+        this.pageSize = pageSize;
+        this.pauseMillis = pauseMillis;
+        this.graceMillis = graceMillis;
+        this.dryRun = dryRun;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.reconcile.interval-ms:30000}")
+    public void run() {
+        runChunk();
+    }
+
+    // One chunk of the sweep; returns how many flights were checked.
+    public int runChunk() {
+        String job = ReconcileCheckpoints.SEAT_SWEEP;
+        if (!checkpoints.tryLease(job)) return 0;
+
+        String after = checkpoints.lastFlightId(job);
+        List<String> flights = bookingRepo.findFlightIdsAfter(after, now(), PageRequest.of(0, flightsPerRun));
+        if (flights.isEmpty()) {
+            if (!after.isEmpty() && checkpoints.wrap(job)) sweeps.increment();
+            return 0;
+        }
+
+        int checked = 0;
+        for (String flightId : flights) {
+            reconcile(flightId);
+            checked++;
+            if (!checkpoints.advance(job, flightId)) break; // lease lost, the new owner carries on
+            pause();
+        }
+        return checked;
+    }
+
+    void reconcile(String flightId) {
+        Set<String> sold = new HashSet<>();
+        Set<String> freed = new HashSet<>();
+        long afterId = 0;
+        String afterSeat = "";
+        List<BookingSeatRow> page;
+        do {
+            page = bookingRepo.findSeatPage(flightId, afterId, afterSeat, PageRequest.of(0, pageSize));
+            for (BookingSeatRow row : page) {
+                (row.status() == BookingStatus.CONFIRMED ? sold : freed).add(row.seat());
+            }
+            seatRowsScanned.add(page.size());
+            if (page.size() == pageSize) {
+                BookingSeatRow last = page.get(page.size() - 1);
+                afterId = last.bookingId();
+                afterSeat = last.seat();
+                pause();
+            }
+        } while (page.size() == pageSize);
+
+        // rebooked seats, and seats SeatReleaseWorker is still releasing, are not ours to free
+        freed.removeAll(sold);
+        for (String seats : releaseRepo.findPendingSeats(flightId)) {
+            Arrays.asList(seats.split(",")).forEach(freed::remove);
+        }
+
+        FlightInventory inventory = flightService.getFlightInfo(flightId);
+        flightsScanned.increment();
+        if (inventory.isUnavailable()) {
+            skipped.increment();
+            return;
+        }
+        if (departed(inventory)) {
+            skipped.increment();
+            suspects.remove(flightId);
+            return;
+        }
+
+        SeatSet available = inventory.availableSeatNumbers();
+        Set<String> toReserve = new TreeSet<>();
+        for (String seat : sold) {
+            if (available.contains(seat)) toReserve.add(seat);
+        }
+        Set<String> toRelease = new TreeSet<>();
+        for (String seat : freed) {
+            if (!available.contains(seat)) toRelease.add(seat);
+        }
+
+        Drift drift = confirm(flightId, new Drift(toReserve, toRelease, clock.getAsLong()));
+        if (drift != null) correct(flightId, drift);
+    }
+
+    private boolean departed(FlightInventory inventory) {
+        if (inventory.startDate() == null) return false;
+        return inventory.startDate().isBefore(now());
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(clock.getAsLong()), ZoneId.systemDefault());
+    }
+
+    // A difference is corrected only once it has been seen on two sweeps at least grace apart, so a
+    // booking or cancellation that is between its flight-service call and its commit is left alone.
+    // Returns the seats to correct, or null.
+    private Drift confirm(String flightId, Drift now) {
+        if (now.isEmpty()) {
+            suspects.remove(flightId);
+            return null;
+        }
+        Drift seen = suspects.get(flightId);
+        Drift both = seen == null ? null : seen.retain(now);
+        if (both == null || both.isEmpty()) {
+            if (suspects.size() < MAX_SUSPECTS || seen != null) {
+                suspects.put(flightId, now);
+                suspected.increment();
+            }
+            return null;
+        }
+        if (now.firstSeen() - both.firstSeen() < graceMillis) {
+            suspects.put(flightId, both);
+            return null;
+        }
+        suspects.remove(flightId);
+        return both;
+    }
+
+    private void correct(String flightId, Drift drift) {
+        DRIFT_LOG.atWarn("reconcile.drift")
+                .setMessage(dryRun ? "Seat drift found (dry run, not corrected)" : "Correcting seat drift")
+                .addKeyValue("flightId", flightId)
+                .addKeyValue("reserve", drift.reserve())
+                .addKeyValue("release", drift.release())
+                .log();
+        if (dryRun) return;
+
+        boolean changed = false;
+        if (!drift.reserve().isEmpty()) {
+            Map<String, Object> resp = flightService.reserveSeats(flightId, Map.of("seatNumbers", List.copyOf(drift.reserve())));
+            if (!Boolean.TRUE.equals(resp.get("fallback")) && "Reserved".equalsIgnoreCase(String.valueOf(resp.get("message")))) {
+                seatsReserved.add(drift.reserve().size());
+                changed = true;
+            } else {
+                correctionFailures.increment();
+            }
+        }
+        if (!drift.release().isEmpty()) {
+            Map<String, Object> resp = flightService.releaseSeats(flightId, Map.of("seatNumbers", List.copyOf(drift.release())));
+            if (!Boolean.TRUE.equals(resp.get("fallback"))) {
+                seatsReleased.add(drift.release().size());
+                changed = true;
+            } else {
+                correctionFailures.increment();
+            }
+        }
+        if (changed) flightInfoCache.invalidate(flightId);
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) return;
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Drift(Set<String> reserve, Set<String> release, long firstSeen) {
+
+        boolean isEmpty() {
+            return reserve.isEmpty() && release.isEmpty();
+        }
+
+        Drift retain(Drift later) {
+            Set<String> r = new TreeSet<>(reserve);
+            r.retainAll(later.reserve);
+            Set<String> f = new TreeSet<>(release);
+            f.retainAll(later.release);
+            return new Drift(r, f, firstSeen);
+        }
+    }
+
+    @Override
+    public String statsName() {
+        return "seatReconciler";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("sweeps", sweeps.sum());
+        s.put("flightsScanned", flightsScanned.sum());
+        s.put("seatRowsScanned", seatRowsScanned.sum());
+        s.put("skipped", skipped.sum());
+        s.put("suspected", suspected.sum());
+        s.put("suspects", suspects.size());
+        s.put("seatsReserved", seatsReserved.sum());
+        s.put("seatsReleased", seatsReleased.sum());
+        s.put("correctionFailures", correctionFailures.sum());
+        return s;
+    }
+}
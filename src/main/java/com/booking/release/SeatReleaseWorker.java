@@ -0,0 +1,186 @@
+package com.booking.release;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.booking.cache.FlightInfoCache;
+import com.booking.feign.FlightServiceClient;
+import com.booking.logging.SampledLogger;
+import com.booking.metrics.StatsSource;
+import com.booking.model.SeatRelease;
+import com.booking.model.SeatReleaseStatus;
+import com.booking.repositories.SeatReleaseRepository;
+
+// Drains seat_release: due rows are grouped per flight and each flight gets one releaseSeats call
+// for all of its seats. Released rows are deleted; on a fallback every row of that flight is
+// pushed back by an exponential, jittered backoff, and after maxAttempts it is marked DEAD.
+// A batch is claimed in one short transaction (its rows leased by moving nextAttemptAt ahead),
+// released with no transaction open, and its outcome written in a second one. If the instance
+// dies in between, the rows come due again when the lease runs out and are released again.
+@Component
+public class SeatReleaseWorker implements StatsSource {
+
+    private static final SampledLogger FAILURE_LOG = new SampledLogger(LoggerFactory.getLogger(SeatReleaseWorker.class), 1);
+
+    private final SeatReleaseRepository releaseRepo;
+    private final FlightServiceClient flightService;
+    private final FlightInfoCache flightInfoCache;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Clock clock;
+
+    private final LongAdder released = new LongAdder();
+    private final LongAdder releaseCalls = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder dead = new LongAdder();
+
+    @Autowired
+    public SeatReleaseWorker(SeatReleaseRepository releaseRepo, FlightServiceClient flightService,
+                             FlightInfoCache flightInfoCache, PlatformTransactionManager txManager,
+                             @Value("${booking.seat-release.batch-size:200}") int batchSize,
+                             @Value("${booking.seat-release.max-batches-per-run:10}") int maxBatchesPerRun,
+                             @Value("${booking.seat-release.initial-backoff:1s}") Duration initialBackoff,
+                             @Value("${booking.seat-release.max-backoff:10m}") Duration maxBackoff,
+                             @Value("${booking.seat-release.max-attempts:20}") int maxAttempts,
+                             @Value("${booking.seat-release.lease:60s}") Duration lease) {
+        this(releaseRepo, flightService, flightInfoCache, txManager, batchSize, maxBatchesPerRun,
+                initialBackoff, maxBackoff, maxAttempts, lease, Clock.systemDefaultZone());
+    }
+
+    public SeatReleaseWorker(SeatReleaseRepository releaseRepo, FlightServiceClient flightService,
+                             FlightInfoCache flightInfoCache, PlatformTransactionManager txManager,
+                             int batchSize, int maxBatchesPerRun, Duration initialBackoff, Duration maxBackoff,
+                             int maxAttempts, Duration lease, Clock clock) {
+        this.releaseRepo = releaseRepo;
+        this.flightService = flightService;
+        this.flightInfoCache = flightInfoCache;
+        this.tx = new TransactionTemplate(txManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.clock = clock;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.seat-release.interval-ms:1000}")
+    public void run() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (releaseBatch() < batchSize) return;
+        }
+    }
+
+    // Must not run inside a transaction, the remote calls would hold the row locks.
+    // Returns how many due rows were taken, released or not.
+    public int releaseBatch() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<SeatRelease> due = tx.execute(status -> claim(now));
+        if (due == null || due.isEmpty()) return 0;
+
+        Map<String, List<SeatRelease>> byFlight = new LinkedHashMap<>();
+        for (SeatRelease r : due) {
+            byFlight.computeIfAbsent(r.getFlightId(), f -> new ArrayList<>()).add(r);
+        }
+
+        List<SeatRelease> done = new ArrayList<>();
+        List<SeatRelease> failed = new ArrayList<>();
+        for (Map.Entry<String, List<SeatRelease>> flight : byFlight.entrySet()) {
+            Set<String> seats = new LinkedHashSet<>();
+            for (SeatRelease r : flight.getValue()) seats.addAll(r.seatList());
+
+            releaseCalls.increment();
+            Map<String, Object> resp = flightService.releaseSeats(flight.getKey(), Map.of("seatNumbers", List.copyOf(seats)));
+            if (Boolean.TRUE.equals(resp.get("fallback"))) {
+                String error = String.valueOf(resp.get("error"));
+                for (SeatRelease r : flight.getValue()) reschedule(r, error, now);
+                failed.addAll(flight.getValue());
+                FAILURE_LOG.atWarn("seatRelease.failed")
+                        .setMessage("Seat release failed, will retry")
+                        .addKeyValue("flightId", flight.getKey())
+                        .addKeyValue("releases", flight.getValue().size())
+                        .addKeyValue("error", error)
+                        .log();
+            } else {
+                flightInfoCache.invalidate(flight.getKey());
+                done.addAll(flight.getValue());
+            }
+        }
+
+        tx.executeWithoutResult(status -> {
+            if (!done.isEmpty()) releaseRepo.deleteAllInBatch(done);
+            if (!failed.isEmpty()) releaseRepo.saveAll(failed);
+        });
+        released.add(done.size());
+        return due.size();
+    }
+
+    // SKIP LOCKED keeps concurrent claims disjoint; the lease keeps the rows out of lockDue once
+    // this transaction commits and the locks are gone.
+    private List<SeatRelease> claim(LocalDateTime now) {
+        List<SeatRelease> due = releaseRepo.lockDue(now, PageRequest.of(0, batchSize));
+        if (!due.isEmpty()) {
+            releaseRepo.lease(due.stream().map(SeatRelease::getId).toList(), now.plus(lease));
+        }
+        return due;
+    }
+
+    private void reschedule(SeatRelease r, String error, LocalDateTime now) {
+        r.setAttempts(r.getAttempts() + 1);
+        r.setLastError(error.length() > 255 ? error.substring(0, 255) : error);
+        if (r.getAttempts() >= maxAttempts) {
+            r.setStatus(SeatReleaseStatus.DEAD);
+            dead.increment();
+            return;
+        }
+        r.setNextAttemptAt(now.plus(backoff(r.getAttempts())));
+        retried.increment();
+    }
+
+    // initialBackoff * 2^(attempts-1) up to maxBackoff; the second half is random so a recovering
+    // flight service does not get every pending release in the same second
+    Duration backoff(int attempts) {
+        long base = initialBackoff.toMillis() << Math.min(attempts - 1, 30);
+        long capped = Math.min(maxBackoff.toMillis(), base < 0 ? Long.MAX_VALUE : base);
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    @Override
+    public String statsName() {
+        return "seatRelease";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("released", released.sum());
+        s.put("releaseCalls", releaseCalls.sum());
+        s.put("retried", retried.sum());
+        s.put("dead", dead.sum());
+        return s;
+    }
+}
@@ -0,0 +1,8 @@
+package com.booking.repositories;
+
+import com.booking.model.BookingStatus;
+
+// The columns the history endpoint shows. Selected straight into this record, so no Booking
+// entities (and no seat/passenger collections) are loaded for a history page.
+public record BookingHistoryRow(Long id, String pnr, String flightId, BookingStatus status) {
+}
@@ -1,10 +1,65 @@
 package com.booking.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
 import com.booking.model.Booking;
 
+import jakarta.persistence.QueryHint;
+
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     Booking findByPnr(String pnr);
     List<Booking> findByEmail(String email);
+
+    // Booking and passengers in one join. Two List collections cannot both be fetch-joined
+    // (MultipleBagFetchException), so seat numbers follow in a second select on the same connection.
+    @EntityGraph(attributePaths = "passengers")
+    @Query("select b from Booking b where b.pnr = :pnr")
+    Booking findTicketByPnr(@Param("pnr") String pnr);
+
+    // Keyset page over idx_booking_email_id: one indexed range scan however long the history is.
+    @Query("select new com.booking.repositories.BookingHistoryRow(b.id, b.pnr, b.flightId, b.status) "
+            + "from Booking b where b.email = :email and b.id > :after order by b.id")
+    List<BookingHistoryRow> findHistoryPage(@Param("email") String email, @Param("after") long after, Pageable page);
+
+    // Reconciliation: upcoming flights in id order after the checkpoint. The idx_booking_journey range
+    // keeps departed flights (and bookings with no journey time) out of every sweep.
+    @Query("select distinct b.flightId from Booking b where b.timeOfJourney > :now and b.flightId > :after "
+            + "order by b.flightId")
+    List<String> findFlightIdsAfter(@Param("after") String after, @Param("now") LocalDateTime now, Pageable page);
+
+    // Keyset page over a flight's seats by (booking id, seat), so a booking split across two pages
+    // is picked up where the previous page stopped.
+    @Query("select new com.booking.repositories.BookingSeatRow(b.id, b.status, s) from Booking b join b.seatNumbers s "
+            + "where b.flightId = :flightId and (b.id > :afterId or (b.id = :afterId and s > :afterSeat)) "
+            + "order by b.id, s")
+    List<BookingSeatRow> findSeatPage(@Param("flightId") String flightId, @Param("afterId") long afterId,
+                                      @Param("afterSeat") String afterSeat, Pageable page);
+
+    // Sold seats of flights still to depart, streamed to rebuild SoldSeatIndex. A fetch size of
+    // Integer.MIN_VALUE makes Connector/J stream the result set instead of buffering it; must be
+    // consumed inside a transaction and closed.
+    // Bookings without a journey time (the flight service sent no start date) are left out rather
+    // than kept in the index forever; their seats are checked remotely like any untracked seat.
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true") })
+    @Query("select new com.booking.repositories.FlightSeatRow(b.flightId, s) from Booking b join b.seatNumbers s "
+            + "where b.status = com.booking.model.BookingStatus.CONFIRMED "
+            + "and b.timeOfJourney is not null and b.timeOfJourney > :now")
+    Stream<FlightSeatRow> streamSoldSeats(@Param("now") LocalDateTime now);
+
+    // Which of these seats a CONFIRMED booking holds on the flight; confirms a SoldSeatIndex hit.
+    @Query("select s from Booking b join b.seatNumbers s where b.flightId = :flightId "
+            + "and b.status = com.booking.model.BookingStatus.CONFIRMED and s in :seats")
+    List<String> findSoldSeats(@Param("flightId") String flightId, @Param("seats") Collection<String> seats);
 }
@@ -0,0 +1,7 @@
+package com.booking.repositories;
+
+import com.booking.model.BookingStatus;
+
+// One booking_seat_numbers row with its booking's id and status, for the reconciliation scan.
+public record BookingSeatRow(Long bookingId, BookingStatus status, String seat) {
+}
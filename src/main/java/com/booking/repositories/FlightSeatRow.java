@@ -0,0 +1,5 @@
+package com.booking.repositories;
+
+// A sold seat and its flight, for rebuilding SoldSeatIndex without loading Booking entities.
+public record FlightSeatRow(String flightId, String seat) {
+}
@@ -0,0 +1,32 @@
+package com.booking.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.booking.model.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // FOR UPDATE SKIP LOCKED (-2), so relays on several instances take disjoint batches.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.status = com.booking.model.OutboxEventStatus.PENDING"
+            + " and e.nextAttemptAt <= :now order by e.id")
+    List<OutboxEvent> lockNextBatch(@Param("now") LocalDateTime now, Pageable page);
+
+    // Claims rows for one relay: they are not due again until the lease runs out.
+    @Modifying
+    @Query("update OutboxEvent e set e.nextAttemptAt = :until where e.id in :ids")
+    int lease(@Param("ids") List<Long> ids, @Param("until") LocalDateTime until);
+}
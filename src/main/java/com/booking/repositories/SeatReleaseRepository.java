@@ -0,0 +1,36 @@
+package com.booking.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.booking.model.SeatRelease;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface SeatReleaseRepository extends JpaRepository<SeatRelease, Long> {
+
+    // FOR UPDATE SKIP LOCKED (-2), so workers on several instances take disjoint batches.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select r from SeatRelease r where r.status = com.booking.model.SeatReleaseStatus.PENDING"
+            + " and r.nextAttemptAt <= :now order by r.nextAttemptAt, r.id")
+    List<SeatRelease> lockDue(@Param("now") LocalDateTime now, Pageable page);
+
+    // Claims rows for one worker: they are not due again until the lease runs out.
+    @Modifying
+    @Query("update SeatRelease r set r.nextAttemptAt = :until where r.id in :ids")
+    int lease(@Param("ids") List<Long> ids, @Param("until") LocalDateTime until);
+
+    @Query("select r.seats from SeatRelease r where r.flightId = :flightId"
+            + " and r.status = com.booking.model.SeatReleaseStatus.PENDING")
+    List<String> findPendingSeats(@Param("flightId") String flightId);
+}
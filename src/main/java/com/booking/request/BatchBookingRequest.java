@@ -0,0 +1,17 @@
+package com.booking.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class BatchBookingRequest {
+
+    @NotEmpty
+    @Size(max = 100)
+    @Valid
+    private List<BookingRequest> bookings;
+}
@@ -0,0 +1,19 @@
+package com.booking.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class SeatHoldRequest {
+
+    @Email
+    @NotBlank
+    private String email;
+
+    @NotEmpty
+    private List<String> seatNumbers;
+}
@@ -0,0 +1,10 @@
+package com.booking.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.booking.request.BookingRequest;
+
+public interface AsyncBookingService {
+    CompletableFuture<Map<String,Object>> bookTicketAsync(String flightId, BookingRequest req);
+}
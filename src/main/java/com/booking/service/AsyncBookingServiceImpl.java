@@ -0,0 +1,168 @@
+package com.booking.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.booking.cache.FlightInfoCache;
+import com.booking.config.AsyncBookingConfig;
+import com.booking.feign.FlightInventory;
+import com.booking.feign.FlightServiceClient;
+import com.booking.hold.SeatHoldEngine;
+import com.booking.inventory.SoldSeatIndex;
+import com.booking.logging.SampledLogger;
+import com.booking.model.Booking;
+import com.booking.pnr.PnrGenerator;
+import com.booking.request.BookingRequest;
+
+// Same steps and responses as BookingServiceImpl.bookTicket, chained on futures: no thread waits
+// for the flight service, and the insert runs on the bounded DB executor. Shares
+// FlightServiceClient (breaker, limits, fallbacks) and the inventory cache with the blocking path.
+@Service
+public class AsyncBookingServiceImpl implements AsyncBookingService {
+
+    private static final SampledLogger RELEASE_LOG = new SampledLogger(LoggerFactory.getLogger(AsyncBookingServiceImpl.class), 10);
+
+    private final FlightServiceClient flightService;
+    private final BookingWriter bookingWriter;
+    private final FlightInfoCache flightInfoCache;
+    private final PnrGenerator pnrGenerator;
+    private final SeatHoldEngine seatHolds;
+    private final SoldSeatIndex soldSeats;
+    private final Executor dbExecutor;
+
+    public AsyncBookingServiceImpl(FlightServiceClient flightService, BookingWriter bookingWriter,
+                                   FlightInfoCache flightInfoCache, PnrGenerator pnrGenerator,
+                                   SeatHoldEngine seatHolds, SoldSeatIndex soldSeats,
+                                   @Qualifier(AsyncBookingConfig.DB_EXECUTOR) Executor dbExecutor) {
+        this.flightService = flightService;
+        this.bookingWriter = bookingWriter;
+        this.flightInfoCache = flightInfoCache;
+        this.pnrGenerator = pnrGenerator;
+        this.seatHolds = seatHolds;
+        this.soldSeats = soldSeats;
+        this.dbExecutor = dbExecutor;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> bookTicketAsync(String flightId, BookingRequest req) {
+        String invalid = Bookings.countMismatch(req);
+        if (invalid != null) {
+            return CompletableFuture.failedFuture(new RuntimeException(invalid));
+        }
+        if (!seatHolds.heldByOthers(flightId, req.getSeatNumbers(), null).isEmpty()) {
+            return failed("Requested seats are held by another customer");
+        }
+
+        return sold(flightId, req).thenCompose(alreadySold -> alreadySold
+                ? failed("Requested seats are unavailable")
+                : book(flightId, req));
+    }
+
+    private CompletableFuture<Map<String, Object>> book(String flightId, BookingRequest req) {
+        return flightInfo(flightId).thenCompose(flightInfo -> {
+            if (flightInfo.isUnavailable()) {
+                return failed("Cannot book right now: Flight service is unavailable");
+            }
+            if (flightInfo.unpriced()) {
+                return failed("Cannot book right now: Flight price is unavailable");
+            }
+            if (!flightInfo.availableSeatNumbers().containsAll(req.getSeatNumbers())) {
+                return failed("Requested seats are unavailable");
+            }
+
+            Map<String, Object> reserveBody = Map.of("seatNumbers", req.getSeatNumbers());
+            return reserve(flightId, reserveBody).thenCompose(reserveResult -> {
+                if (Boolean.TRUE.equals(reserveResult.get("fallback"))) {
+                    return failed("Seat reservation failed (Flight service unavailable)");
+                }
+                if (!"Reserved".equalsIgnoreCase(String.valueOf(reserveResult.getOrDefault("message", "")))) {
+                    return failed("Failed to reserve seats");
+                }
+                return insert(flightId, req, flightInfo, reserveBody);
+            });
+        });
+    }
+
+    // A local hit is confirmed with a DB query, so it runs on the DB executor; when that is full the
+    // seats simply go on to the remote check.
+    private CompletableFuture<Boolean> sold(String flightId, BookingRequest req) {
+        if (!soldSeats.mightBeSold(flightId, req.getSeatNumbers())) return CompletableFuture.completedFuture(false);
+        try {
+            return CompletableFuture.supplyAsync(() -> soldSeats.anySold(flightId, req.getSeatNumbers()), dbExecutor);
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    private CompletableFuture<FlightInventory> flightInfo(String flightId) {
+        FlightInventory cached = flightInfoCache.get(flightId);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        return flightService.getFlightInfoAsync(flightId).thenApply(info -> {
+            if (!info.fallback()) flightInfoCache.put(flightId, info);
+            return info;
+        });
+    }
+
+    private CompletableFuture<Map<String, Object>> reserve(String flightId, Map<String, Object> body) {
+        return flightService.reserveSeatsAsync(flightId, body).thenApply(resp -> invalidateUnlessFallback(flightId, resp));
+    }
+
+    private CompletableFuture<Map<String, Object>> release(String flightId, Map<String, Object> body) {
+        return flightService.releaseSeatsAsync(flightId, body).thenApply(resp -> invalidateUnlessFallback(flightId, resp));
+    }
+
+    private Map<String, Object> invalidateUnlessFallback(String flightId, Map<String, Object> resp) {
+        if (!Boolean.TRUE.equals(resp.get("fallback"))) flightInfoCache.invalidate(flightId);
+        return resp;
+    }
+
+    // On a failed insert the seats are released first, then the original error is passed on. A PNR
+    // refused for an unconfirmed node lease, or a full DB executor rejecting the task on the calling
+    // thread, takes the same release path.
+    private CompletableFuture<Map<String, Object>> insert(String flightId, BookingRequest req, FlightInventory flightInfo,
+                                                          Map<String, Object> reserveBody) {
+        CompletableFuture<Booking> saving;
+        try {
+            Booking booking = Bookings.newBooking(pnrGenerator.next(), flightId, req, flightInfo);
+            saving = CompletableFuture.supplyAsync(() -> {
+                bookingWriter.insert(booking);
+                return booking;
+            }, dbExecutor);
+        } catch (RuntimeException ex) {
+            saving = CompletableFuture.failedFuture(ex);
+        }
+        return saving
+                .handle((booking, ex) -> {
+                    if (ex == null) {
+                        soldSeats.markSold(flightId, booking.getSeatNumbers());
+                        return CompletableFuture.completedFuture(Map.<String, Object>of(
+                                "pnr", booking.getPnr(),
+                                "message", "Booking successful",
+                                "totalPrice", booking.getTotalPrice()));
+                    }
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    return release(flightId, reserveBody).thenCompose(releaseResp -> {
+                        if (Boolean.TRUE.equals(releaseResp.get("fallback"))) {
+                            RELEASE_LOG.atError("compensatingRelease.failed")
+                                    .setMessage("Compensating release failed, seats stay reserved")
+                                    .addKeyValue("flightId", flightId)
+                                    .addKeyValue("error", releaseResp.get("message"))
+                                    .log();
+                        }
+                        return CompletableFuture.<Map<String, Object>>failedFuture(cause);
+                    });
+                })
+                .thenCompose(f -> f);
+    }
+
+    private static CompletableFuture<Map<String, Object>> failed(String message) {
+        return CompletableFuture.completedFuture(Map.of("status", "FAILED", "message", message));
+    }
+}
@@ -0,0 +1,60 @@
+package com.booking.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.booking.repositories.BookingHistoryRow;
+import com.booking.repositories.BookingRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+// Writes a full booking history as NDJSON (one JSON object per line). Rows are read in keyset
+// pages over idx_booking_email_id, each its own short read, and a page is written and flushed
+// before the next one is fetched: no connection is held while a slow client drains the output,
+// memory stays at one page however many bookings the email has, and the first line reaches the
+// client before the second page is read.
+@Service
+@RequiredArgsConstructor
+public class BookingHistoryExporter {
+
+    public static final int PAGE_SIZE = 500;
+
+    private final BookingRepository bookingRepo;
+    private final ObjectMapper objectMapper;
+
+    // Must not run inside a transaction, or the pages would share one connection for the whole export.
+    public long writeNdjson(String email, OutputStream out) {
+        long written = 0;
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            long after = 0;
+            List<BookingHistoryRow> page;
+            do {
+                page = bookingRepo.findHistoryPage(email, after, PageRequest.of(0, PAGE_SIZE));
+                for (BookingHistoryRow row : page) {
+                    gen.writeStartObject();
+                    gen.writeStringField("pnr", row.pnr());
+                    gen.writeStringField("flightId", row.flightId());
+                    gen.writeStringField("status", row.status() == null ? null : row.status().name());
+                    gen.writeEndObject();
+                    gen.writeRaw('\n');
+                    // first line right away so the client sees data early, then once per page
+                    if (++written == 1) gen.flush();
+                }
+                gen.flush();
+                if (!page.isEmpty()) after = page.get(page.size() - 1).id();
+            } while (page.size() == PAGE_SIZE);
+        } catch (IOException ex) {
+            // usually the client went away
+            throw new UncheckedIOException(ex);
+        }
+        return written;
+    }
+}
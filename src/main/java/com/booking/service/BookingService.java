@@ -1,11 +1,18 @@
 package com.booking.service;
 
 import java.util.Map;
+import com.booking.request.BatchBookingRequest;
 import com.booking.request.BookingRequest;
+import com.booking.request.SeatHoldRequest;
 
 public interface BookingService {
     Map<String,Object> bookTicket(String flightId, BookingRequest req);
+    Map<String,Object> bookBatch(String flightId, BatchBookingRequest req);
     Map<String,Object> getTicketByPnr(String pnr);
-    Map<String,Object> getBookingHistory(String email);
+    Map<String,Object> getBookingHistory(String email, Long after, int limit);
     Map<String,Object> cancelBooking(String pnr);
+    Map<String,Object> holdSeats(String flightId, SeatHoldRequest req);
+    Map<String,Object> extendHold(String holdId);
+    Map<String,Object> releaseHold(String holdId);
+    Map<String,Object> bookHeldSeats(String flightId, String holdId, BookingRequest req);
 }
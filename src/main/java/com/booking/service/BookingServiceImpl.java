@@ -1,129 +1,153 @@
 package com.booking.service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
 
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.booking.feign.FeignInterface;
+import com.booking.cache.FlightInfoCache;
+import com.booking.cache.TicketCache;
+import com.booking.cache.TicketView;
+import com.booking.feign.FlightInventory;
+import com.booking.feign.FlightServiceClient;
+import com.booking.hold.SeatHold;
+import com.booking.hold.SeatHoldEngine;
+import com.booking.inventory.SoldSeatIndex;
+import com.booking.logging.SampledLogger;
+import com.booking.metrics.BookingMetrics;
+import com.booking.metrics.BookingMetrics.Stage;
 import com.booking.model.Booking;
 import com.booking.model.BookingStatus;
-import com.booking.model.Passenger;
-import com.booking.publisher.EmailPublisher;
+import com.booking.model.SeatRelease;
+import com.booking.pnr.PnrGenerator;
+import com.booking.repositories.BookingHistoryRow;
 import com.booking.repositories.BookingRepository;
+import com.booking.repositories.SeatReleaseRepository;
+import com.booking.request.BatchBookingRequest;
 import com.booking.request.BookingRequest;
-import com.booking.request.PassengerRequest;
+import com.booking.request.SeatHoldRequest;
 
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
-    private final BookingRepository bookingRepo;
-    private final FeignInterface flightClient;
-    private final EmailPublisher emailPublisher;
-
+    static final int MAX_HISTORY_PAGE = 200;
+    private static final SampledLogger RELEASE_LOG = new SampledLogger(LoggerFactory.getLogger(BookingServiceImpl.class), 10);
 
-    //circuitbreaker stuff
-
-    @CircuitBreaker(name = "flightServiceCB", fallbackMethod = "flightInfoFallback")
-    public Map<String, Object> safeGetFlightInfo(String flightId) {
-        try {
-            return flightClient.getFlightInfo(flightId);
-        } catch (Throwable ex) {
-            System.out.println("safeGetFlightInfo: exception -> " + ex.getMessage());
-            return flightInfoFallback(flightId, ex);
-        }
+    private final BookingRepository bookingRepo;
+    private final SeatReleaseRepository seatReleaseRepo;
+    private final BookingWriter bookingWriter;
+    private final FlightInfoCache flightInfoCache;
+    private final FlightServiceClient flightService;
+    private final BookingMetrics metrics;
+    private final PnrGenerator pnrGenerator;
+    private final SeatHoldEngine seatHolds;
+    private final SoldSeatIndex soldSeats;
+    private final TicketCache ticketCache;
+    private final TicketReader ticketReader;
+
+
+    // Flight-service calls go through FlightServiceClient (breaker, limits, fallbacks); this
+    // layer keeps the inventory cache in step with them.
+
+    public FlightInventory safeGetFlightInfo(String flightId) {
+        FlightInventory cached = flightInfoCache.get(flightId);
+        if (cached != null) return cached;
+        FlightInventory info = flightService.getFlightInfo(flightId);
+        if (!info.fallback()) flightInfoCache.put(flightId, info);
+        return info;
     }
 
-    @CircuitBreaker(name = "flightServiceCB", fallbackMethod = "reserveFallback")
     public Map<String, Object> safeReserveSeats(String flightId, Map<String, Object> body) {
-        try {
-            return flightClient.reserveSeats(flightId, body);
-        } catch (Throwable ex) {
-            System.out.println("safeReserveSeats: exception -> " + ex.getMessage());
-            return reserveFallback(flightId, body, ex);
-        }
+        Map<String, Object> resp = flightService.reserveSeats(flightId, body);
+        if (!Boolean.TRUE.equals(resp.get("fallback"))) flightInfoCache.invalidate(flightId);
+        return resp;
     }
 
-    @CircuitBreaker(name = "flightServiceCB", fallbackMethod = "releaseFallback")
     public Map<String, Object> safeReleaseSeats(String flightId, Map<String, Object> body) {
-        try {
-            return flightClient.releaseSeats(flightId, body);
-        } catch (Throwable ex) {
-            System.out.println("safeReleaseSeats: exception -> " + ex.getMessage());
-            return releaseFallback(flightId, body, ex);
-        }
-    }
-
-    //fallback stuff
-
-    public Map<String, Object> flightInfoFallback(String flightId, Throwable ex) {
-        Map<String, Object> resp = new LinkedHashMap<>();
-        resp.put("fallback", true);
-        resp.put("status", "UNAVAILABLE");
-        resp.put("message", "Flight Service is down. Please try again later.");
-        resp.put("availableSeatNumbers", List.<String>of()); // empty list
-        resp.put("price", 0);
-        resp.put("startDate", null);
-        resp.put("error", ex == null ? null : ex.getMessage());
+        Map<String, Object> resp = flightService.releaseSeats(flightId, body);
+        if (!Boolean.TRUE.equals(resp.get("fallback"))) flightInfoCache.invalidate(flightId);
         return resp;
     }
 
-    public Map<String, Object> reserveFallback(String flightId, Map<String, Object> body, Throwable ex) {
-        Map<String, Object> resp = new LinkedHashMap<>();
-        resp.put("fallback", true);
-        resp.put("message", "Seat reservation is temporarily unavailable.");
-        resp.put("error", ex == null ? null : ex.getMessage());
-        return resp;
+//main methods
+
+    // No @Transactional here: validation and the flight-service calls run without a connection,
+    // only BookingWriter.insert opens a transaction.
+    @Override
+    public Map<String, Object> bookTicket(String flightId, BookingRequest req) {
+        long start = System.nanoTime();
+        Map<String, Object> resp = null;
+        try {
+            resp = book(flightId, req, null);
+            return resp;
+        } finally {
+            metrics.request("book", outcome(resp), start);
+        }
     }
 
-    public Map<String, Object> releaseFallback(String flightId, Map<String, Object> body, Throwable ex) {
-        Map<String, Object> resp = new LinkedHashMap<>();
-        resp.put("fallback", true);
-        resp.put("message", "Seat release pending: Flight Service unavailable.");
-        resp.put("error", ex == null ? null : ex.getMessage());
-        return resp;
+    private static String outcome(Map<String, Object> resp) {
+        if (resp == null) return "error";
+        return resp.containsKey("pnr") ? "booked" : "failed";
     }
 
-//main methods
+    // holdId is the caller's own hold on these seats, or null when booking without one
+    private Map<String, Object> book(String flightId, BookingRequest req, String holdId) {
+        long t = System.nanoTime();
 
-    @Override
-    @Transactional
-    public Map<String, Object> bookTicket(String flightId, BookingRequest req) {
+        String invalid = Bookings.countMismatch(req);
+        if (invalid != null) {
+            throw new RuntimeException(invalid);
+        }
 
-        if (req.getPassengers() == null || req.getPassengers().size() != req.getNumberOfSeats()) {
-            throw new RuntimeException("numberOfSeats must equal number of passengers");
+        if (!seatHolds.heldByOthers(flightId, req.getSeatNumbers(), holdId).isEmpty()) {
+            return Map.of("status", "FAILED", "message", "Requested seats are held by another customer");
         }
 
-        if (req.getSeatNumbers() == null || req.getSeatNumbers().size() != req.getNumberOfSeats()) {
-            throw new RuntimeException("Seat numbers count must match number of seats");
+        // already sold through this service: no need to ask the flight service
+        if (soldSeats.anySold(flightId, req.getSeatNumbers())) {
+            return Map.of("status", "FAILED", "message", "Requested seats are unavailable");
         }
 
-        Map<String, Object> flightInfo = safeGetFlightInfo(flightId);
+        t = metrics.stage(Stage.VALIDATION, t);
 
-        if (Boolean.TRUE.equals(flightInfo.get("fallback")) || "UNAVAILABLE".equals(flightInfo.get("status"))) {
+        FlightInventory flightInfo = safeGetFlightInfo(flightId);
+        t = metrics.stage(Stage.FLIGHT_INFO, t);
+
+        if (flightInfo.isUnavailable()) {
             return Map.of(
                     "status", "FAILED",
                     "message", "Cannot book right now: Flight service is unavailable"
             );
         }
+        if (flightInfo.unpriced()) {
+            return Map.of(
+                    "status", "FAILED",
+                    "message", "Cannot book right now: Flight price is unavailable"
+            );
+        }
 
-        @SuppressWarnings("unchecked")
-        List<String> availableSeats = (List<String>) flightInfo.getOrDefault("availableSeatNumbers", List.of());
-        if (!availableSeats.containsAll(req.getSeatNumbers())) {
+        boolean available = flightInfo.availableSeatNumbers().containsAll(req.getSeatNumbers());
+        t = metrics.stage(Stage.SEAT_CHECK, t);
+        if (!available) {
             return Map.of("status", "FAILED", "message", "Requested seats are unavailable");
         }
 
         Map<String, Object> reserveBody = Map.of("seatNumbers", req.getSeatNumbers());
         Map<String, Object> reserveResult = safeReserveSeats(flightId, reserveBody);
+        t = metrics.stage(Stage.RESERVE, t);
 
         if (Boolean.TRUE.equals(reserveResult.get("fallback"))) {
             return Map.of("status", "FAILED", "message", "Seat reservation failed (Flight service unavailable)");
@@ -133,109 +157,287 @@ public class BookingServiceImpl implements BookingService {
             return Map.of("status", "FAILED", "message", "Failed to reserve seats");
         }
 
-        Booking booking = new Booking();
-        booking.setPnr(UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-        booking.setEmail(req.getEmail());
-        booking.setName(req.getName());
-        booking.setTimeOfBooking(LocalDateTime.now());
-        booking.setFlightId(flightId);
-        booking.setStatus(BookingStatus.CONFIRMED);
-
-        if (flightInfo.get("startDate") != null) {
-            try {
-                booking.setTimeOfJourney(LocalDateTime.parse(String.valueOf(flightInfo.get("startDate"))));
-            } catch (Exception e) {
+        Booking booking;
+        try {
+            // the PNR needs a confirmed node lease; without one this fails like the insert does
+            booking = Bookings.newBooking(pnrGenerator.next(), flightId, req, flightInfo);
+            // booking row and its outbox email event commit together
+            bookingWriter.insert(booking);
+            metrics.stage(Stage.PERSIST, t);
+        } catch (RuntimeException ex) {
+            // seats are already reserved remotely, give them back before failing the booking
+            Map<String, Object> releaseResp = safeReleaseSeats(flightId, reserveBody);
+            if (Boolean.TRUE.equals(releaseResp.get("fallback"))) {
+                RELEASE_LOG.atError("compensatingRelease.failed")
+                        .setMessage("Compensating release failed, seats stay reserved")
+                        .addKeyValue("flightId", flightId)
+                        .addKeyValue("error", releaseResp.get("message"))
+                        .log();
             }
+            throw ex;
+        }
+        soldSeats.markSold(flightId, req.getSeatNumbers());
+
+        return Map.of(
+                "pnr", booking.getPnr(),
+                "message", "Booking successful",
+                "totalPrice", booking.getTotalPrice()
+        );
+    }
+
+    // Group/agency bookings for one flight: one inventory fetch, one reserve for the union of
+    // seats, one transaction for all inserts and their outbox events. Items fail individually
+    // on validation or seat conflicts; a failed reserve or insert fails the whole group.
+    @Override
+    public Map<String, Object> bookBatch(String flightId, BatchBookingRequest batch) {
+        List<BookingRequest> items = batch.getBookings();
+        List<Map<String, Object>> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("index", i);
+            results.add(r);
+        }
+
+        FlightInventory flightInfo = safeGetFlightInfo(flightId);
+        if (flightInfo.isUnavailable()) {
+            return batchResponse(flightId, failAll(results, "Cannot book right now: Flight service is unavailable"));
+        }
+        if (flightInfo.unpriced()) {
+            return batchResponse(flightId, failAll(results, "Cannot book right now: Flight price is unavailable"));
         }
 
-        booking.setNumberOfSeats(req.getNumberOfSeats());
-        double price = 0.0;
-        Object priceObj = flightInfo.get("price");
-        if (priceObj instanceof Number) {
-            price = ((Number) priceObj).doubleValue();
-        } else if (priceObj != null) {
-            try {
-                price = Double.parseDouble(String.valueOf(priceObj));
-            } catch (Exception ignore) {}
+        Set<String> claimed = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>();
+        List<String> seatUnion = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BookingRequest req = items.get(i);
+            String invalid = Bookings.countMismatch(req);
+            if (invalid != null) {
+                fail(results.get(i), invalid);
+            } else if (soldSeats.anySold(flightId, req.getSeatNumbers())
+                    || !flightInfo.availableSeatNumbers().containsAll(req.getSeatNumbers())) {
+                fail(results.get(i), "Requested seats are unavailable");
+            } else if (!seatHolds.heldByOthers(flightId, req.getSeatNumbers(), null).isEmpty()) {
+                fail(results.get(i), "Requested seats are held by another customer");
+            } else if (new HashSet<>(req.getSeatNumbers()).size() != req.getSeatNumbers().size()
+                    || !Collections.disjoint(claimed, req.getSeatNumbers())) {
+                fail(results.get(i), "Seat requested more than once in this batch");
+            } else {
+                claimed.addAll(req.getSeatNumbers());
+                seatUnion.addAll(req.getSeatNumbers());
+                accepted.add(i);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return batchResponse(flightId, results);
         }
-        booking.setTotalPrice(price * req.getNumberOfSeats());
 
-        List<Passenger> passengerList = new ArrayList<>();
-        for (PassengerRequest pr : req.getPassengers()) {
-            Passenger p = new Passenger();
-            p.setName(pr.getName());
-            p.setGender(pr.getGender());
-            p.setAge(pr.getAge());
-            passengerList.add(p);
+        Map<String, Object> reserveBody = Map.of("seatNumbers", seatUnion);
+        Map<String, Object> reserveResult = safeReserveSeats(flightId, reserveBody);
+        if (Boolean.TRUE.equals(reserveResult.get("fallback"))) {
+            failAccepted(results, accepted, "Seat reservation failed (Flight service unavailable)");
+            return batchResponse(flightId, results);
+        }
+        if (!"Reserved".equalsIgnoreCase(String.valueOf(reserveResult.getOrDefault("message", "")))) {
+            failAccepted(results, accepted, "Failed to reserve seats");
+            return batchResponse(flightId, results);
         }
-        booking.setPassengers(passengerList);
-        booking.setSeatNumbers(req.getSeatNumbers());
 
-        bookingRepo.save(booking);
+        List<Booking> bookings = new ArrayList<>(accepted.size());
         try {
-            com.booking.events.EmailPayload payload = new com.booking.events.EmailPayload(
-                booking.getEmail(),
-                booking.getName(),
-                booking.getPnr(),
-                booking.getFlightId()
+            for (int i : accepted) {
+                bookings.add(Bookings.newBooking(pnrGenerator.next(), flightId, items.get(i), flightInfo));
+            }
+            bookingWriter.insertAll(bookings);
+        } catch (RuntimeException ex) {
+            Map<String, Object> releaseResp = safeReleaseSeats(flightId, reserveBody);
+            if (Boolean.TRUE.equals(releaseResp.get("fallback"))) {
+                RELEASE_LOG.atError("compensatingRelease.failed")
+                        .setMessage("Compensating release failed, seats stay reserved")
+                        .addKeyValue("flightId", flightId)
+                        .addKeyValue("error", releaseResp.get("message"))
+                        .log();
+            }
+            throw ex;
+        }
+        soldSeats.markSold(flightId, seatUnion);
+
+        for (int k = 0; k < accepted.size(); k++) {
+            Booking b = bookings.get(k);
+            Map<String, Object> r = results.get(accepted.get(k));
+            r.put("status", "CONFIRMED");
+            r.put("pnr", b.getPnr());
+            r.put("totalPrice", b.getTotalPrice());
+        }
+        return batchResponse(flightId, results);
+    }
+
+    // Seat holds: checked against the cached inventory so nobody holds seats that are already sold.
+    @Override
+    public Map<String, Object> holdSeats(String flightId, SeatHoldRequest req) {
+        if (soldSeats.anySold(flightId, req.getSeatNumbers())) {
+            return Map.of("status", "FAILED", "message", "Requested seats are unavailable");
+        }
+        FlightInventory flightInfo = safeGetFlightInfo(flightId);
+        if (flightInfo.isUnavailable()) {
+            return Map.of("status", "FAILED", "message", "Cannot hold seats right now: Flight service is unavailable");
+        }
+        if (!flightInfo.availableSeatNumbers().containsAll(req.getSeatNumbers())) {
+            return Map.of("status", "FAILED", "message", "Requested seats are unavailable");
+        }
+
+        SeatHoldEngine.HoldResult result = seatHolds.hold(flightId, req.getSeatNumbers(), req.getEmail());
+        if (result.hold() == null) {
+            return Map.of(
+                    "status", "FAILED",
+                    "message", "Requested seats are held by another customer",
+                    "seatNumbers", result.conflicts()
             );
-            emailPublisher.publishEmailEvent(payload);
-        } catch (Exception e) {
-            System.err.println("Failed to publish email event: " + e.getMessage());
         }
+        return holdResponse(result.hold(), "Seats held");
+    }
 
+    @Override
+    public Map<String, Object> extendHold(String holdId) {
+        SeatHold hold = seatHolds.extend(holdId);
+        if (hold == null) throw new RuntimeException("Hold not found or expired");
+        return holdResponse(hold, "Hold extended");
+    }
 
-        return Map.of(
-                "pnr", booking.getPnr(),
-                "message", "Booking successful",
-                "totalPrice", booking.getTotalPrice()
-        );
+    @Override
+    public Map<String, Object> releaseHold(String holdId) {
+        if (!seatHolds.release(holdId)) throw new RuntimeException("Hold not found or expired");
+        return Map.of("holdId", holdId, "message", "Hold released");
     }
 
+    // A FAILED booking keeps the hold so the customer can retry; a successful one frees it,
+    // the seats are reserved remotely by then.
     @Override
-    public Map<String, Object> getTicketByPnr(String pnr) {
-        Booking b = bookingRepo.findByPnr(pnr);
-        if (b == null) throw new RuntimeException("Booking not found");
+    public Map<String, Object> bookHeldSeats(String flightId, String holdId, BookingRequest req) {
+        SeatHold hold = seatHolds.get(holdId);
+        if (hold == null || !hold.flightId().equals(flightId)) {
+            throw new RuntimeException("Hold not found or expired");
+        }
+        if (!new HashSet<>(hold.seatNumbers()).equals(new HashSet<>(req.getSeatNumbers()))) {
+            throw new RuntimeException("Seat numbers must match the hold");
+        }
+
+        Map<String, Object> resp = book(flightId, req, holdId);
+        if (resp.containsKey("pnr")) seatHolds.release(holdId);
+        return resp;
+    }
+
+    private Map<String, Object> holdResponse(SeatHold hold, String message) {
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("holdId", hold.holdId());
+        resp.put("flightId", hold.flightId());
+        resp.put("seatNumbers", hold.seatNumbers());
+        resp.put("expiresAt", Instant.ofEpochMilli(hold.expiresAt()).toString());
+        resp.put("message", message);
+        return resp;
+    }
+
+    private void fail(Map<String, Object> result, String message) {
+        result.put("status", "FAILED");
+        result.put("message", message);
+    }
+
+    private List<Map<String, Object>> failAll(List<Map<String, Object>> results, String message) {
+        for (Map<String, Object> r : results) fail(r, message);
+        return results;
+    }
 
+    private void failAccepted(List<Map<String, Object>> results, List<Integer> accepted, String message) {
+        for (int i : accepted) fail(results.get(i), message);
+    }
+
+    private Map<String, Object> batchResponse(String flightId, List<Map<String, Object>> results) {
+        int booked = 0;
+        for (Map<String, Object> r : results) {
+            if ("CONFIRMED".equals(r.get("status"))) booked++;
+        }
         Map<String, Object> resp = new LinkedHashMap<>();
-        resp.put("pnr", b.getPnr());
-        resp.put("flightId", b.getFlightId());
-        resp.put("status", b.getStatus().name());
-        resp.put("seatNumbers", b.getSeatNumbers());
-        resp.put("passengers", b.getPassengers());
+        resp.put("flightId", flightId);
+        resp.put("requested", results.size());
+        resp.put("booked", booked);
+        resp.put("failed", results.size() - booked);
+        resp.put("results", results);
         return resp;
     }
 
     @Override
-    public Map<String, Object> getBookingHistory(String email) {
-        List<Booking> list = bookingRepo.findByEmail(email);
+    public Map<String, Object> getTicketByPnr(String pnr) {
+        TicketView t = ticketCache.get(pnr, ticketReader::load);
+        if (t == null) throw new RuntimeException("Booking not found");
 
-        List<Map<String, Object>> history = new ArrayList<>();
-        for (Booking b : list) {
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("pnr", t.pnr());
+        resp.put("flightId", t.flightId());
+        resp.put("status", t.status());
+        resp.put("seatNumbers", t.seatNumbers());
+        resp.put("passengers", t.passengers());
+        return resp;
+    }
+
+    @Override
+    public Map<String, Object> getBookingHistory(String email, Long after, int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_PAGE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_HISTORY_PAGE);
+        }
+        // one extra row tells us whether there is a next page without a count query
+        List<BookingHistoryRow> rows = bookingRepo.findHistoryPage(
+                email, after == null ? 0L : after, PageRequest.of(0, limit + 1));
+        boolean more = rows.size() > limit;
+        if (more) rows = rows.subList(0, limit);
+
+        List<Map<String, Object>> history = new ArrayList<>(rows.size());
+        for (BookingHistoryRow row : rows) {
             history.add(Map.of(
-                    "pnr", b.getPnr(),
-                    "flightId", b.getFlightId(),
-                    "status", b.getStatus().name()
+                    "pnr", row.pnr(),
+                    "flightId", row.flightId(),
+                    "status", row.status().name()
             ));
         }
-        return Map.of("email", email, "history", history);
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("email", email);
+        resp.put("history", history);
+        if (more) resp.put("nextAfter", rows.get(rows.size() - 1).id());
+        return resp;
     }
 
     @Override
     @Transactional
     public Map<String, Object> cancelBooking(String pnr) {
-        Booking b = bookingRepo.findByPnr(pnr);
-        if (b == null) throw new RuntimeException("Booking not found");
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Booking b = bookingRepo.findByPnr(pnr);
+            long t = metrics.stage(Stage.CANCEL_LOOKUP, start);
+            if (b == null) {
+                outcome = "notFound";
+                throw new RuntimeException("Booking not found");
+            }
 
-        b.setStatus(BookingStatus.CANCELLED);
-        bookingRepo.save(b);
+            // a second cancel must not queue a second release, the seats may be sold again by then
+            if (b.getStatus() == BookingStatus.CANCELLED) {
+                outcome = "alreadyCancelled";
+                return Map.of("pnr", pnr, "message", "Ticket cancelled successfully");
+            }
 
-        Map<String, Object> body = Map.of("seatNumbers", b.getSeatNumbers());
-        Map<String, Object> releaseResp = safeReleaseSeats(b.getFlightId(), body);
-        if (Boolean.TRUE.equals(releaseResp.get("fallback"))) {
-            System.out.println("releaseFallback triggered while cancelling: " + releaseResp.get("message"));
-        }
+            b.setStatus(BookingStatus.CANCELLED);
+            bookingRepo.save(b);
+            ticketCache.invalidate(pnr);
+            soldSeats.markFree(b.getFlightId(), b.getSeatNumbers());
+            t = metrics.stage(Stage.CANCEL_PERSIST, t);
+
+            // commits with the cancellation; SeatReleaseWorker makes the flight-service call
+            seatReleaseRepo.save(SeatRelease.pending(b, LocalDateTime.now()));
+            metrics.stage(Stage.CANCEL_ENQUEUE, t);
+            outcome = "cancelled";
 
-        return Map.of("pnr", pnr, "message", "Ticket cancelled successfully");
+            return Map.of("pnr", pnr, "message", "Ticket cancelled successfully");
+        } finally {
+            metrics.request("cancel", outcome, start);
+        }
     }
 }
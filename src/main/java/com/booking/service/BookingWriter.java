@@ -0,0 +1,62 @@
+package com.booking.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.booking.events.EmailPayload;
+import com.booking.metrics.BookingMetrics;
+import com.booking.metrics.BookingMetrics.Stage;
+import com.booking.model.Booking;
+import com.booking.publisher.EmailPublisher;
+import com.booking.repositories.BookingRepository;
+
+// The only part of the booking pipeline that holds a JDBC connection. Kept in its own bean so
+// the transaction starts after the flight-service round-trips instead of around them.
+@Service
+public class BookingWriter {
+
+    private final BookingRepository bookingRepo;
+    private final EmailPublisher emailPublisher;
+    private final BookingMetrics metrics;
+
+    public BookingWriter(BookingRepository bookingRepo, EmailPublisher emailPublisher) {
+        this(bookingRepo, emailPublisher, BookingMetrics.noop());
+    }
+
+    @Autowired
+    public BookingWriter(BookingRepository bookingRepo, EmailPublisher emailPublisher, BookingMetrics metrics) {
+        this.bookingRepo = bookingRepo;
+        this.emailPublisher = emailPublisher;
+        this.metrics = metrics;
+    }
+
+    // the publish stage is the outbox write, part of the persist stage BookingServiceImpl times
+    @Transactional
+    public Booking insert(Booking booking) {
+        Booking saved = bookingRepo.save(booking);
+        long t = System.nanoTime();
+        emailPublisher.publishEmailEvent(emailPayload(saved));
+        metrics.stage(Stage.PUBLISH, t);
+        return saved;
+    }
+
+    // One transaction for the whole group; with hibernate.jdbc.batch_size the rows go out as JDBC batches.
+    @Transactional
+    public List<Booking> insertAll(List<Booking> bookings) {
+        List<Booking> saved = bookingRepo.saveAll(bookings);
+        List<EmailPayload> events = new ArrayList<>(saved.size());
+        for (Booking b : saved) {
+            events.add(emailPayload(b));
+        }
+        emailPublisher.publishEmailEvents(events);
+        return saved;
+    }
+
+    private EmailPayload emailPayload(Booking b) {
+        return new EmailPayload(b.getEmail(), b.getName(), b.getPnr(), b.getFlightId());
+    }
+}
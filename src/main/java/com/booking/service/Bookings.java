@@ -0,0 +1,54 @@
+package com.booking.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.booking.feign.FlightInventory;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.Passenger;
+import com.booking.request.BookingRequest;
+import com.booking.request.PassengerRequest;
+
+// Request checks and Booking assembly shared by the blocking and async booking paths.
+final class Bookings {
+
+    private Bookings() {}
+
+    static String countMismatch(BookingRequest req) {
+        if (req.getPassengers() == null || req.getPassengers().size() != req.getNumberOfSeats()) {
+            return "numberOfSeats must equal number of passengers";
+        }
+        if (req.getSeatNumbers() == null || req.getSeatNumbers().size() != req.getNumberOfSeats()) {
+            return "Seat numbers count must match number of seats";
+        }
+        return null;
+    }
+
+    static Booking newBooking(String pnr, String flightId, BookingRequest req, FlightInventory flightInfo) {
+        Booking booking = new Booking();
+        booking.setPnr(pnr);
+        booking.setEmail(req.getEmail());
+        booking.setName(req.getName());
+        booking.setTimeOfBooking(LocalDateTime.now());
+        booking.setFlightId(flightId);
+        booking.setStatus(BookingStatus.CONFIRMED);
+
+        booking.setTimeOfJourney(flightInfo.startDate());
+        booking.setNumberOfSeats(req.getNumberOfSeats());
+        booking.setTotalPrice(flightInfo.price() * req.getNumberOfSeats());
+
+        List<Passenger> passengerList = new ArrayList<>();
+        for (PassengerRequest pr : req.getPassengers()) {
+            Passenger p = new Passenger();
+            p.setName(pr.getName());
+            p.setGender(pr.getGender());
+            p.setAge(pr.getAge());
+            passengerList.add(p);
+        }
+        booking.setPassengers(passengerList);
+        booking.setSeatNumbers(req.getSeatNumbers());
+        return booking;
+    }
+}
@@ -0,0 +1,39 @@
+package com.booking.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.booking.cache.TicketView;
+import com.booking.model.Booking;
+import com.booking.model.Passenger;
+import com.booking.repositories.BookingRepository;
+
+import lombok.RequiredArgsConstructor;
+
+// Loads the ticket read model for a PNR in two statements (booking + passengers, then seats) and
+// copies it into a TicketView before the transaction ends, so serialization never touches JPA.
+@Service
+@RequiredArgsConstructor
+public class TicketReader {
+
+    private final BookingRepository bookingRepo;
+
+    // null when the PNR does not exist
+    @Transactional(readOnly = true)
+    public TicketView load(String pnr) {
+        Booking b = bookingRepo.findTicketByPnr(pnr);
+        if (b == null) return null;
+
+        List<TicketView.PassengerView> passengers = new ArrayList<>();
+        if (b.getPassengers() != null) {
+            for (Passenger p : b.getPassengers()) {
+                passengers.add(new TicketView.PassengerView(p.getId(), p.getName(), p.getGender(), p.getAge()));
+            }
+        }
+        List<String> seats = b.getSeatNumbers() == null ? List.of() : List.copyOf(b.getSeatNumbers());
+        return new TicketView(b.getPnr(), b.getFlightId(), b.getStatus().name(), seats, List.copyOf(passengers));
+    }
+}
@@ -0,0 +1,238 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.booking.cache.FlightInfoCache;
+import com.booking.cache.FlightInfoCoalescer;
+import com.booking.feign.AsyncFlightClient;
+import com.booking.feign.FlightCallGuard;
+import com.booking.feign.FlightInventory;
+import com.booking.feign.FlightServiceClient;
+import com.booking.feign.SeatSet;
+import com.booking.hold.SeatHoldEngine;
+import com.booking.inventory.SoldSeatIndex;
+import com.booking.model.Booking;
+import com.booking.pnr.PnrGenerator;
+import com.booking.request.BookingRequest;
+import com.booking.request.PassengerRequest;
+import com.booking.service.AsyncBookingServiceImpl;
+import com.booking.service.BookingWriter;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+class AsyncBookingServiceImplTest {
+
+    @Mock
+    private AsyncFlightClient flightClient;
+
+    @Mock
+    private BookingWriter bookingWriter;
+
+    private final SeatHoldEngine seatHolds = new SeatHoldEngine(Duration.ofMinutes(5), Duration.ofMinutes(15), 9,
+            System::currentTimeMillis);
+
+    private final SoldSeatIndex soldSeats = new SoldSeatIndex(100);
+
+    private final PnrGenerator pnrGenerator = new PnrGenerator(1, System::currentTimeMillis);
+
+    private AsyncBookingServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        FlightCallGuard flightCalls = new FlightCallGuard(BulkheadRegistry.ofDefaults(), 20, 2, 50,
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1));
+        FlightServiceClient flightService = new FlightServiceClient(null, flightClient, flightCalls,
+                new FlightInfoCoalescer(Duration.ofSeconds(1)), CircuitBreakerRegistry.ofDefaults());
+        service = new AsyncBookingServiceImpl(flightService, bookingWriter,
+                new FlightInfoCache(Duration.ofMinutes(1), 100),
+                pnrGenerator, seatHolds, soldSeats, Runnable::run);
+    }
+
+    private static BookingRequest request(String... seats) {
+        BookingRequest req = new BookingRequest();
+        req.setEmail("a@b.com");
+        req.setName("Alice");
+        req.setNumberOfSeats(seats.length);
+        req.setMealPreference("VEG");
+        req.setSeatNumbers(List.of(seats));
+        PassengerRequest p = new PassengerRequest();
+        p.setName("Alice"); p.setGender("F"); p.setAge(30);
+        req.setPassengers(Collections.nCopies(seats.length, p));
+        return req;
+    }
+
+    private static CompletableFuture<FlightInventory> inventory(String... seats) {
+        return CompletableFuture.completedFuture(new FlightInventory(false, "OK", null, 150.0,
+                LocalDateTime.now().plusDays(3), SeatSet.of(List.of(seats))));
+    }
+
+    @Test
+    void testBooksWithoutBlockingCalls() throws Exception {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory("1A", "1B"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("message", "Reserved")));
+
+        Map<String, Object> resp = service.bookTicketAsync("F1", request("1A", "1B")).get();
+
+        assertEquals("Booking successful", resp.get("message"));
+        assertEquals(300.0, resp.get("totalPrice"));
+        verify(bookingWriter).insert(any(Booking.class));
+    }
+
+    @Test
+    void testSeatsUnavailableSkipsReserve() throws Exception {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory("1A"));
+
+        Map<String, Object> resp = service.bookTicketAsync("F1", request("2C")).get();
+
+        assertEquals("FAILED", resp.get("status"));
+        assertEquals("Requested seats are unavailable", resp.get("message"));
+        verify(flightClient, never()).reserveSeats(any(), anyMap());
+    }
+
+    @Test
+    void testSeatsHeldByAnotherCustomerSkipFlightService() throws Exception {
+        seatHolds.hold("F1", List.of("1A"), "b@c.com");
+
+        Map<String, Object> resp = service.bookTicketAsync("F1", request("1A")).get();
+
+        assertEquals("FAILED", resp.get("status"));
+        assertEquals("Requested seats are held by another customer", resp.get("message"));
+        verify(flightClient, never()).getFlightInfo(any());
+    }
+
+    @Test
+    void testSeatsAlreadySoldSkipFlightService() throws Exception {
+        soldSeats.markSold("F1", List.of("1A"));
+
+        Map<String, Object> resp = service.bookTicketAsync("F1", request("1A")).get();
+
+        assertEquals("Requested seats are unavailable", resp.get("message"));
+        verify(flightClient, never()).getFlightInfo(any());
+    }
+
+    @Test
+    void testFlightServiceErrorFallsBack() throws Exception {
+        when(flightClient.getFlightInfo("F1")).thenReturn(CompletableFuture.failedFuture(new RuntimeException("down")));
+
+        Map<String, Object> resp = service.bookTicketAsync("F1", request("1A")).get();
+
+        assertEquals("FAILED", resp.get("status"));
+        assertEquals("Cannot book right now: Flight service is unavailable", resp.get("message"));
+    }
+
+    @Test
+    void testFailedInsertReleasesSeats() {
+        RuntimeException dbDown = new RuntimeException("db down");
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory("1A"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("message", "Reserved")));
+        when(flightClient.releaseSeats(eq("F1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("message", "Released")));
+        when(bookingWriter.insert(any(Booking.class))).thenThrow(dbDown);
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> service.bookTicketAsync("F1", request("1A")).get());
+
+        assertSame(dbDown, ex.getCause());
+        verify(flightClient, times(1)).releaseSeats(eq("F1"), anyMap());
+    }
+
+    @Test
+    void testLeaseLostAfterReserveReleasesSeats() {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory("1A"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenAnswer(invocation -> {
+            // the node lease is not renewed while the seats are being reserved
+            pnrGenerator.assignNode(1, System.currentTimeMillis());
+            return CompletableFuture.completedFuture(Map.of("message", "Reserved"));
+        });
+        when(flightClient.releaseSeats(eq("F1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("message", "Released")));
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> service.bookTicketAsync("F1", request("1A")).get());
+
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+        verify(flightClient, times(1)).releaseSeats("F1", Map.of("seatNumbers", List.of("1A")));
+        verify(bookingWriter, never()).insert(any(Booking.class));
+    }
+
+    @Test
+    void testSaturatedDbExecutorReleasesSeats() throws Exception {
+        // one worker, no queue, and the worker is busy: the next insert is rejected
+        ThreadPoolExecutor dbExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+        CountDownLatch busy = new CountDownLatch(1);
+        dbExecutor.execute(() -> {
+            try {
+                busy.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        FlightServiceClient flightService = new FlightServiceClient(null, flightClient,
+                new FlightCallGuard(BulkheadRegistry.ofDefaults(), 20, 2, 50,
+                        Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1)),
+                new FlightInfoCoalescer(Duration.ofSeconds(1)), CircuitBreakerRegistry.ofDefaults());
+        AsyncBookingServiceImpl saturated = new AsyncBookingServiceImpl(flightService, bookingWriter,
+                new FlightInfoCache(Duration.ofMinutes(1), 100),
+                new PnrGenerator(1, System::currentTimeMillis),
+                seatHolds, soldSeats, dbExecutor);
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory("1A"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("message", "Reserved")));
+        when(flightClient.releaseSeats(eq("F1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("message", "Released")));
+
+        try {
+            CompletableFuture<Map<String, Object>> result = saturated.bookTicketAsync("F1", request("1A"));
+
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+            verify(flightClient, times(1)).releaseSeats(eq("F1"), anyMap());
+            verify(bookingWriter, never()).insert(any(Booking.class));
+            assertFalse(soldSeats.anySold("F1", List.of("1A")));
+        } finally {
+            busy.countDown();
+            dbExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void testCountMismatchFailsFuture() {
+        BookingRequest req = request("1A");
+        req.setNumberOfSeats(2);
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> service.bookTicketAsync("F1", req).get());
+        assertEquals("numberOfSeats must equal number of passengers", ex.getCause().getMessage());
+    }
+}
@@ -2,15 +2,27 @@ package com.booking.test;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,10 +31,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.booking.controller.BookingController;
+import com.booking.idempotency.IdempotencyGuard;
+import com.booking.request.BatchBookingRequest;
 import com.booking.request.BookingRequest;
 import com.booking.request.PassengerRequest;
+import com.booking.request.SeatHoldRequest;
+import com.booking.service.AsyncBookingService;
+import com.booking.service.BookingHistoryExporter;
 import com.booking.service.BookingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -35,6 +53,15 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingHistoryExporter historyExporter;
+
+    @MockBean
+    private IdempotencyGuard idempotencyGuard;
+
+    @MockBean
+    private AsyncBookingService asyncBookingService;
+
     private ObjectMapper mapper = new ObjectMapper();
 
     private BookingRequest sampleRequest() {
@@ -62,6 +89,66 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.pnr").value("P1"));
     }
 
+    @Test
+    void bookBatch_returns201() throws Exception {
+        BatchBookingRequest batch = new BatchBookingRequest();
+        batch.setBookings(List.of(sampleRequest()));
+        when(bookingService.bookBatch(eq("F1"), any(BatchBookingRequest.class))).thenReturn(Map.of("flightId","F1","booked",1));
+
+        mockMvc.perform(post("/api/flight/booking/F1/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(batch)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.booked").value(1));
+    }
+
+    @Test
+    void bookBatch_rejectsEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/flight/booking/F1/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookings\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void holdSeats_returns201() throws Exception {
+        SeatHoldRequest req = new SeatHoldRequest();
+        req.setEmail("a@b.com");
+        req.setSeatNumbers(List.of("1A"));
+        when(bookingService.holdSeats(eq("F1"), any(SeatHoldRequest.class))).thenReturn(Map.of("holdId","H1","message","Seats held"));
+
+        mockMvc.perform(post("/api/flight/booking/F1/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.holdId").value("H1"));
+    }
+
+    @Test
+    void extendHold_returns404_whenHoldGone() throws Exception {
+        when(bookingService.extendHold("H1")).thenThrow(new RuntimeException("Hold not found or expired"));
+        mockMvc.perform(put("/api/flight/booking/holds/H1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void releaseHold_returns200() throws Exception {
+        when(bookingService.releaseHold("H1")).thenReturn(Map.of("holdId","H1","message","Hold released"));
+        mockMvc.perform(delete("/api/flight/booking/holds/H1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Hold released"));
+    }
+
+    @Test
+    void bookHeldSeats_returns201() throws Exception {
+        when(bookingService.bookHeldSeats(eq("F1"), eq("H1"), any(BookingRequest.class))).thenReturn(Map.of("pnr","P1"));
+        mockMvc.perform(post("/api/flight/booking/F1/holds/H1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(sampleRequest())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.pnr").value("P1"));
+    }
+
     @Test
     void getTicket_returns200() throws Exception {
         when(bookingService.getTicketByPnr("P1")).thenReturn(Map.of("pnr","P1","flightId","F1"));
@@ -72,12 +159,68 @@ class BookingControllerTest {
 
     @Test
     void getHistory_returns200() throws Exception {
-        when(bookingService.getBookingHistory("a@b.com")).thenReturn(Map.of("email","a@b.com","history",List.of()));
+        when(bookingService.getBookingHistory("a@b.com", null, 50)).thenReturn(Map.of("email","a@b.com","history",List.of()));
         mockMvc.perform(get("/api/flight/booking/history/a@b.com"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.email").value("a@b.com"));
     }
 
+    @Test
+    void getHistory_passesKeysetParams() throws Exception {
+        when(bookingService.getBookingHistory("a@b.com", 42L, 10))
+                .thenReturn(Map.of("email","a@b.com","history",List.of(),"nextAfter",52));
+        mockMvc.perform(get("/api/flight/booking/history/a@b.com").param("after", "42").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextAfter").value(52));
+    }
+
+    @Test
+    void bookTicket_withIdempotencyKey_returnsGuardOutcome() throws Exception {
+        when(idempotencyGuard.execute(eq("K1"), startsWith("F1:"), any()))
+                .thenReturn(new IdempotencyGuard.Outcome(Map.of("pnr","P1","message","Booking successful"), true));
+
+        mockMvc.perform(post("/api/flight/booking/F1")
+                        .header("Idempotency-Key", "K1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(sampleRequest())))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.pnr").value("P1"));
+        verify(bookingService, never()).bookTicket(any(), any());
+    }
+
+    @Test
+    void bookTicketAsync_returns201() throws Exception {
+        when(asyncBookingService.bookTicketAsync(eq("F1"), any(BookingRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("pnr","P1","message","Booking successful")));
+
+        MvcResult started = mockMvc.perform(post("/api/flight/booking/F1/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(sampleRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.pnr").value("P1"));
+    }
+
+    @Test
+    void streamHistory_writesNdjson() throws Exception {
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(1);
+            out.write("{\"pnr\":\"P1\"}\n{\"pnr\":\"P2\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(historyExporter).writeNdjson(eq("a@b.com"), any(OutputStream.class));
+
+        MvcResult started = mockMvc.perform(get("/api/flight/booking/history/a@b.com/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"pnr\":\"P1\"}\n{\"pnr\":\"P2\"}\n"));
+    }
+
     @Test
     void cancelBooking_returns200() throws Exception {
         when(bookingService.cancelBooking("P1")).thenReturn(Map.of("pnr","P1","message","Ticket cancelled successfully"));
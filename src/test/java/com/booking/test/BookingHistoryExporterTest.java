@@ -0,0 +1,131 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.booking.model.BookingStatus;
+import com.booking.repositories.BookingHistoryRow;
+import com.booking.repositories.BookingRepository;
+import com.booking.service.BookingHistoryExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class BookingHistoryExporterTest {
+
+    private static final int PAGE = BookingHistoryExporter.PAGE_SIZE;
+
+    @Mock
+    private BookingRepository bookingRepo;
+
+    private BookingHistoryExporter exporter;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        exporter = new BookingHistoryExporter(bookingRepo, new ObjectMapper());
+    }
+
+    // Output that counts the lines that have actually left the exporter.
+    static class LineCounter extends OutputStream {
+        final AtomicLong lines = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+
+        @Override
+        public void write(int b) {
+            bytes.incrementAndGet();
+            if (b == '\n') lines.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) write(b[i]);
+        }
+    }
+
+    // Serves `total` bookings a page at a time, generated only when asked for.
+    private void history(String email, long total, Runnable onPage) {
+        when(bookingRepo.findHistoryPage(eq(email), anyLong(), any(Pageable.class))).thenAnswer(inv -> {
+            onPage.run();
+            long after = inv.getArgument(1);
+            Pageable page = inv.getArgument(2);
+            return LongStream.rangeClosed(after + 1, Math.min(total, after + page.getPageSize()))
+                    .mapToObj(id -> new BookingHistoryRow(id, "PNR" + id, "AI-" + (id % 40), BookingStatus.CONFIRMED))
+                    .toList();
+        });
+    }
+
+    @Test
+    void testWritesOneJsonObjectPerLine() {
+        when(bookingRepo.findHistoryPage("a@b.com", 0L, PageRequest.of(0, PAGE))).thenReturn(List.of(
+                new BookingHistoryRow(1L, "P1", "F1", BookingStatus.CONFIRMED),
+                new BookingHistoryRow(2L, "P2", "F2", BookingStatus.CANCELLED)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = exporter.writeNdjson("a@b.com", out);
+
+        assertEquals(2, written);
+        assertEquals("{\"pnr\":\"P1\",\"flightId\":\"F1\",\"status\":\"CONFIRMED\"}\n"
+                + "{\"pnr\":\"P2\",\"flightId\":\"F2\",\"status\":\"CANCELLED\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFirstLineIsFlushedBeforeSecondPageIsRead() {
+        AtomicInteger pages = new AtomicInteger();
+        history("a@b.com", 3L * PAGE, pages::incrementAndGet);
+        AtomicInteger pagesAtFirstFlush = new AtomicInteger(-1);
+        LineCounter out = new LineCounter() {
+            @Override
+            public void flush() {
+                if (pagesAtFirstFlush.get() < 0 && lines.get() > 0) pagesAtFirstFlush.set(pages.get());
+            }
+        };
+
+        exporter.writeNdjson("a@b.com", out);
+
+        assertEquals(1, pagesAtFirstFlush.get());
+    }
+
+    // 100k bookings: rows are fetched lazily, one page per query, and every row of a page has
+    // reached the output before the next page is asked for, so at most one page is ever buffered.
+    @Test
+    void testBuffersAtMostOnePageFor100kBookings() {
+        long total = 100_000;
+        LineCounter out = new LineCounter();
+        AtomicLong fetched = new AtomicLong();
+        AtomicLong maxBuffered = new AtomicLong();
+        AtomicInteger pages = new AtomicInteger();
+        history("corp@b.com", total, () -> {
+            pages.incrementAndGet();
+            maxBuffered.accumulateAndGet(fetched.get() - out.lines.get(), Math::max);
+            fetched.set(Math.min(total, (long) pages.get() * PAGE));
+        });
+
+        long written = exporter.writeNdjson("corp@b.com", out);
+
+        assertEquals(total, written);
+        assertEquals(total, out.lines.get());
+        assertTrue(out.bytes.get() > total * 40);
+        assertEquals(0, maxBuffered.get(), "rows still buffered when the next page was read");
+        // exactly one page per PAGE rows, plus the empty page that ends the export
+        assertEquals(total / PAGE + 1, pages.get());
+    }
+}
@@ -1,32 +1,65 @@
 package com.booking.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
 
+import com.booking.cache.FlightInfoCache;
+import com.booking.cache.FlightInfoCoalescer;
+import com.booking.cache.LocalTicketCacheBackend;
+import com.booking.cache.TicketCache;
+import com.booking.cache.TicketView;
+import com.booking.feign.FlightCallGuard;
+import com.booking.feign.FlightInventory;
+import com.booking.feign.FlightServiceClient;
+import com.booking.feign.SeatSet;
+import com.booking.hold.SeatHoldEngine;
+import com.booking.inventory.SoldSeatIndex;
+import com.booking.metrics.BookingMetrics;
 import com.booking.model.Booking;
 import com.booking.model.BookingStatus;
-import com.booking.model.Passenger;
+import com.booking.model.SeatRelease;
+import com.booking.model.SeatReleaseStatus;
+import com.booking.pnr.PnrGenerator;
+import com.booking.repositories.BookingHistoryRow;
 import com.booking.repositories.BookingRepository;
+import com.booking.repositories.SeatReleaseRepository;
+import com.booking.request.BatchBookingRequest;
 import com.booking.request.BookingRequest;
 import com.booking.request.PassengerRequest;
+import com.booking.request.SeatHoldRequest;
 import com.booking.service.BookingServiceImpl;
+import com.booking.service.BookingWriter;
+import com.booking.service.TicketReader;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class BookingServiceImplTest {
 
@@ -34,10 +67,43 @@ class BookingServiceImplTest {
     private BookingRepository bookingRepo;
 
     @Mock
-    private com.booking.feign.FeignInterface flightClient;
+    private BookingWriter bookingWriter;
+
+    @Mock
+    private SeatReleaseRepository seatReleaseRepo;
+
+    // the real resilience layer over a mocked Feign client, so fallbacks behave as in production
+    private final com.booking.feign.FeignInterface flightClient = mock(com.booking.feign.FeignInterface.class);
 
     @Mock
-    private com.booking.publisher.EmailPublisher emailPublisher;
+    private TicketReader ticketReader;
+
+    @Spy
+    private FlightInfoCache flightInfoCache = new FlightInfoCache(Duration.ofMinutes(1), 100);
+
+    @Spy
+    private FlightServiceClient flightService = new FlightServiceClient(flightClient, null,
+            new FlightCallGuard(BulkheadRegistry.ofDefaults(), 20, 2, 50,
+                    Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1)),
+            new FlightInfoCoalescer(Duration.ofSeconds(1)), CircuitBreakerRegistry.ofDefaults());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BookingMetrics metrics = new BookingMetrics(meterRegistry);
+
+    @Spy
+    private PnrGenerator pnrGenerator = new PnrGenerator(1, System::currentTimeMillis);
+
+    @Spy
+    private SeatHoldEngine seatHolds = new SeatHoldEngine(Duration.ofMinutes(5), Duration.ofMinutes(15), 9,
+            System::currentTimeMillis);
+
+    @Spy
+    private SoldSeatIndex soldSeats = new SoldSeatIndex(100);
+
+    @Spy
+    private TicketCache ticketCache = new TicketCache(new LocalTicketCacheBackend(Duration.ofMinutes(1), 100));
 
     @InjectMocks
     private BookingServiceImpl service;
@@ -62,6 +128,10 @@ class BookingServiceImplTest {
         return req;
     }
 
+    private FlightInventory inventory(double price, String... seats) {
+        return new FlightInventory(false, null, null, price, null, SeatSet.of(List.of(seats)));
+    }
+
     @Test
     void bookTicket_shouldThrow_whenPassengerCountMismatch() {
         BookingRequest req = sampleRequest();
@@ -90,24 +160,27 @@ class BookingServiceImplTest {
     @Test
     void bookTicket_shouldReturnFailed_whenSeatsUnavailable() {
         BookingRequest req = sampleRequest();
-        when(flightClient.getFlightInfo("F1")).thenReturn(Map.of(
-            "fallback", false,
-            "availableSeatNumbers", List.of("2A","2B"),
-            "price", 100
-        ));
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "2A","2B"));
         Map<String,Object> resp = service.bookTicket("F1", req);
         assertEquals("FAILED", resp.get("status"));
         assertTrue(String.valueOf(resp.get("message")).toLowerCase().contains("unavailable"));
     }
 
+    @Test
+    void bookTicket_shouldReturnFailed_whenPriceUnreadable() {
+        BookingRequest req = sampleRequest();
+        when(flightClient.getFlightInfo("F1"))
+                .thenReturn(new FlightInventory(false, null, null, null, null, SeatSet.of(List.of("1A", "1B"))));
+        Map<String,Object> resp = service.bookTicket("F1", req);
+        assertEquals("FAILED", resp.get("status"));
+        assertEquals("Cannot book right now: Flight price is unavailable", resp.get("message"));
+        verify(flightClient, never()).reserveSeats(eq("F1"), anyMap());
+    }
+
     @Test
     void bookTicket_shouldReturnFailed_whenReserveFallback() {
         BookingRequest req = sampleRequest();
-        when(flightClient.getFlightInfo("F1")).thenReturn(Map.of(
-            "fallback", false,
-            "availableSeatNumbers", List.of("1A","1B"),
-            "price", 50
-        ));
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(50, "1A","1B"));
         when(flightClient.reserveSeats(eq("F1"), anyMap())).thenThrow(new RuntimeException("down"));
         Map<String,Object> resp = service.bookTicket("F1", req);
         assertEquals("FAILED", resp.get("status"));
@@ -117,11 +190,7 @@ class BookingServiceImplTest {
     @Test
     void bookTicket_shouldReturnFailed_whenReserveReturnsNonReserved() {
         BookingRequest req = sampleRequest();
-        when(flightClient.getFlightInfo("F1")).thenReturn(Map.of(
-            "fallback", false,
-            "availableSeatNumbers", List.of("1A","1B"),
-            "price", 40
-        ));
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(40, "1A","1B"));
         when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Something else"));
         Map<String,Object> resp = service.bookTicket("F1", req);
         assertEquals("FAILED", resp.get("status"));
@@ -130,18 +199,14 @@ class BookingServiceImplTest {
     @Test
     void bookTicket_shouldSucceed_andSaveBooking_andPublishEmail() {
         BookingRequest req = sampleRequest();
-        when(flightClient.getFlightInfo("F1")).thenReturn(Map.of(
-            "fallback", false,
-            "availableSeatNumbers", List.of("1A","1B","1C"),
-            "price", 200
-        ));
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(200, "1A","1B","1C"));
         when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Reserved"));
 
         doAnswer(invocation -> {
             Booking b = invocation.getArgument(0);
             b.setId(100L);
             return b;
-        }).when(bookingRepo).save(any(Booking.class));
+        }).when(bookingWriter).insert(any(Booking.class));
 
         Map<String,Object> resp = service.bookTicket("F1", req);
 
@@ -149,16 +214,247 @@ class BookingServiceImplTest {
         assertEquals("Booking successful", resp.get("message"));
         assertTrue(((Number)resp.get("totalPrice")).doubleValue() > 0);
 
-        verify(bookingRepo, times(1)).save(any(Booking.class));
-        verify(emailPublisher, times(1)).publishEmailEvent(any());
+        verify(bookingWriter, times(1)).insert(any(Booking.class));
+    }
+
+    @Test
+    void bookTicket_shouldTimeEveryStage_andCountOutcome() {
+        BookingRequest req = sampleRequest();
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(200, "1A","1B"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Reserved"));
+        when(bookingWriter.insert(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        when(flightClient.getFlightInfo("F3")).thenReturn(inventory(200, "1A","1B"));
+        service.bookTicket("F1", req);
+        service.bookTicket("F3", req);
+
+        for (String stage : List.of("validation", "flightInfo", "seatCheck", "reserve", "persist")) {
+            assertEquals(2, meterRegistry.get("booking.stage").tag("flow", "book").tag("stage", stage).timer().count(), stage);
+        }
+        assertEquals(2, meterRegistry.get("booking.requests").tag("outcome", "booked").timer().count());
+
+        when(flightClient.getFlightInfo("F2")).thenReturn(inventory(200, "2A"));
+        service.bookTicket("F2", req);
+        assertEquals(1, meterRegistry.get("booking.requests").tag("outcome", "failed").timer().count());
+        assertEquals(2, meterRegistry.get("booking.stage").tag("stage", "reserve").timer().count());
+    }
+
+    @Test
+    void bookTicket_shouldRejectSeatsItSold_withoutCallingFlightService() {
+        BookingRequest req = sampleRequest();
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(200, "1A","1B"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Reserved"));
+        when(bookingWriter.insert(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertTrue(service.bookTicket("F1", req).containsKey("pnr"));
+        flightInfoCache.invalidate("F1");
+        Map<String,Object> resp = service.bookTicket("F1", req);
+
+        assertEquals("FAILED", resp.get("status"));
+        assertEquals("Requested seats are unavailable", resp.get("message"));
+        verify(flightClient, times(1)).getFlightInfo("F1");
+        verify(flightClient, times(1)).reserveSeats(eq("F1"), anyMap());
+    }
+
+    @Test
+    void bookTicket_shouldReleaseSeats_whenInsertFails() {
+        BookingRequest req = sampleRequest();
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(200, "1A","1B"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Reserved"));
+        when(bookingWriter.insert(any(Booking.class))).thenThrow(new RuntimeException("db down"));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.bookTicket("F1", req));
+
+        assertEquals("db down", ex.getMessage());
+        verify(flightClient, times(1)).releaseSeats("F1", Map.of("seatNumbers", List.of("1A", "1B")));
+    }
+
+    @Test
+    void bookTicket_shouldReleaseSeats_whenLeaseLostAfterReserve() {
+        BookingRequest req = sampleRequest();
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(200, "1A","1B"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenAnswer(invocation -> {
+            // the node lease is not renewed while the seats are being reserved
+            pnrGenerator.assignNode(1, System.currentTimeMillis());
+            return Map.of("message", "Reserved");
+        });
+
+        assertThrows(IllegalStateException.class, () -> service.bookTicket("F1", req));
+
+        verify(flightClient, times(1)).releaseSeats("F1", Map.of("seatNumbers", List.of("1A", "1B")));
+        verify(bookingWriter, never()).insert(any(Booking.class));
+    }
+
+    private BookingRequest singleSeat(String seat) {
+        BookingRequest req = sampleRequest();
+        req.setNumberOfSeats(1);
+        req.setPassengers(List.of(req.getPassengers().get(0)));
+        req.setSeatNumbers(List.of(seat));
+        return req;
+    }
+
+    @Test
+    void bookBatch_shouldReserveUnionOnce_andInsertAllTogether() {
+        BatchBookingRequest batch = new BatchBookingRequest();
+        batch.setBookings(List.of(sampleRequest(), singleSeat("1C"), singleSeat("9Z"), singleSeat("1A")));
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "1A","1B","1C"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Reserved"));
+        when(bookingWriter.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Map<String,Object> resp = service.bookBatch("F1", batch);
+
+        assertEquals(2, resp.get("booked"));
+        assertEquals(2, resp.get("failed"));
+        List<?> results = (List<?>) resp.get("results");
+        assertEquals("CONFIRMED", ((Map<?,?>) results.get(0)).get("status"));
+        assertEquals("CONFIRMED", ((Map<?,?>) results.get(1)).get("status"));
+        assertEquals("Requested seats are unavailable", ((Map<?,?>) results.get(2)).get("message"));
+        assertEquals("Seat requested more than once in this batch", ((Map<?,?>) results.get(3)).get("message"));
+
+        verify(flightClient, times(1)).getFlightInfo("F1");
+        verify(flightClient, times(1)).reserveSeats("F1", Map.of("seatNumbers", List.of("1A", "1B", "1C")));
+        verify(bookingWriter, times(1)).insertAll(anyList());
+    }
+
+    @Test
+    void bookBatch_shouldReleaseSeats_whenLeaseLostAfterReserve() {
+        BatchBookingRequest batch = new BatchBookingRequest();
+        batch.setBookings(List.of(singleSeat("1A"), singleSeat("1B")));
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "1A","1B"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenAnswer(invocation -> {
+            pnrGenerator.assignNode(1, System.currentTimeMillis());
+            return Map.of("message", "Reserved");
+        });
+
+        assertThrows(IllegalStateException.class, () -> service.bookBatch("F1", batch));
+
+        verify(flightClient, times(1)).releaseSeats("F1", Map.of("seatNumbers", List.of("1A", "1B")));
+        verify(bookingWriter, never()).insertAll(anyList());
+    }
+
+    @Test
+    void bookBatch_shouldFailAccepted_whenReserveFails() {
+        BatchBookingRequest batch = new BatchBookingRequest();
+        batch.setBookings(List.of(singleSeat("1A"), singleSeat("1B")));
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "1A","1B"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Something else"));
+
+        Map<String,Object> resp = service.bookBatch("F1", batch);
+
+        assertEquals(0, resp.get("booked"));
+        verify(bookingWriter, times(0)).insertAll(anyList());
+    }
+
+    @Test
+    void safeGetFlightInfo_shouldServeRepeatLookupsFromCache() {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "1A"));
+
+        service.safeGetFlightInfo("F1");
+        service.safeGetFlightInfo("F1");
+
+        verify(flightClient, times(1)).getFlightInfo("F1");
+    }
+
+    @Test
+    void safeGetFlightInfo_shouldNotCacheFallback() {
+        when(flightClient.getFlightInfo("F1")).thenThrow(new RuntimeException("down")).thenReturn(inventory(100, "1A"));
+
+        assertTrue(service.safeGetFlightInfo("F1").isUnavailable());
+        assertFalse(service.safeGetFlightInfo("F1").isUnavailable());
+    }
+
+    @Test
+    void safeReserveSeats_shouldInvalidateCachedFlightInfo() {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "1A"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Reserved"));
+
+        service.safeGetFlightInfo("F1");
+        service.safeReserveSeats("F1", Map.of("seatNumbers", List.of("1A")));
+        service.safeGetFlightInfo("F1");
+
+        verify(flightClient, times(2)).getFlightInfo("F1");
+    }
+
+    private SeatHoldRequest holdRequest(String email, String... seats) {
+        SeatHoldRequest req = new SeatHoldRequest();
+        req.setEmail(email);
+        req.setSeatNumbers(List.of(seats));
+        return req;
+    }
+
+    @Test
+    void holdSeats_shouldBlockOtherBookings_untilReleased() {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "1A", "1B", "1C"));
+        Map<String,Object> held = service.holdSeats("F1", holdRequest("other@b.com", "1B"));
+        assertTrue(held.containsKey("holdId"));
+
+        Map<String,Object> resp = service.bookTicket("F1", sampleRequest());
+        assertEquals("FAILED", resp.get("status"));
+        assertEquals("Requested seats are held by another customer", resp.get("message"));
+        verify(flightClient, never()).reserveSeats(any(), anyMap());
+
+        service.releaseHold((String) held.get("holdId"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Reserved"));
+        assertTrue(service.bookTicket("F1", sampleRequest()).containsKey("pnr"));
+    }
+
+    @Test
+    void holdSeats_shouldReportConflictingSeats() {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "1A", "1B"));
+        service.holdSeats("F1", holdRequest("other@b.com", "1B"));
+
+        Map<String,Object> resp = service.holdSeats("F1", holdRequest("a@b.com", "1A", "1B"));
+        assertEquals("FAILED", resp.get("status"));
+        assertEquals(List.of("1B"), resp.get("seatNumbers"));
+        // all or nothing: 1A was not held either
+        assertTrue(service.holdSeats("F1", holdRequest("c@b.com", "1A")).containsKey("holdId"));
+    }
+
+    @Test
+    void holdSeats_shouldRejectSoldSeats() {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "2A"));
+        Map<String,Object> resp = service.holdSeats("F1", holdRequest("a@b.com", "1A"));
+        assertEquals("Requested seats are unavailable", resp.get("message"));
+    }
+
+    @Test
+    void bookHeldSeats_shouldBookAndFreeTheHold() {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "1A", "1B"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Reserved"));
+        String holdId = (String) service.holdSeats("F1", holdRequest("a@b.com", "1B", "1A")).get("holdId");
+
+        Map<String,Object> resp = service.bookHeldSeats("F1", holdId, sampleRequest());
+
+        assertEquals("Booking successful", resp.get("message"));
+        verify(seatHolds).release(holdId);
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> service.extendHold(holdId));
+        assertTrue(ex.getMessage().contains("Hold not found"));
+    }
+
+    @Test
+    void bookHeldSeats_shouldKeepHold_whenBookingFails() {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "1A", "1B"));
+        when(flightClient.reserveSeats(eq("F1"), anyMap())).thenReturn(Map.of("message", "Conflict"));
+        String holdId = (String) service.holdSeats("F1", holdRequest("a@b.com", "1A", "1B")).get("holdId");
+
+        Map<String,Object> resp = service.bookHeldSeats("F1", holdId, sampleRequest());
+
+        assertEquals("FAILED", resp.get("status"));
+        assertEquals("Hold extended", service.extendHold(holdId).get("message"));
+    }
+
+    @Test
+    void bookHeldSeats_shouldThrow_whenSeatsDifferFromHold() {
+        when(flightClient.getFlightInfo("F1")).thenReturn(inventory(100, "1A", "1B", "1C"));
+        String holdId = (String) service.holdSeats("F1", holdRequest("a@b.com", "1A", "1C")).get("holdId");
+
+        assertThrows(RuntimeException.class, () -> service.bookHeldSeats("F1", holdId, sampleRequest()));
+        assertThrows(RuntimeException.class, () -> service.bookHeldSeats("F2", holdId, sampleRequest()));
     }
 
     @Test
     void getTicketByPnr_shouldReturn_whenFound() {
-        Booking b = new Booking();
-        b.setPnr("PNR1"); b.setFlightId("F1"); b.setStatus(BookingStatus.CONFIRMED);
-        b.setSeatNumbers(List.of("1A")); b.setPassengers(List.of(new Passenger()));
-        when(bookingRepo.findByPnr("PNR1")).thenReturn(b);
+        when(ticketReader.load("PNR1")).thenReturn(ticket("PNR1", "CONFIRMED"));
 
         Map<String,Object> resp = service.getTicketByPnr("PNR1");
         assertEquals("PNR1", resp.get("pnr"));
@@ -166,19 +462,70 @@ class BookingServiceImplTest {
 
     @Test
     void getTicketByPnr_shouldThrow_whenNotFound() {
-        when(bookingRepo.findByPnr("X")).thenReturn(null);
+        when(ticketReader.load("X")).thenReturn(null);
         RuntimeException ex = assertThrows(RuntimeException.class, () -> service.getTicketByPnr("X"));
         assertTrue(ex.getMessage().contains("Booking not found"));
     }
 
     @Test
-    void getBookingHistory_shouldReturnList() {
+    void getTicketByPnr_shouldServeRepeatLookupsFromCache() {
+        when(ticketReader.load("PNR1")).thenReturn(ticket("PNR1", "CONFIRMED"));
+
+        service.getTicketByPnr("PNR1");
+        Map<String,Object> resp = service.getTicketByPnr("PNR1");
+
+        assertEquals(List.of("1A"), resp.get("seatNumbers"));
+        verify(ticketReader, times(1)).load("PNR1");
+    }
+
+    @Test
+    void cancelBooking_shouldInvalidateCachedTicket() {
         Booking b = new Booking();
         b.setPnr("P1"); b.setFlightId("F1"); b.setStatus(BookingStatus.CONFIRMED);
-        when(bookingRepo.findByEmail("a@b.com")).thenReturn(List.of(b));
-        Map<String,Object> resp = service.getBookingHistory("a@b.com");
+        b.setSeatNumbers(List.of("1A"));
+        when(bookingRepo.findByPnr("P1")).thenReturn(b);
+        when(ticketReader.load("P1")).thenReturn(ticket("P1", "CONFIRMED"), ticket("P1", "CANCELLED"));
+
+        assertEquals("CONFIRMED", service.getTicketByPnr("P1").get("status"));
+        service.cancelBooking("P1");
+
+        assertEquals("CANCELLED", service.getTicketByPnr("P1").get("status"));
+        verify(ticketCache).invalidate("P1");
+    }
+
+    private static TicketView ticket(String pnr, String status) {
+        return new TicketView(pnr, "F1", status, List.of("1A"),
+                List.of(new TicketView.PassengerView(1L, "Alice", "F", 30)));
+    }
+
+    @Test
+    void getBookingHistory_shouldReturnList() {
+        when(bookingRepo.findHistoryPage("a@b.com", 0L, PageRequest.of(0, 51)))
+                .thenReturn(List.of(new BookingHistoryRow(1L, "P1", "F1", BookingStatus.CONFIRMED)));
+        Map<String,Object> resp = service.getBookingHistory("a@b.com", null, 50);
         assertEquals("a@b.com", resp.get("email"));
         assertTrue(((List<?>)resp.get("history")).size() == 1);
+        assertFalse(resp.containsKey("nextAfter"));
+    }
+
+    @Test
+    void getBookingHistory_shouldReturnKeysetCursor_whenMoreRows() {
+        when(bookingRepo.findHistoryPage("a@b.com", 10L, PageRequest.of(0, 3))).thenReturn(List.of(
+                new BookingHistoryRow(11L, "P11", "F1", BookingStatus.CONFIRMED),
+                new BookingHistoryRow(14L, "P14", "F1", BookingStatus.CANCELLED),
+                new BookingHistoryRow(20L, "P20", "F2", BookingStatus.CONFIRMED)));
+
+        Map<String,Object> resp = service.getBookingHistory("a@b.com", 10L, 2);
+
+        assertEquals(2, ((List<?>)resp.get("history")).size());
+        assertEquals(14L, resp.get("nextAfter"));
+        verify(bookingRepo, never()).findByEmail(any());
+    }
+
+    @Test
+    void getBookingHistory_shouldRejectBadLimit() {
+        assertThrows(RuntimeException.class, () -> service.getBookingHistory("a@b.com", null, 0));
+        assertThrows(RuntimeException.class, () -> service.getBookingHistory("a@b.com", null, 10_000));
     }
 
     @Test
@@ -189,12 +536,12 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void cancelBooking_shouldSucceed_andAttemptRelease() {
+    void cancelBooking_shouldSucceed_andQueueRelease() {
         Booking b = new Booking();
         b.setPnr("P1"); b.setFlightId("F1"); b.setStatus(BookingStatus.CONFIRMED);
-        b.setSeatNumbers(List.of("1A"));
+        b.setSeatNumbers(List.of("1A", "1B"));
         when(bookingRepo.findByPnr("P1")).thenReturn(b);
-        when(flightClient.releaseSeats(eq("F1"), anyMap())).thenThrow(new RuntimeException("down"));
+        soldSeats.markSold("F1", List.of("1A", "1B"));
 
         doAnswer(invocation -> {
             Booking saved = invocation.getArgument(0);
@@ -205,5 +552,28 @@ class BookingServiceImplTest {
         assertEquals("P1", resp.get("pnr"));
         assertTrue(String.valueOf(resp.get("message")).toLowerCase().contains("cancelled"));
         verify(bookingRepo, times(1)).save(any(Booking.class));
+
+        ArgumentCaptor<SeatRelease> release = ArgumentCaptor.forClass(SeatRelease.class);
+        verify(seatReleaseRepo).save(release.capture());
+        assertEquals("F1", release.getValue().getFlightId());
+        assertEquals(List.of("1A", "1B"), release.getValue().seatList());
+        assertEquals(SeatReleaseStatus.PENDING, release.getValue().getStatus());
+        // the flight service is left to SeatReleaseWorker
+        verify(flightClient, never()).releaseSeats(anyString(), anyMap());
+        assertFalse(soldSeats.anySold("F1", List.of("1A")));
+        assertEquals(1, meterRegistry.get("booking.requests").tag("flow", "cancel").tag("outcome", "cancelled").timer().count());
+        assertEquals(1, meterRegistry.get("booking.stage").tag("flow", "cancel").tag("stage", "enqueueRelease").timer().count());
+    }
+
+    @Test
+    void cancelBooking_shouldNotQueueSecondRelease_whenAlreadyCancelled() {
+        Booking b = new Booking();
+        b.setPnr("P1"); b.setFlightId("F1"); b.setStatus(BookingStatus.CANCELLED);
+        b.setSeatNumbers(List.of("1A"));
+        when(bookingRepo.findByPnr("P1")).thenReturn(b);
+
+        assertEquals("P1", service.cancelBooking("P1").get("pnr"));
+        verify(seatReleaseRepo, never()).save(any(SeatRelease.class));
+        verify(bookingRepo, never()).save(any(Booking.class));
     }
 }
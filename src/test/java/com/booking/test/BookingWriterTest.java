@@ -0,0 +1,55 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import com.booking.events.EmailPayload;
+import com.booking.metrics.BookingMetrics;
+import com.booking.model.Booking;
+import com.booking.publisher.EmailPublisher;
+import com.booking.repositories.BookingRepository;
+import com.booking.service.BookingWriter;
+
+class BookingWriterTest {
+
+    @Mock
+    private BookingRepository bookingRepo;
+
+    @Mock
+    private EmailPublisher emailPublisher;
+
+    @Spy
+    private BookingMetrics metrics = BookingMetrics.noop();
+
+    @InjectMocks
+    private BookingWriter writer;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testInsertWritesBookingAndEmailEvent() {
+        Booking b = new Booking();
+        b.setPnr("P1"); b.setEmail("a@b.com"); b.setName("Alice"); b.setFlightId("F1");
+        when(bookingRepo.save(any(Booking.class))).thenReturn(b);
+
+        writer.insert(b);
+
+        ArgumentCaptor<EmailPayload> payload = ArgumentCaptor.forClass(EmailPayload.class);
+        verify(emailPublisher).publishEmailEvent(payload.capture());
+        assertEquals("P1", payload.getValue().getPnr());
+        assertEquals("a@b.com", payload.getValue().getEmail());
+    }
+}
@@ -0,0 +1,145 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.booking.feign.AdaptiveLimiter;
+import com.booking.feign.FlightCallGuard;
+import com.booking.feign.FlightCallRejectedException;
+import com.booking.feign.FlightOperation;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+class FlightCallGuardTest {
+
+    private static FlightCallGuard guard(int bulkheadSize) {
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(
+                BulkheadConfig.custom().maxConcurrentCalls(bulkheadSize).maxWaitDuration(Duration.ZERO).build());
+        return new FlightCallGuard(bulkheads, 20, 2, 50,
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void testFullBulkheadFailsFast() throws Exception {
+        FlightCallGuard guard = guard(1);
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = pool.submit(() -> guard.call(FlightOperation.RESERVE, () -> {
+                inCall.countDown();
+                await(finish);
+                return "Reserved";
+            }));
+            assertTrue(inCall.await(5, TimeUnit.SECONDS));
+
+            AtomicBoolean called = new AtomicBoolean();
+            assertThrows(FlightCallRejectedException.class,
+                    () -> guard.call(FlightOperation.RESERVE, () -> called.getAndSet(true)));
+            assertFalse(called.get());
+            // other operations have their own bulkhead
+            assertEquals("info", guard.call(FlightOperation.INFO, () -> "info"));
+
+            finish.countDown();
+            assertEquals("Reserved", slow.get(5, TimeUnit.SECONDS));
+            assertEquals("again", guard.call(FlightOperation.RESERVE, () -> "again"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAsyncPermitHeldUntilFutureCompletes() {
+        FlightCallGuard guard = guard(1);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = guard.callAsync(FlightOperation.INFO, () -> pending);
+        CompletableFuture<String> second = guard.callAsync(FlightOperation.INFO, () -> CompletableFuture.completedFuture("x"));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, second::get);
+        assertInstanceOf(FlightCallRejectedException.class, ex.getCause());
+
+        pending.complete("done");
+        assertEquals("done", first.join());
+        assertEquals("x", guard.callAsync(FlightOperation.INFO, () -> CompletableFuture.completedFuture("x")).join());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailuresAreCounted() {
+        FlightCallGuard guard = guard(5);
+        assertThrows(IllegalStateException.class, () -> guard.call(FlightOperation.RELEASE, () -> {
+            throw new IllegalStateException("down");
+        }));
+
+        Map<String, Object> release = (Map<String, Object>) guard.stats().get("flightRelease");
+        assertEquals(1L, release.get("calls"));
+        assertEquals(1L, release.get("failed"));
+        assertEquals(5, release.get("bulkheadAvailable"));
+    }
+
+    @Test
+    void testLimiterCutsOncePerSlowWindow() {
+        long target = TimeUnit.MILLISECONDS.toNanos(100);
+        AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 20, target, 0.5);
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        // the whole window comes back slow: one cut, not ten
+        for (int i = 0; i < 10; i++) limiter.release(start, start + 2 * target, true);
+        assertEquals(5, limiter.limit());
+
+        long later = System.nanoTime() + 3 * target;
+        assertTrue(limiter.tryAcquire());
+        limiter.release(later, later + 2 * target, true);
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void testLimiterGrowsWhenFastAndBusy() {
+        long target = TimeUnit.MILLISECONDS.toNanos(100);
+        AdaptiveLimiter limiter = new AdaptiveLimiter(4, 2, 20, target, 0.5);
+        for (int round = 0; round < 20; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) acquired++;
+            long start = System.nanoTime();
+            for (int i = 0; i < acquired; i++) limiter.release(start, start + target / 10, true);
+        }
+        assertTrue(limiter.limit() > 4, "limit " + limiter.limit());
+
+        // an idle dependency answering quickly is no reason to raise the limit
+        AdaptiveLimiter idle = new AdaptiveLimiter(4, 2, 20, target, 0.5);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(idle.tryAcquire());
+            long start = System.nanoTime();
+            idle.release(start, start + target / 10, true);
+        }
+        assertEquals(4, idle.limit());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.booking.feign.FlightInventory;
+import com.booking.feign.SeatSet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class FlightInventoryTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void testDecodeInventoryPayload() throws Exception {
+        String json = "{\"flightId\":\"F1\",\"price\":\"120.5\",\"startDate\":\"2025-06-01T10:30:00\","
+                + "\"availableSeatNumbers\":[\"1A\",\"1B\",\"2C\"]}";
+
+        FlightInventory inv = mapper.readValue(json, FlightInventory.class);
+
+        assertFalse(inv.isUnavailable());
+        assertEquals(120.5, inv.price());
+        assertEquals(LocalDateTime.of(2025, 6, 1, 10, 30), inv.startDate());
+        assertEquals(3, inv.availableSeatNumbers().size());
+        assertTrue(inv.availableSeatNumbers().containsAll(List.of("2C", "1A")));
+        assertFalse(inv.availableSeatNumbers().contains("3A"));
+    }
+
+    @Test
+    void testMissingSeatsDecodeToEmptySet() throws Exception {
+        FlightInventory inv = mapper.readValue("{\"price\":10,\"availableSeatNumbers\":null}", FlightInventory.class);
+        assertEquals(0, inv.availableSeatNumbers().size());
+        assertFalse(inv.availableSeatNumbers().contains("1A"));
+    }
+
+    @Test
+    void testUnreadablePriceAndStartDateDecodeToNull() throws Exception {
+        String json = "{\"price\":\"n/a\",\"startDate\":\"01/06/2025 10:30\",\"availableSeatNumbers\":[\"1A\",\"1B\"]}";
+
+        FlightInventory inv = mapper.readValue(json, FlightInventory.class);
+
+        assertNull(inv.price());
+        assertTrue(inv.unpriced());
+        assertNull(inv.startDate());
+        assertEquals(2, inv.availableSeatNumbers().size());
+        assertFalse(inv.isUnavailable());
+    }
+
+    @Test
+    void testUnavailableInventory() {
+        FlightInventory inv = FlightInventory.unavailable("down");
+        assertTrue(inv.isUnavailable());
+        assertEquals(0, inv.availableSeatNumbers().size());
+    }
+
+    @Test
+    void testSeatSetIgnoresDuplicates() {
+        SeatSet set = SeatSet.of(List.of("1A", "1A", "1B"));
+        assertEquals(2, set.size());
+        assertEquals(List.of("1A", "1B"), set.toList());
+    }
+}
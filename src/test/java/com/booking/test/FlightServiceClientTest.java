@@ -0,0 +1,240 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.booking.cache.FlightInfoCoalescer;
+import com.booking.feign.AsyncFlightClient;
+import com.booking.feign.FeignInterface;
+import com.booking.feign.FlightCallGuard;
+import com.booking.feign.FlightCallRejectedException;
+import com.booking.feign.FlightClientErrorException;
+import com.booking.feign.FlightInventory;
+import com.booking.feign.FlightServiceClient;
+import com.booking.feign.SeatSet;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FlightServiceClientTest {
+
+    private final FeignInterface flightClient = mock(FeignInterface.class);
+    private final AsyncFlightClient asyncFlightClient = mock(AsyncFlightClient.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FlightCallGuard flightCalls;
+    private FlightServiceClient client;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setup() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMillis(100))
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .ignoreExceptions(FlightCallRejectedException.class, FlightClientErrorException.class)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        flightCalls = new FlightCallGuard(BulkheadRegistry.ofDefaults(), 20, 2, 50,
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1));
+        client = new FlightServiceClient(flightClient, asyncFlightClient, flightCalls,
+                new FlightInfoCoalescer(Duration.ofSeconds(1)), Optional.empty(), registry, meterRegistry);
+        breaker = registry.circuitBreaker("flightServiceCB");
+    }
+
+    private static FlightInventory inventory() {
+        return new FlightInventory(false, null, null, 100.0, null, SeatSet.of(List.of("1A")));
+    }
+
+    private void openBreaker() {
+        when(flightClient.getFlightInfo("F1")).thenThrow(new RuntimeException("down"));
+        for (int i = 0; i < 4; i++) client.getFlightInfo("F1");
+    }
+
+    @Test
+    void testFailuresOpenTheBreaker() {
+        openBreaker();
+
+        assertEquals(CircuitBreaker.State.OPEN, client.state());
+        assertEquals(4L, client.stats().get("failed"));
+    }
+
+    @Test
+    void testOpenBreakerShortCircuitsWithoutCallingFeign() {
+        openBreaker();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(client.getFlightInfo("F1").isUnavailable());
+            assertEquals(true, client.reserveSeats("F1", Map.of()).get("fallback"));
+        }
+
+        verify(flightClient, times(4)).getFlightInfo("F1");
+        verify(flightClient, never()).reserveSeats(any(), anyMap());
+        assertEquals(200L, client.stats().get("shortCircuited"));
+    }
+
+    @Test
+    void testHalfOpenSuccessesCloseTheBreaker() throws Exception {
+        openBreaker();
+        Thread.sleep(150);
+        when(flightClient.getFlightInfo("F2")).thenReturn(inventory());
+
+        assertFalse(client.getFlightInfo("F2").isUnavailable());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, client.state());
+        assertFalse(client.getFlightInfo("F2").isUnavailable());
+
+        assertEquals(CircuitBreaker.State.CLOSED, client.state());
+    }
+
+    @Test
+    void testHalfOpenFailureReopensTheBreaker() throws Exception {
+        openBreaker();
+        Thread.sleep(150);
+
+        client.getFlightInfo("F1");
+        client.getFlightInfo("F1");
+
+        assertEquals(CircuitBreaker.State.OPEN, client.state());
+        verify(flightClient, times(6)).getFlightInfo("F1");
+    }
+
+    @Test
+    void testTimeoutsCountedApartFromOtherFailures() {
+        when(flightClient.reserveSeats(any(), anyMap()))
+                .thenThrow(new RuntimeException("Read timed out", new SocketTimeoutException("Read timed out")));
+
+        Map<String, Object> resp = client.reserveSeats("F1", Map.of("seatNumbers", List.of("1A")));
+
+        assertEquals(true, resp.get("fallback"));
+        assertEquals(1L, client.stats().get("timedOut"));
+        assertEquals(0L, client.stats().get("failed"));
+        assertEquals(1, breaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void testRejectedCallsDoNotTripTheBreaker() {
+        when(flightClient.releaseSeats(any(), anyMap())).thenThrow(new FlightCallRejectedException("busy"));
+
+        for (int i = 0; i < 10; i++) client.releaseSeats("F1", Map.of());
+
+        assertEquals(CircuitBreaker.State.CLOSED, client.state());
+        assertEquals(10L, client.stats().get("rejected"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAsyncClientErrorsDoNotTripTheBreaker() {
+        when(asyncFlightClient.getFlightInfo(any())).thenReturn(
+                CompletableFuture.failedFuture(new FlightClientErrorException(404, "FLIGHT-MICROSERVICE returned 404")));
+        when(asyncFlightClient.reserveSeats(any(), anyMap())).thenReturn(
+                CompletableFuture.failedFuture(new FlightClientErrorException(409, "FLIGHT-MICROSERVICE returned 409")));
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(client.getFlightInfoAsync("F" + i).join().isUnavailable());
+            assertEquals(true, client.reserveSeatsAsync("F" + i, Map.of()).join().get("fallback"));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, client.state());
+        assertEquals(0, breaker.getMetrics().getNumberOfFailedCalls());
+        // nor do they count against the adaptive limit
+        Map<String, Object> info = (Map<String, Object>) flightCalls.stats().get("flightInfo");
+        assertEquals(0L, info.get("failed"));
+        assertEquals(20, info.get("limit"));
+    }
+
+    @Test
+    void testAsyncCallsShareTheBreaker() {
+        openBreaker();
+
+        FlightInventory info = client.getFlightInfoAsync("F1").join();
+
+        assertTrue(info.isUnavailable());
+        verify(asyncFlightClient, never()).getFlightInfo(any());
+        assertEquals(1L, client.stats().get("shortCircuited"));
+    }
+
+    @Test
+    void testFallbacksCountedPerMethodAndReason() {
+        openBreaker();
+        client.getFlightInfo("F1");
+        assertEquals(true, client.releaseSeats("F1", Map.of()).get("fallback"));
+
+        assertEquals(4.0, meterRegistry.get("flight.client.fallbacks").tag("method", "getFlightInfo").tag("reason", "failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("flight.client.fallbacks").tag("method", "getFlightInfo").tag("reason", "shortCircuited").counter().count());
+        assertEquals(1.0, meterRegistry.get("flight.client.fallbacks").tag("method", "releaseSeats").tag("reason", "shortCircuited").counter().count());
+        assertEquals(5, meterRegistry.get("flight.client").tag("operation", "getFlightInfo").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void testBurstForOneFlightTakesOneBreakerCall() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightClient.getFlightInfo("F1")).thenAnswer(inv -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return inventory();
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<FlightInventory>> results = new ArrayList<>();
+            results.add(pool.submit(() -> client.getFlightInfo("F1")));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) results.add(pool.submit(() -> client.getFlightInfo("F1")));
+            Thread.sleep(100); // let the followers reach the in-flight call
+            release.countDown();
+            for (Future<FlightInventory> f : results) assertFalse(f.get(5, TimeUnit.SECONDS).isUnavailable());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(flightClient, times(1)).getFlightInfo("F1");
+        assertEquals(1, breaker.getMetrics().getNumberOfBufferedCalls());
+        assertEquals(1, meterRegistry.get("flight.client").tag("operation", "getFlightInfo").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testAsyncLookupsAreCoalesced() {
+        CompletableFuture<FlightInventory> remote = new CompletableFuture<>();
+        when(asyncFlightClient.getFlightInfo("F1")).thenReturn(remote);
+
+        CompletableFuture<FlightInventory> first = client.getFlightInfoAsync("F1");
+        CompletableFuture<FlightInventory> second = client.getFlightInfoAsync("F1");
+        remote.complete(inventory());
+
+        assertFalse(first.join().isUnavailable());
+        assertFalse(second.join().isUnavailable());
+        verify(asyncFlightClient, times(1)).getFlightInfo("F1");
+        assertEquals(1, breaker.getMetrics().getNumberOfBufferedCalls());
+    }
+}
@@ -73,6 +73,15 @@ class GlobalExceptionHandlerTest {
         assertEquals("Booking not found", resp.getBody().getMessage());
     }
 
+    @Test
+    void testHandleRuntime_HoldNotFound() {
+        RuntimeException ex = new RuntimeException("Hold not found or expired");
+
+        ResponseEntity<ApiError> resp = handler.handleRuntime(ex, webRequest);
+
+        assertEquals(HttpStatus.NOT_FOUND, resp.getStatusCode());
+    }
+
     @Test
     void testHandleRuntime_OtherRuntime() {
         RuntimeException ex = new RuntimeException("Something bad");
@@ -0,0 +1,137 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.booking.feign.FlightInventory;
+import com.booking.feign.HedgedFlightInfoReader;
+import com.booking.feign.HttpAsyncFlightClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class HedgedFlightInfoReaderTest {
+
+    private static final byte[] INVENTORY = "{\"fallback\":false,\"price\":4599.0,\"availableSeatNumbers\":[\"1A\",\"1B\"]}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final ScheduledExecutorService delays = Executors.newScheduledThreadPool(2);
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stop() {
+        servers.forEach(s -> s.stop(0));
+        delays.shutdownNow();
+    }
+
+    // a flight-service instance that answers after latencyMillis and counts what it served
+    private URI instance(long latencyMillis, AtomicInteger served) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        server.createContext("/api/flight/inventory/", ex -> {
+            served.incrementAndGet();
+            delays.schedule(() -> respond(ex), latencyMillis, TimeUnit.MILLISECONDS);
+        });
+        server.start();
+        servers.add(server);
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    private static void respond(HttpExchange exchange) {
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, INVENTORY.length);
+            out.write(INVENTORY);
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    private static HedgedFlightInfoReader reader(List<URI> instances, double budgetPercent, Duration delay) {
+        HttpAsyncFlightClient http = new HttpAsyncFlightClient(() -> instances.get(0),
+                new ObjectMapper().findAndRegisterModules(), Duration.ofSeconds(5));
+        return new HedgedFlightInfoReader(() -> instances, http, budgetPercent, delay, delay);
+    }
+
+    @Test
+    void testSlowInstanceIsHedgedToAnother() throws Exception {
+        AtomicInteger slowServed = new AtomicInteger();
+        AtomicInteger fastServed = new AtomicInteger();
+        List<URI> instances = List.of(instance(2_000, slowServed), instance(0, fastServed));
+        HedgedFlightInfoReader reader = reader(instances, 100, Duration.ofMillis(50));
+
+        for (int i = 0; i < 20; i++) {
+            long start = System.nanoTime();
+            FlightInventory info = reader.getFlightInfo("AI-202").get(5, TimeUnit.SECONDS);
+            assertFalse(info.isUnavailable());
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1_000), "waited on the slow instance");
+        }
+
+        // lookups that started on the slow instance were answered by their hedge
+        assertTrue(slowServed.get() > 0);
+        assertTrue((long) reader.stats().get("hedgeWins") > 0);
+        assertTrue((long) reader.stats().get("hedged") >= (long) reader.stats().get("hedgeWins"));
+    }
+
+    @Test
+    void testHedgesStayWithinBudget() throws Exception {
+        AtomicInteger served = new AtomicInteger();
+        List<URI> instances = List.of(instance(300, served), instance(300, served));
+        HedgedFlightInfoReader reader = reader(instances, 5, Duration.ofMillis(50));
+
+        List<CompletableFuture<FlightInventory>> lookups = new ArrayList<>();
+        for (int i = 0; i < 100; i++) lookups.add(reader.getFlightInfo("AI-202"));
+        for (CompletableFuture<FlightInventory> lookup : lookups) assertFalse(lookup.get(5, TimeUnit.SECONDS).isUnavailable());
+
+        long hedged = (long) reader.stats().get("hedged");
+        assertTrue(hedged > 0 && hedged <= 5, "hedged " + hedged);
+        assertEquals(100 - hedged, reader.stats().get("budgetDenied"));
+        assertEquals(100 + hedged, served.get());
+    }
+
+    @Test
+    void testFastLookupsAreNotHedged() throws Exception {
+        AtomicInteger served = new AtomicInteger();
+        List<URI> instances = List.of(instance(0, served), instance(0, served));
+        HedgedFlightInfoReader reader = reader(instances, 100, Duration.ofMillis(500));
+
+        for (int i = 0; i < 200; i++) reader.getFlightInfo("AI-202").get(5, TimeUnit.SECONDS);
+
+        assertEquals(0L, reader.stats().get("hedged"));
+        assertEquals(200, served.get());
+        assertTrue((long) reader.stats().get("p95Ms") >= 0);
+    }
+
+    @Test
+    void testFailureBeforeTheHedgeIsNotRetried() throws Exception {
+        AtomicInteger served = new AtomicInteger();
+        URI down = URI.create("http://127.0.0.1:1");
+        List<URI> instances = List.of(down, instance(0, served));
+        HedgedFlightInfoReader reader = reader(instances, 100, Duration.ofMillis(50));
+
+        int failed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (reader.getFlightInfo("AI-202").handle((info, ex) -> ex != null).get(5, TimeUnit.SECONDS)) failed++;
+        }
+
+        // a refused connection fails before the hedge is due, so those lookups fail like unhedged ones
+        assertEquals(20 - served.get(), failed);
+    }
+}
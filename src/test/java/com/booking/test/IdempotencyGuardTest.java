@@ -0,0 +1,165 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.booking.idempotency.IdempotencyGuard;
+import com.booking.idempotency.IdempotencyStore;
+import com.booking.request.BookingRequest;
+import com.booking.request.PassengerRequest;
+
+class IdempotencyGuardTest {
+
+    private final IdempotencyGuard guard =
+            new IdempotencyGuard(Optional.empty(), Duration.ofMinutes(10), 1000, Duration.ofSeconds(5));
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private Map<String, Object> book() {
+        return Map.of("pnr", "P" + calls.incrementAndGet(), "message", "Booking successful");
+    }
+
+    @Test
+    void testReplayReturnsOriginalResponse() {
+        IdempotencyGuard.Outcome first = guard.execute("K1", "F1:a", this::book);
+        IdempotencyGuard.Outcome retry = guard.execute("K1", "F1:a", this::book);
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals("P1", retry.body().get("pnr"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testConcurrentDuplicateWaitsForFirst() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyGuard.Outcome> first = pool.submit(() -> guard.execute("K1", "F1:a", () -> {
+                started.countDown();
+                await(release);
+                return book();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<IdempotencyGuard.Outcome> duplicate = pool.submit(() -> guard.execute("K1", "F1:a", this::book));
+            Thread.sleep(50);
+            assertFalse(duplicate.isDone());
+
+            release.countDown();
+            assertEquals("P1", first.get(5, TimeUnit.SECONDS).body().get("pnr"));
+            assertEquals("P1", duplicate.get(5, TimeUnit.SECONDS).body().get("pnr"));
+            assertTrue(duplicate.get().replayed());
+            assertEquals(1, calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedResponseIsNotKept() {
+        guard.execute("K1", "F1:a", () -> Map.of("status", "FAILED", "message", "Failed to reserve seats"));
+        IdempotencyGuard.Outcome retry = guard.execute("K1", "F1:a", this::book);
+
+        assertFalse(retry.replayed());
+        assertEquals("P1", retry.body().get("pnr"));
+    }
+
+    @Test
+    void testExceptionIsNotKept() {
+        assertThrows(RuntimeException.class, () -> guard.execute("K1", "F1:a", () -> {
+            throw new RuntimeException("Number of seats does not match");
+        }));
+        assertFalse(guard.execute("K1", "F1:a", this::book).replayed());
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() {
+        guard.execute("K1", "F1:a", this::book);
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> guard.execute("K1", "F2:b", this::book));
+        assertTrue(ex.getMessage().contains("different request"));
+    }
+
+    @Test
+    void testSharedStoreAnswersRetryFromOtherInstance() {
+        IdempotencyStore store = mock(IdempotencyStore.class);
+        when(store.claim(any(), any(), any())).thenReturn(Map.of("pnr", "P9"));
+        IdempotencyGuard shared = new IdempotencyGuard(Optional.of(store), Duration.ofMinutes(10), 1000, Duration.ofSeconds(5));
+
+        IdempotencyGuard.Outcome outcome = shared.execute("K1", "F1:a", this::book);
+
+        assertTrue(outcome.replayed());
+        assertEquals("P9", outcome.body().get("pnr"));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void testSharedStoreGetsResponseOfFirstAttempt() {
+        IdempotencyStore store = mock(IdempotencyStore.class);
+        IdempotencyGuard shared = new IdempotencyGuard(Optional.of(store), Duration.ofMinutes(10), 1000, Duration.ofSeconds(5));
+
+        Map<String, Object> body = shared.execute("K1", "F1:a", this::book).body();
+
+        verify(store).complete("K1", body);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static BookingRequest request(String seat) {
+        BookingRequest r = new BookingRequest();
+        r.setEmail("a@b.com");
+        r.setName("A");
+        r.setNumberOfSeats(1);
+        PassengerRequest p = new PassengerRequest();
+        p.setName("P"); p.setGender("M"); p.setAge(30);
+        r.setPassengers(List.of(p));
+        r.setMealPreference("VEG");
+        r.setSeatNumbers(new ArrayList<>(List.of(seat)));
+        return r;
+    }
+
+    @Test
+    void testFingerprintIsDigestOfCanonicalBody() {
+        String first = IdempotencyGuard.fingerprint("F1", request("1A"));
+
+        assertTrue(first.matches("F1:[0-9a-f]{64}"));
+        assertEquals(first, IdempotencyGuard.fingerprint("F1", request("1A")));
+        assertNotEquals(first, IdempotencyGuard.fingerprint("F1", request("1B")));
+        assertNotEquals(first, IdempotencyGuard.fingerprint("F2", request("1A")));
+        // key order of a map body does not matter
+        Map<String, Object> ab = new LinkedHashMap<>();
+        ab.put("a", 1);
+        ab.put("b", 2);
+        Map<String, Object> ba = new LinkedHashMap<>();
+        ba.put("b", 2);
+        ba.put("a", 1);
+        assertEquals(IdempotencyGuard.fingerprint("F1", ab), IdempotencyGuard.fingerprint("F1", ba));
+    }
+}
@@ -0,0 +1,61 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.booking.cache.LocalTtlCache;
+
+class LocalTtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testHitAndMissCounters() {
+        LocalTtlCache<String, String> cache = new LocalTtlCache<>(Duration.ofSeconds(5), 10, now::get);
+        assertNull(cache.get("F1"));
+        cache.put("F1", "info");
+        assertEquals("info", cache.get("F1"));
+
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+    }
+
+    @Test
+    void testEntryExpiresAfterTtl() {
+        LocalTtlCache<String, String> cache = new LocalTtlCache<>(Duration.ofSeconds(5), 10, now::get);
+        cache.put("F1", "info");
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertNull(cache.get("F1"));
+        assertEquals(1L, cache.stats().get("expirations"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testOldestEntryEvictedWhenFull() {
+        LocalTtlCache<String, String> cache = new LocalTtlCache<>(Duration.ofSeconds(5), 2, now::get);
+        cache.put("F1", "a");
+        now.incrementAndGet();
+        cache.put("F2", "b");
+        now.incrementAndGet();
+        cache.put("F3", "c");
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("F1"));
+        assertEquals("c", cache.get("F3"));
+        assertEquals(1L, cache.stats().get("evictions"));
+    }
+
+    @Test
+    void testInvalidateRemovesEntry() {
+        LocalTtlCache<String, String> cache = new LocalTtlCache<>(Duration.ofSeconds(5), 10, now::get);
+        cache.put("F1", "info");
+        cache.invalidate("F1");
+        assertNull(cache.get("F1"));
+    }
+}
@@ -0,0 +1,166 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.booking.model.OutboxEvent;
+import com.booking.model.OutboxEventStatus;
+import com.booking.publisher.OutboxRelay;
+import com.booking.publisher.OutboxSender;
+import com.booking.repositories.OutboxEventRepository;
+
+class OutboxRelayTest {
+
+    // Stand-in for the broker: keeps confirmed messages in memory and can be taken down.
+    static class InMemoryBroker implements OutboxSender {
+        final List<OutboxEvent> confirmed = new ArrayList<>();
+        boolean down;
+
+        @Override
+        public void send(List<OutboxEvent> batch) {
+            if (down) throw new IllegalStateException("broker unavailable");
+            confirmed.addAll(batch);
+        }
+    }
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private OutboxEventRepository outboxRepo;
+    private InMemoryBroker broker;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setup() {
+        outboxRepo = mock(OutboxEventRepository.class);
+        broker = new InMemoryBroker();
+        relay = new OutboxRelay(outboxRepo, broker, mock(PlatformTransactionManager.class), 10, 5, 3,
+                Duration.ofSeconds(5), Duration.ofMinutes(1), Clock.fixed(Instant.from(NOW.atOffset(ZoneOffset.UTC)), ZoneOffset.UTC));
+    }
+
+    private OutboxEvent event(long id) {
+        OutboxEvent e = new OutboxEvent();
+        e.setId(id);
+        e.setAggregateId("PNR" + id);
+        e.setPayload("{}");
+        e.setStatus(OutboxEventStatus.PENDING);
+        e.setNextAttemptAt(NOW);
+        return e;
+    }
+
+    @Test
+    void testConfirmedBatchIsDeleted() {
+        List<OutboxEvent> batch = List.of(event(1), event(2));
+        when(outboxRepo.lockNextBatch(any(LocalDateTime.class), any(Pageable.class))).thenReturn(batch);
+
+        assertEquals(2, relay.relayBatch());
+
+        assertEquals(2, broker.confirmed.size());
+        verify(outboxRepo).lease(List.of(1L, 2L), NOW.plusMinutes(1));
+        verify(outboxRepo).deleteAllInBatch(batch);
+        assertEquals(2L, relay.stats().get("relayed"));
+    }
+
+    @Test
+    void testEventsSurviveBrokerOutage() {
+        List<OutboxEvent> batch = List.of(event(1), event(2));
+        when(outboxRepo.lockNextBatch(any(LocalDateTime.class), any(Pageable.class))).thenReturn(batch);
+        broker.down = true;
+
+        assertEquals(0, relay.relayBatch());
+
+        verify(outboxRepo, never()).deleteAllInBatch(any());
+        verify(outboxRepo).saveAll(batch);
+        assertEquals(1, batch.get(0).getAttempts());
+        assertTrue(batch.get(0).getLastError().contains("broker unavailable"));
+        assertEquals(NOW.plusSeconds(5), batch.get(0).getNextAttemptAt());
+
+        broker.down = false;
+        assertEquals(2, relay.relayBatch());
+        verify(outboxRepo).deleteAllInBatch(batch);
+    }
+
+    @Test
+    void testRelayStopsWhenOutboxIsDrained() {
+        when(outboxRepo.lockNextBatch(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(event(1)), List.of());
+
+        relay.relay();
+
+        assertEquals(1, broker.confirmed.size());
+        verify(outboxRepo).lockNextBatch(any(LocalDateTime.class), any(Pageable.class));
+    }
+
+    @Test
+    void testPoisonEventIsIsolatedThenMarkedFailed() {
+        OutboxEvent good = event(1);
+        OutboxEvent poison = event(2);
+        InMemoryBroker rejecting = new InMemoryBroker() {
+            @Override
+            public void send(List<OutboxEvent> batch) {
+                if (batch.contains(poison)) throw new IllegalStateException("nack");
+                super.send(batch);
+            }
+        };
+        relay = new OutboxRelay(outboxRepo, rejecting, mock(PlatformTransactionManager.class), 10, 5, 3,
+                Duration.ofSeconds(5), Duration.ofMinutes(1), Clock.systemUTC());
+        when(outboxRepo.lockNextBatch(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(good, poison), List.of(good, poison), List.of(poison));
+
+        // first send is the whole batch; on the retry each event goes alone and the good one gets out
+        relay.relayBatch();
+        relay.relayBatch();
+        assertEquals(List.of(good), rejecting.confirmed);
+        verify(outboxRepo).deleteAllInBatch(List.of(good));
+
+        relay.relayBatch();
+        assertEquals(3, poison.getAttempts());
+        assertEquals(OutboxEventStatus.FAILED, poison.getStatus());
+        assertEquals(1L, relay.stats().get("deadLettered"));
+    }
+
+    @Test
+    void testSendRunsOutsideTransactions() {
+        List<Boolean> sentInTx = new ArrayList<>();
+        PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+        int[] open = new int[1];
+        when(txManager.getTransaction(any())).thenAnswer(inv -> {
+            open[0]++;
+            return null;
+        });
+        doAnswer(inv -> open[0]--).when(txManager).commit(any());
+        InMemoryBroker tracking = new InMemoryBroker() {
+            @Override
+            public void send(List<OutboxEvent> batch) {
+                sentInTx.add(open[0] > 0);
+                super.send(batch);
+            }
+        };
+        relay = new OutboxRelay(outboxRepo, tracking, txManager, 10, 5, 3,
+                Duration.ofSeconds(5), Duration.ofMinutes(1), Clock.systemUTC());
+        when(outboxRepo.lockNextBatch(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(event(1)));
+
+        relay.relayBatch();
+
+        assertEquals(List.of(false), sentInTx);
+        verify(txManager, times(2)).commit(any());
+    }
+}
@@ -0,0 +1,110 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.booking.pnr.PnrGenerator;
+
+class PnrGeneratorTest {
+
+    private static final long NOW = 1760000000000L;
+
+    @Test
+    void testFormat() {
+        PnrGenerator generator = new PnrGenerator(7, () -> NOW);
+        String pnr = generator.next();
+        assertEquals(PnrGenerator.LENGTH, pnr.length());
+        assertTrue(pnr.matches("[2-9A-HJ-NP-Z]+"), pnr);
+    }
+
+    @Test
+    void testUniqueAcrossThreads() throws Exception {
+        PnrGenerator generator = new PnrGenerator(3, System::currentTimeMillis);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        seen.add(generator.next());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(32 * 5_000, seen.size());
+    }
+
+    @Test
+    void testUniqueWhenClockStandsStill() {
+        // more than one second's worth of sequence numbers: the stripe borrows the next seconds
+        PnrGenerator generator = new PnrGenerator(0, () -> NOW);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(seen.add(generator.next()));
+        }
+    }
+
+    @Test
+    void testUniqueWhenClockGoesBackwards() {
+        AtomicLong clock = new AtomicLong(NOW);
+        PnrGenerator generator = new PnrGenerator(0, clock::get);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 100; i++) seen.add(generator.next());
+        clock.addAndGet(-30_000);
+        for (int i = 0; i < 100; i++) seen.add(generator.next());
+        assertEquals(200, seen.size());
+    }
+
+    @Test
+    void testNodesNeverOverlap() {
+        PnrGenerator a = new PnrGenerator(1, () -> NOW);
+        PnrGenerator b = new PnrGenerator(2, () -> NOW);
+        Set<String> fromA = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) fromA.add(a.next());
+        for (int i = 0; i < 1_000; i++) assertFalse(fromA.contains(b.next()));
+    }
+
+    @Test
+    void testRequiresNodeId() {
+        assertThrows(IllegalStateException.class, () -> new PnrGenerator().next());
+        assertThrows(IllegalArgumentException.class, () -> new PnrGenerator(PnrGenerator.MAX_NODES, () -> NOW));
+    }
+
+    @Test
+    void testRefusesOnceTheLeaseIsNoLongerConfirmed() {
+        AtomicLong clock = new AtomicLong(NOW);
+        PnrGenerator generator = new PnrGenerator(5, clock::get);
+        generator.assignNode(5, NOW + 120_000);
+
+        generator.next();
+        // less than the borrow window left on the lease: PNRs could outlive it
+        clock.set(NOW + 60_001);
+        assertThrows(IllegalStateException.class, generator::next);
+
+        generator.extendLease(5, NOW + 240_000);
+        generator.next();
+        // a renewal for a node it no longer has changes nothing
+        generator.extendLease(6, NOW + 1_000_000);
+        assertEquals(5, generator.nodeId());
+        clock.set(NOW + 180_001);
+        assertThrows(IllegalStateException.class, generator::next);
+    }
+}
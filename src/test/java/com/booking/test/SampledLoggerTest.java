@@ -0,0 +1,70 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import com.booking.logging.SampledLogger;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+class SampledLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("sampled-logger-test");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void attach() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detach() {
+        logger.detachAppender(appender);
+    }
+
+    private static Map<String, Object> keyValues(ILoggingEvent event) {
+        return event.getKeyValuePairs().stream().collect(Collectors.toMap(kv -> kv.key, kv -> kv.value));
+    }
+
+    @Test
+    void testStormIsLimitedPerType() {
+        SampledLogger log = new SampledLogger(logger, 5);
+
+        for (int i = 0; i < 1_000; i++) {
+            log.atWarn("reserveSeats.failed").setMessage("Flight service call fell back").addKeyValue("flightId", "F1").log();
+        }
+        log.atWarn("releaseSeats.failed").setMessage("Flight service call fell back").log();
+
+        List<ILoggingEvent> events = appender.list;
+        assertEquals(6, events.size());
+        assertEquals("reserveSeats.failed", keyValues(events.get(0)).get("type"));
+        assertEquals("F1", keyValues(events.get(0)).get("flightId"));
+        assertEquals("releaseSeats.failed", keyValues(events.get(5)).get("type"));
+        assertEquals(995, log.suppressed("reserveSeats.failed"));
+    }
+
+    @Test
+    void testNextWindowReportsWhatWasSuppressed() throws Exception {
+        SampledLogger log = new SampledLogger(logger, 1);
+        for (int i = 0; i < 10; i++) log.atError("compensatingRelease.failed").setMessage("x").log();
+
+        Thread.sleep(1_100);
+        log.atError("compensatingRelease.failed").setMessage("x").log();
+
+        assertEquals(2, appender.list.size());
+        assertTrue(!keyValues(appender.list.get(0)).containsKey("suppressed"));
+        assertEquals(9L, keyValues(appender.list.get(1)).get("suppressed"));
+    }
+}
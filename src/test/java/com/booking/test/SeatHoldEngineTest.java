@@ -0,0 +1,162 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.booking.hold.SeatCodec;
+import com.booking.hold.SeatHold;
+import com.booking.hold.SeatHoldEngine;
+
+class SeatHoldEngineTest {
+
+    private final AtomicLong clock = new AtomicLong(1760000000000L);
+    private final SeatHoldEngine engine = new SeatHoldEngine(Duration.ofMinutes(5), Duration.ofMinutes(12), 9, clock::get);
+
+    @Test
+    void testCodecRoundTrip() {
+        assertEquals(0, SeatCodec.encode("1A"));
+        assertEquals("12C", SeatCodec.decode(SeatCodec.encode("12C")));
+        assertEquals("128P", SeatCodec.decode(SeatCodec.encode("128P")));
+        assertEquals(-1, SeatCodec.encode("0A"));
+        assertEquals(-1, SeatCodec.encode("129A"));
+        assertEquals(-1, SeatCodec.encode("1Q"));
+        assertEquals(-1, SeatCodec.encode("A1"));
+    }
+
+    @Test
+    void testHoldIsAllOrNothing() {
+        assertNotNull(engine.hold("F1", List.of("3B"), "a@b.com").hold());
+
+        SeatHoldEngine.HoldResult result = engine.hold("F1", List.of("3A", "3B", "4A"), "c@d.com");
+
+        assertNull(result.hold());
+        assertEquals(List.of("3B"), result.conflicts());
+        assertNotNull(engine.hold("F1", List.of("3A", "4A"), "c@d.com").hold());
+    }
+
+    @Test
+    void testFlightsAreIndependent() {
+        assertNotNull(engine.hold("F1", List.of("3B"), "a@b.com").hold());
+        assertNotNull(engine.hold("F2", List.of("3B"), "c@d.com").hold());
+    }
+
+    @Test
+    void testHeldByOthersIgnoresOwnHold() {
+        SeatHold hold = engine.hold("F1", List.of("3A", "3B"), "a@b.com").hold();
+
+        assertEquals(List.of("3A", "3B"), engine.heldByOthers("F1", List.of("3B", "3A", "9Z"), null));
+        assertTrue(engine.heldByOthers("F1", List.of("3A", "3B"), hold.holdId()).isEmpty());
+        assertTrue(engine.heldByOthers("F9", List.of("3A"), null).isEmpty());
+    }
+
+    @Test
+    void testExpiredHoldFreesSeats() {
+        SeatHold hold = engine.hold("F1", List.of("3B"), "a@b.com").hold();
+
+        clock.addAndGet(Duration.ofMinutes(5).toMillis());
+
+        assertNull(engine.get(hold.holdId()));
+        assertTrue(engine.heldByOthers("F1", List.of("3B"), null).isEmpty());
+        assertNotNull(engine.hold("F1", List.of("3B"), "c@d.com").hold());
+        // the old hold cannot come back to life and steal the seat
+        assertNull(engine.extend(hold.holdId()));
+        assertFalse(engine.release(hold.holdId()));
+        assertEquals(List.of("3B"), engine.heldByOthers("F1", List.of("3B"), null));
+    }
+
+    @Test
+    void testExtendIsCappedByMaxLifetime() {
+        long created = clock.get();
+        SeatHold hold = engine.hold("F1", List.of("3B"), "a@b.com").hold();
+
+        clock.addAndGet(Duration.ofMinutes(4).toMillis());
+        engine.extend(hold.holdId());
+        assertEquals(created + Duration.ofMinutes(9).toMillis(), hold.expiresAt());
+
+        clock.addAndGet(Duration.ofMinutes(4).toMillis());
+        engine.extend(hold.holdId());
+        assertEquals(created + Duration.ofMinutes(12).toMillis(), hold.expiresAt());
+    }
+
+    @Test
+    void testReleaseAndSweep() {
+        SeatHold released = engine.hold("F1", List.of("3A"), "a@b.com").hold();
+        engine.hold("F1", List.of("3B"), "c@d.com");
+
+        assertTrue(engine.release(released.holdId()));
+        assertFalse(engine.release(released.holdId()));
+
+        clock.addAndGet(Duration.ofMinutes(6).toMillis());
+        engine.purgeExpired();
+
+        assertEquals(0, engine.stats().get("active"));
+        assertEquals(1L, engine.stats().get("released"));
+        assertEquals(1L, engine.stats().get("expired"));
+        assertEquals(0, engine.stats().get("flights"));
+    }
+
+    @Test
+    void testSweepDropsOnlyFlightsWithoutHolds() {
+        SeatHold done = engine.hold("F1", List.of("3A"), "a@b.com").hold();
+        engine.hold("F2", List.of("3A"), "a@b.com");
+        engine.release(done.holdId());
+
+        engine.purgeExpired();
+        assertEquals(1, engine.stats().get("flights"));
+
+        // a dropped flight is created again on its next hold
+        assertTrue(engine.hold("F1", List.of("3A"), "c@d.com").conflicts().isEmpty());
+        assertEquals(List.of("3A"), engine.heldByOthers("F1", List.of("3A"), null));
+        assertEquals(2, engine.stats().get("flights"));
+    }
+
+    @Test
+    void testRejectsBadRequests() {
+        assertThrows(RuntimeException.class, () -> engine.hold("F1", List.of("3A", "3A"), "a@b.com"));
+        assertThrows(RuntimeException.class, () -> engine.hold("F1", List.of("XX"), "a@b.com"));
+        assertThrows(RuntimeException.class, () -> engine.hold("F1",
+                List.of("1A", "1B", "1C", "1D", "1E", "1F", "2A", "2B", "2C", "2D"), "a@b.com"));
+    }
+
+    @Test
+    void testOneWinnerPerSeatUnderContention() throws Exception {
+        // overlapping two-seat holds across row boundaries: every seat ends up with at most one owner
+        int threads = 32;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        AtomicInteger heldSeats = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        int seat = i % 60;
+                        List<String> seats = List.of(SeatCodec.decode(seat), SeatCodec.decode(seat + 17));
+                        if (engine.hold("F1", seats, "x@y.com").hold() != null) heldSeats.addAndGet(2);
+                    }
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(heldSeats.get() <= 77);
+        List<String> all = new ArrayList<>();
+        for (int seat = 0; seat < 77; seat++) all.add(SeatCodec.decode(seat));
+        assertEquals(heldSeats.get(), engine.heldByOthers("F1", all, null).size());
+    }
+}
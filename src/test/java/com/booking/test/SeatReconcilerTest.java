@@ -0,0 +1,176 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.booking.cache.FlightInfoCache;
+import com.booking.feign.FlightInventory;
+import com.booking.feign.FlightServiceClient;
+import com.booking.feign.SeatSet;
+import com.booking.model.BookingStatus;
+import com.booking.reconcile.ReconcileCheckpoints;
+import com.booking.reconcile.SeatReconciler;
+import com.booking.repositories.BookingRepository;
+import com.booking.repositories.BookingSeatRow;
+import com.booking.repositories.SeatReleaseRepository;
+
+class SeatReconcilerTest {
+
+    private static final long GRACE = TimeUnit.MINUTES.toMillis(5);
+
+    private BookingRepository bookingRepo;
+    private SeatReleaseRepository releaseRepo;
+    private FlightServiceClient flightService;
+    private FlightInfoCache flightInfoCache;
+    private ReconcileCheckpoints checkpoints;
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private SeatReconciler reconciler;
+
+    @BeforeEach
+    void setup() {
+        bookingRepo = mock(BookingRepository.class);
+        releaseRepo = mock(SeatReleaseRepository.class);
+        flightService = mock(FlightServiceClient.class);
+        flightInfoCache = mock(FlightInfoCache.class);
+        checkpoints = mock(ReconcileCheckpoints.class);
+        when(checkpoints.tryLease(anyString())).thenReturn(true);
+        when(checkpoints.advance(anyString(), anyString())).thenReturn(true);
+        when(checkpoints.lastFlightId(anyString())).thenReturn("");
+        when(bookingRepo.findFlightIdsAfter(eq(""), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of("F1"));
+        when(flightService.reserveSeats(anyString(), anyMap())).thenReturn(Map.of("message", "Reserved"));
+        when(flightService.releaseSeats(anyString(), anyMap())).thenReturn(Map.of("message", "Released"));
+        reconciler = new SeatReconciler(bookingRepo, releaseRepo, flightService, flightInfoCache, checkpoints,
+                10, 2, 0, GRACE, false, now::get);
+    }
+
+    private static BookingSeatRow row(long bookingId, BookingStatus status, String seat) {
+        return new BookingSeatRow(bookingId, status, seat);
+    }
+
+    private void inventory(String flightId, String... available) {
+        when(flightService.getFlightInfo(flightId)).thenReturn(new FlightInventory(false, "OK", null, 100.0,
+                LocalDateTime.now().plusDays(30), SeatSet.of(List.of(available))));
+    }
+
+    // 1A and 1B are booked, 1C was cancelled; the flight service lost 1B and still holds 1C
+    private void driftedFlight() {
+        when(bookingRepo.findSeatPage(eq("F1"), eq(0L), eq(""), any(Pageable.class)))
+                .thenReturn(List.of(row(1, BookingStatus.CONFIRMED, "1A"), row(1, BookingStatus.CONFIRMED, "1B")));
+        when(bookingRepo.findSeatPage(eq("F1"), eq(1L), eq("1B"), any(Pageable.class)))
+                .thenReturn(List.of(row(2, BookingStatus.CANCELLED, "1C")));
+        inventory("F1", "1B", "1D");
+    }
+
+    @Test
+    void testDriftIsCorrectedOnlyAfterGrace() {
+        driftedFlight();
+
+        reconciler.runChunk();
+        verify(flightService, never()).reserveSeats(anyString(), anyMap());
+        verify(flightService, never()).releaseSeats(anyString(), anyMap());
+
+        now.addAndGet(GRACE);
+        reconciler.runChunk();
+
+        verify(flightService).reserveSeats("F1", Map.of("seatNumbers", List.of("1B")));
+        verify(flightService).releaseSeats("F1", Map.of("seatNumbers", List.of("1C")));
+        verify(flightInfoCache).invalidate("F1");
+        assertEquals(1L, reconciler.stats().get("seatsReserved"));
+        assertEquals(1L, reconciler.stats().get("seatsReleased"));
+        assertEquals(6L, reconciler.stats().get("seatRowsScanned"));
+    }
+
+    @Test
+    void testTransientDifferenceIsLeftAlone() {
+        driftedFlight();
+        reconciler.runChunk();
+
+        // both differences were bookings in flight; by the next sweep 1B is gone and 1C was released
+        when(bookingRepo.findSeatPage(eq("F1"), eq(0L), eq(""), any(Pageable.class)))
+                .thenReturn(List.of(row(1, BookingStatus.CONFIRMED, "1A")));
+        inventory("F1", "1C", "1D");
+        now.addAndGet(GRACE);
+        reconciler.runChunk();
+
+        verify(flightService, never()).reserveSeats(anyString(), anyMap());
+        verify(flightService, never()).releaseSeats(anyString(), anyMap());
+        assertEquals(0, reconciler.stats().get("suspects"));
+    }
+
+    @Test
+    void testSeatsStillQueuedForReleaseAreNotReleasedTwice() {
+        driftedFlight();
+        when(releaseRepo.findPendingSeats("F1")).thenReturn(List.of("1C,1E"));
+
+        reconciler.runChunk();
+        now.addAndGet(GRACE);
+        reconciler.runChunk();
+
+        verify(flightService).reserveSeats("F1", Map.of("seatNumbers", List.of("1B")));
+        verify(flightService, never()).releaseSeats(anyString(), anyMap());
+    }
+
+    @Test
+    void testCheckpointAdvancesPerFlightAndSweepWraps() {
+        when(bookingRepo.findFlightIdsAfter(eq(""), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of("F1", "F2"));
+        when(bookingRepo.findSeatPage(anyString(), anyLong(), anyString(), any(Pageable.class))).thenReturn(List.of());
+        inventory("F1");
+        inventory("F2");
+
+        assertEquals(2, reconciler.runChunk());
+        // only flights that have not departed by the reconciler's clock
+        verify(bookingRepo).findFlightIdsAfter(eq(""),
+                eq(LocalDateTime.ofInstant(Instant.ofEpochMilli(now.get()), ZoneId.systemDefault())), any(Pageable.class));
+        verify(checkpoints).advance(anyString(), eq("F1"));
+        verify(checkpoints).advance(anyString(), eq("F2"));
+
+        // resumes after F2 and finds nothing left: the sweep starts over
+        when(checkpoints.lastFlightId(anyString())).thenReturn("F2");
+        when(bookingRepo.findFlightIdsAfter(eq("F2"), any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+        when(checkpoints.wrap(anyString())).thenReturn(true);
+        assertEquals(0, reconciler.runChunk());
+        verify(checkpoints).wrap(anyString());
+        assertEquals(1L, reconciler.stats().get("sweeps"));
+    }
+
+    @Test
+    void testNothingRunsWithoutTheLease() {
+        when(checkpoints.tryLease(anyString())).thenReturn(false);
+
+        assertEquals(0, reconciler.runChunk());
+        verify(bookingRepo, never()).findFlightIdsAfter(anyString(), any(LocalDateTime.class), any(Pageable.class));
+    }
+
+    @Test
+    void testUnavailableInventoryIsSkipped() {
+        driftedFlight();
+        when(flightService.getFlightInfo("F1")).thenReturn(FlightInventory.unavailable("down"));
+
+        reconciler.runChunk();
+        now.addAndGet(GRACE);
+        reconciler.runChunk();
+
+        verify(flightService, never()).reserveSeats(anyString(), anyMap());
+        assertEquals(2L, reconciler.stats().get("skipped"));
+    }
+}
@@ -0,0 +1,237 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.booking.cache.FlightInfoCache;
+import com.booking.cache.FlightInfoCoalescer;
+import com.booking.feign.FeignInterface;
+import com.booking.feign.FlightCallGuard;
+import com.booking.feign.FlightInventory;
+import com.booking.feign.FlightServiceClient;
+import com.booking.model.Booking;
+import com.booking.model.SeatRelease;
+import com.booking.model.SeatReleaseStatus;
+import com.booking.release.SeatReleaseWorker;
+import com.booking.repositories.SeatReleaseRepository;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+class SeatReleaseWorkerTest {
+
+    // Stand-in for FLIGHT-MICROSERVICE: records release calls and fails while down.
+    static class FlakyFlightService implements FeignInterface {
+        final List<String> releaseCalls = new ArrayList<>();
+        final List<Object> releasedSeats = new ArrayList<>();
+        boolean down;
+
+        @Override
+        public FlightInventory getFlightInfo(String flightId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, Object> reserveSeats(String flightId, Map<String, Object> body) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, Object> releaseSeats(String flightId, Map<String, Object> body) {
+            releaseCalls.add(flightId);
+            if (down) throw new IllegalStateException("flight service unavailable");
+            releasedSeats.add(body.get("seatNumbers"));
+            return Map.of("message", "Released");
+        }
+    }
+
+    // Counts open transactions, so the test can see whether a remote call ran inside one.
+    static class TrackingTxManager implements PlatformTransactionManager {
+        int open;
+        int begun;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            open++;
+            begun++;
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            open--;
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            open--;
+        }
+    }
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private SeatReleaseRepository releaseRepo;
+    private FlakyFlightService flights;
+    private FlightInfoCache flightInfoCache;
+    private SeatReleaseWorker worker;
+
+    @BeforeEach
+    void setup() {
+        releaseRepo = mock(SeatReleaseRepository.class);
+        flights = new FlakyFlightService();
+        flightInfoCache = mock(FlightInfoCache.class);
+        FlightServiceClient client = new FlightServiceClient(flights, null,
+                new FlightCallGuard(BulkheadRegistry.ofDefaults(), 20, 2, 50,
+                        Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1)),
+                new FlightInfoCoalescer(Duration.ofSeconds(1)), CircuitBreakerRegistry.ofDefaults());
+        worker = new SeatReleaseWorker(releaseRepo, client, flightInfoCache, mock(PlatformTransactionManager.class),
+                50, 5, Duration.ofSeconds(1), Duration.ofMinutes(10), 3, Duration.ofMinutes(1),
+                Clock.fixed(Instant.from(NOW.atOffset(ZoneOffset.UTC)), ZoneOffset.UTC));
+    }
+
+    private SeatRelease release(long id, String flightId, String... seats) {
+        Booking b = new Booking();
+        b.setPnr("P" + id);
+        b.setFlightId(flightId);
+        b.setSeatNumbers(List.of(seats));
+        SeatRelease r = SeatRelease.pending(b, NOW);
+        r.setId(id);
+        return r;
+    }
+
+    @Test
+    void testOneReleaseCallPerFlight() {
+        List<SeatRelease> due = List.of(release(1, "F1", "1A"), release(2, "F2", "2A"), release(3, "F1", "1B", "1C"));
+        when(releaseRepo.lockDue(eq(NOW), any(Pageable.class))).thenReturn(due);
+
+        assertEquals(3, worker.releaseBatch());
+
+        assertEquals(List.of("F1", "F2"), flights.releaseCalls);
+        assertEquals(List.of(List.of("1A", "1B", "1C"), List.of("2A")), flights.releasedSeats);
+        verify(releaseRepo).lease(List.of(1L, 2L, 3L), NOW.plusMinutes(1));
+        verify(releaseRepo).deleteAllInBatch(due);
+        verify(flightInfoCache).invalidate("F1");
+        verify(flightInfoCache).invalidate("F2");
+        assertEquals(3L, worker.stats().get("released"));
+        assertEquals(2L, worker.stats().get("releaseCalls"));
+    }
+
+    @Test
+    void testReleasesSurviveFlightServiceOutage() {
+        SeatRelease r = release(1, "F1", "1A");
+        when(releaseRepo.lockDue(eq(NOW), any(Pageable.class))).thenReturn(List.of(r));
+        flights.down = true;
+
+        worker.releaseBatch();
+
+        verify(releaseRepo, never()).deleteAllInBatch(any());
+        verify(releaseRepo).saveAll(List.of(r));
+        assertEquals(SeatReleaseStatus.PENDING, r.getStatus());
+        assertEquals(1, r.getAttempts());
+        assertTrue(r.getLastError().contains("flight service unavailable"));
+        // first retry lands between half and all of the initial backoff
+        assertTrue(!r.getNextAttemptAt().isBefore(NOW.plus(Duration.ofMillis(500))));
+        assertTrue(!r.getNextAttemptAt().isAfter(NOW.plusSeconds(1)));
+
+        flights.down = false;
+        worker.releaseBatch();
+        verify(releaseRepo).deleteAllInBatch(List.of(r));
+        assertEquals(List.of(List.of("1A")), flights.releasedSeats);
+    }
+
+    @Test
+    void testBackoffGrowsThenDeadLetters() {
+        SeatRelease r = release(1, "F1", "1A");
+        when(releaseRepo.lockDue(eq(NOW), any(Pageable.class))).thenReturn(List.of(r));
+        flights.down = true;
+
+        worker.releaseBatch();
+        worker.releaseBatch();
+        // second retry waits at least a full initial backoff
+        assertTrue(!r.getNextAttemptAt().isBefore(NOW.plusSeconds(1)));
+        assertEquals(SeatReleaseStatus.PENDING, r.getStatus());
+
+        worker.releaseBatch();
+        assertEquals(3, r.getAttempts());
+        assertEquals(SeatReleaseStatus.DEAD, r.getStatus());
+        assertEquals(1L, worker.stats().get("dead"));
+        assertEquals(2L, worker.stats().get("retried"));
+    }
+
+    @Test
+    void testSuccessfulFlightIsNotHeldBackByFailingOne() {
+        SeatRelease ok = release(1, "F1", "1A");
+        SeatRelease failing = release(2, "F2", "2A");
+        FlakyFlightService selective = new FlakyFlightService() {
+            @Override
+            public Map<String, Object> releaseSeats(String flightId, Map<String, Object> body) {
+                down = flightId.equals("F2");
+                return super.releaseSeats(flightId, body);
+            }
+        };
+        worker = new SeatReleaseWorker(releaseRepo, new FlightServiceClient(selective, null,
+                new FlightCallGuard(BulkheadRegistry.ofDefaults(), 20, 2, 50,
+                        Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1)),
+                new FlightInfoCoalescer(Duration.ofSeconds(1)), CircuitBreakerRegistry.ofDefaults()),
+                flightInfoCache, mock(PlatformTransactionManager.class), 50, 5,
+                Duration.ofSeconds(1), Duration.ofMinutes(10), 3, Duration.ofMinutes(1), Clock.systemUTC());
+        when(releaseRepo.lockDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(ok, failing));
+
+        worker.releaseBatch();
+
+        verify(releaseRepo).deleteAllInBatch(List.of(ok));
+        verify(releaseRepo).saveAll(List.of(failing));
+        verify(flightInfoCache, never()).invalidate("F2");
+    }
+
+    @Test
+    void testReleaseCallsRunOutsideTransactions() {
+        TrackingTxManager txManager = new TrackingTxManager();
+        List<Integer> openDuringCall = new ArrayList<>();
+        FlakyFlightService tracking = new FlakyFlightService() {
+            @Override
+            public Map<String, Object> releaseSeats(String flightId, Map<String, Object> body) {
+                openDuringCall.add(txManager.open);
+                return super.releaseSeats(flightId, body);
+            }
+        };
+        worker = new SeatReleaseWorker(releaseRepo, new FlightServiceClient(tracking, null,
+                new FlightCallGuard(BulkheadRegistry.ofDefaults(), 20, 2, 50,
+                        Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1)),
+                new FlightInfoCoalescer(Duration.ofSeconds(1)), CircuitBreakerRegistry.ofDefaults()),
+                flightInfoCache, txManager, 50, 5,
+                Duration.ofSeconds(1), Duration.ofMinutes(10), 3, Duration.ofMinutes(1), Clock.systemUTC());
+        when(releaseRepo.lockDue(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(release(1, "F1", "1A"), release(2, "F2", "2A")));
+
+        worker.releaseBatch();
+
+        // one transaction claims the batch, one records the outcome, none spans the calls
+        assertEquals(List.of(0, 0), openDuringCall);
+        assertEquals(2, txManager.begun);
+        assertEquals(0, txManager.open);
+    }
+}
@@ -0,0 +1,59 @@
+package com.booking.test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.booking.cache.TicketCacheBackend;
+import com.booking.cache.TicketView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Stand-in for a shared cache: values only ever exist as JSON bytes, like in Redis, so every get
+// returns a fresh copy and anything that does not survive serialization shows up in tests.
+class SerializingTicketCacheBackend implements TicketCacheBackend {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, byte[]> store = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Override
+    public TicketView get(String pnr) {
+        byte[] bytes = store.get(pnr);
+        if (bytes == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        try {
+            return mapper.readValue(bytes, TicketView.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void put(String pnr, TicketView view) {
+        try {
+            store.put(pnr, mapper.writeValueAsBytes(view));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void evict(String pnr) {
+        store.remove(pnr);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return Map.of("size", store.size(), "hits", hits.get(), "misses", misses.get());
+    }
+
+    int size() {
+        return store.size();
+    }
+}
@@ -0,0 +1,90 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.booking.cache.SingleFlight;
+
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, String> group = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> group.execute("F1", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "info";
+                })));
+            }
+            while (((Number) group.stats().get("calls")).intValue() < 8) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> f : results) {
+                assertEquals("info", f.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(7L, group.stats().get("coalesced"));
+        assertEquals(0, group.inFlightCount());
+    }
+
+    @Test
+    void testFailureIsSharedAndNotRemembered() {
+        SingleFlight<String, String> group = new SingleFlight<>(Duration.ofSeconds(5));
+        assertThrows(RuntimeException.class, () -> group.execute("F1", () -> {
+            throw new RuntimeException("down");
+        }));
+        assertEquals("info", group.execute("F1", () -> "info"));
+    }
+
+    @Test
+    void testFollowerTimesOutOnStuckCall() throws Exception {
+        SingleFlight<String, String> group = new SingleFlight<>(Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        Thread leader = new Thread(() -> group.execute("F1", () -> {
+            await(release);
+            return "late";
+        }));
+        leader.start();
+        while (group.inFlightCount() == 0) {
+            Thread.sleep(1);
+        }
+        try {
+            assertThrows(IllegalStateException.class, () -> group.execute("F1", () -> "fresh"));
+        } finally {
+            release.countDown();
+            leader.join();
+        }
+        assertEquals(1L, group.stats().get("timeouts"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
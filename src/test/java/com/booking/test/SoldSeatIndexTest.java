@@ -0,0 +1,129 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.booking.inventory.SoldSeatIndex;
+import com.booking.repositories.BookingRepository;
+import com.booking.repositories.FlightSeatRow;
+
+class SoldSeatIndexTest {
+
+    @Test
+    void testMarkAndFreeSeats() {
+        SoldSeatIndex index = new SoldSeatIndex(10);
+        index.markSold("F1", List.of("1A", "128P", "64C"));
+
+        assertTrue(index.anySold("F1", List.of("2B", "128P")));
+        assertTrue(index.anySold("F1", List.of("64C")));
+        assertFalse(index.anySold("F1", List.of("1B", "64D")));
+        assertFalse(index.anySold("F2", List.of("1A")));
+
+        index.markFree("F1", List.of("1A", "64C"));
+        assertFalse(index.anySold("F1", List.of("1A", "64C")));
+        assertTrue(index.anySold("F1", List.of("128P")));
+        assertEquals(3L, index.stats().get("rejected"));
+    }
+
+    @Test
+    void testSeatsOutsideTheSeatMapAreNeverRefused() {
+        SoldSeatIndex index = new SoldSeatIndex(10);
+        index.markSold("F1", List.of("129A", "1Z", "A1"));
+
+        assertFalse(index.anySold("F1", List.of("129A", "1Z", "A1")));
+    }
+
+    @Test
+    void testFlightsBeyondTheLimitAreNotTracked() {
+        SoldSeatIndex index = new SoldSeatIndex(2);
+        index.markSold("F1", List.of("1A"));
+        index.markSold("F2", List.of("1A"));
+        index.markSold("F3", List.of("1A"));
+
+        assertTrue(index.anySold("F2", List.of("1A")));
+        assertFalse(index.anySold("F3", List.of("1A")));
+        assertEquals(2, index.stats().get("flights"));
+        assertEquals(1L, index.stats().get("overflow"));
+    }
+
+    @Test
+    void testRebuildLoadsSoldSeats_andKeepsCancellationsMadeWhileReading() {
+        BookingRepository repo = mock(BookingRepository.class);
+        SoldSeatIndex index = new SoldSeatIndex(repo, mock(PlatformTransactionManager.class), 10);
+        index.markSold("OLD", List.of("1A"));
+
+        // 3C is cancelled after the rebuild's query already returned it as sold
+        when(repo.streamSoldSeats(any(LocalDateTime.class))).thenReturn(
+                Stream.of(new FlightSeatRow("F1", "1A"), new FlightSeatRow("F1", "3C"), new FlightSeatRow("F2", "2B"))
+                        .peek(row -> {
+                            if (row.seat().equals("3C")) index.markFree("F1", List.of("3C"));
+                        }));
+        index.rebuild();
+
+        assertTrue(index.anySold("F1", List.of("1A")));
+        assertTrue(index.anySold("F2", List.of("2B")));
+        assertFalse(index.anySold("F1", List.of("3C")));
+        // departed flights are not in the query, so they drop out
+        assertFalse(index.anySold("OLD", List.of("1A")));
+        assertEquals(1L, index.stats().get("rebuilds"));
+    }
+
+    @Test
+    void testFailedRebuildKeepsServingTheOldIndex() {
+        BookingRepository repo = mock(BookingRepository.class);
+        SoldSeatIndex index = new SoldSeatIndex(repo, mock(PlatformTransactionManager.class), 10);
+        index.markSold("F1", List.of("1A"));
+        when(repo.streamSoldSeats(any(LocalDateTime.class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        index.rebuild();
+
+        assertTrue(index.anySold("F1", List.of("1A")));
+        assertEquals(0L, index.stats().get("rebuilds"));
+    }
+
+    @Test
+    void testHitIsConfirmedAgainstTheDatabase() {
+        BookingRepository repo = mock(BookingRepository.class);
+        SoldSeatIndex index = new SoldSeatIndex(repo, mock(PlatformTransactionManager.class), 10);
+        index.markSold("F1", List.of("1A", "2B"));
+        when(repo.findSoldSeats("F1", List.of("1A"))).thenReturn(List.of("1A"));
+        // 2B was cancelled on another instance
+        when(repo.findSoldSeats("F1", List.of("2B"))).thenReturn(List.of());
+
+        assertTrue(index.anySold("F1", List.of("1A")));
+        assertFalse(index.anySold("F1", List.of("2B")));
+        assertFalse(index.mightBeSold("F1", List.of("2B")));
+        assertFalse(index.anySold("F1", List.of("3C")));
+        verify(repo, never()).findSoldSeats("F1", List.of("3C"));
+        assertEquals(1L, index.stats().get("rejected"));
+        assertEquals(1L, index.stats().get("stale"));
+    }
+
+    @Test
+    void testUnconfirmedHitIsNotRefusedWhenTheDatabaseFails() {
+        BookingRepository repo = mock(BookingRepository.class);
+        SoldSeatIndex index = new SoldSeatIndex(repo, mock(PlatformTransactionManager.class), 10);
+        index.markSold("F1", List.of("1A"));
+        when(repo.findSoldSeats(anyString(), anyCollection())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertFalse(index.anySold("F1", List.of("1A")));
+        // the bit stays, the next call checks again
+        assertTrue(index.mightBeSold("F1", List.of("1A")));
+    }
+}
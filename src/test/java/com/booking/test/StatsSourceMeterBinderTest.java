@@ -0,0 +1,50 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.booking.metrics.StatsSource;
+import com.booking.metrics.StatsSourceMeterBinder;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StatsSourceMeterBinderTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testScrapeTakesOneSnapshotPerSource() {
+        AtomicInteger calls = new AtomicInteger();
+        StatsSource source = new StatsSource() {
+            @Override
+            public String statsName() {
+                return "test";
+            }
+
+            @Override
+            public Map<String, Object> stats() {
+                calls.incrementAndGet();
+                return Map.of("hits", 3L, "misses", 1L, "flightInfo", Map.of("limit", 20, "inFlight", 2));
+            }
+        };
+        ObjectProvider<StatsSource> sources = mock(ObjectProvider.class);
+        when(sources.orderedStream()).thenReturn(Stream.of(source));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new StatsSourceMeterBinder(sources).bindTo(registry);
+        double sum = registry.find("booking.internal.stats").gauges().stream().mapToDouble(Gauge::value).sum();
+
+        assertEquals(4, registry.find("booking.internal.stats").gauges().size());
+        assertEquals(26.0, sum);
+        assertEquals(20.0, registry.get("booking.internal.stats").tag("key", "flightInfo.limit").gauge().value());
+        assertEquals(1, calls.get());
+    }
+}
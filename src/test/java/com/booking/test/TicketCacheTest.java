@@ -0,0 +1,111 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.booking.cache.TicketCache;
+import com.booking.cache.TicketView;
+
+class TicketCacheTest {
+
+    private final SerializingTicketCacheBackend backend = new SerializingTicketCacheBackend();
+    private final TicketCache cache = new TicketCache(backend);
+
+    private static TicketView ticket(String pnr, String status) {
+        return new TicketView(pnr, "F1", status, List.of("1A", "1B"),
+                List.of(new TicketView.PassengerView(1L, "Alice", "F", 30)));
+    }
+
+    @Test
+    void testReadThroughLoadsOnceAndSurvivesSerialization() {
+        AtomicInteger loads = new AtomicInteger();
+        TicketView first = cache.get("P1", pnr -> {
+            loads.incrementAndGet();
+            return ticket(pnr, "CONFIRMED");
+        });
+        TicketView second = cache.get("P1", pnr -> {
+            loads.incrementAndGet();
+            return ticket(pnr, "CONFIRMED");
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(1L, cache.stats().get("loads"));
+        assertEquals(1L, cache.stats().get("hits"));
+    }
+
+    @Test
+    void testUnknownPnrIsNotCached() {
+        assertThrows(RuntimeException.class, () -> cache.get("X", pnr -> {
+            throw new RuntimeException("Booking not found");
+        }));
+        assertEquals(0, backend.size());
+    }
+
+    @Test
+    void testInvalidateEvictsNowAndAfterCommit() {
+        cache.get("P1", pnr -> ticket(pnr, "CONFIRMED"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate("P1");
+            assertEquals(0, backend.size());
+
+            // a concurrent reader puts the pre-commit row back before the transaction commits
+            cache.get("P1", pnr -> ticket(pnr, "CONFIRMED"));
+            assertEquals(1, backend.size());
+
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCommit();
+            }
+            assertEquals(0, backend.size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(cache.get("P1", pnr -> ticket(pnr, "CANCELLED")).status().equals("CANCELLED"));
+    }
+
+    @Test
+    void testLoadThatStartedBeforeTheCommitDoesNotCacheTheOldRow() {
+        cache.get("P1", pnr -> ticket(pnr, "CONFIRMED"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate("P1");
+            // the reader misses, reads the row before the cancel commits, and puts only after the
+            // afterCommit eviction
+            TicketView stale = cache.get("P1", pnr -> {
+                TicketView old = ticket(pnr, "CONFIRMED");
+                for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                    sync.afterCommit();
+                }
+                return old;
+            });
+            assertEquals("CONFIRMED", stale.status());
+            assertEquals(0, backend.size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals("CANCELLED", cache.get("P1", pnr -> ticket(pnr, "CANCELLED")).status());
+    }
+
+    @Test
+    void testLoadThatStartedBeforeTheInvalidationDoesNotCacheTheOldRow() {
+        TicketView stale = cache.get("P1", pnr -> {
+            TicketView old = ticket(pnr, "CONFIRMED");
+            cache.invalidate("P1");
+            return old;
+        });
+
+        assertEquals("CONFIRMED", stale.status());
+        assertEquals(0, backend.size());
+    }
+}
@@ -0,0 +1,58 @@
+package com.booking.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.booking.cache.TicketView;
+import com.booking.model.Booking;
+import com.booking.model.BookingStatus;
+import com.booking.model.Passenger;
+import com.booking.repositories.BookingRepository;
+import com.booking.service.TicketReader;
+
+class TicketReaderTest {
+
+    @Mock
+    private BookingRepository bookingRepo;
+
+    @InjectMocks
+    private TicketReader reader;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testCopiesBookingIntoDetachedView() {
+        Passenger p = new Passenger();
+        p.setId(7L); p.setName("Alice"); p.setGender("F"); p.setAge(30);
+        Booking b = new Booking();
+        b.setPnr("P1"); b.setFlightId("F1"); b.setStatus(BookingStatus.CONFIRMED);
+        b.setSeatNumbers(List.of("1A")); b.setPassengers(List.of(p));
+        when(bookingRepo.findTicketByPnr("P1")).thenReturn(b);
+
+        TicketView view = reader.load("P1");
+
+        assertEquals(new TicketView("P1", "F1", "CONFIRMED", List.of("1A"),
+                List.of(new TicketView.PassengerView(7L, "Alice", "F", 30))), view);
+        verify(bookingRepo, never()).findByPnr(any());
+    }
+
+    @Test
+    void testUnknownPnrReturnsNull() {
+        assertNull(reader.load("X"));
+    }
+}